@@ -0,0 +1,171 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.graph.bulk.impl.ObjectToVertex;
+import com.azure.graph.bulk.impl.model.GremlinEdge;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+import com.azure.graph.bulk.sample.model.PersonVertex;
+import com.azure.graph.bulk.sample.model.RelationshipEdge;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The objects the benchmarks convert, built once per trial. Each benchmark invocation takes the next one of COUNT
+ * distinct objects, so the results aren't those of a single object that never leaves the CPU caches.
+ */
+public final class BenchmarkInputs {
+    private BenchmarkInputs() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    // Power of two, the index wraps around with a mask
+    static final int COUNT = 1024;
+    private static final String[] COUNTRIES = {"Neverland", "Atlantis", "Lemuria", "Avalon"};
+
+    /**
+     * POJO and domain objects with propertyCount properties each
+     */
+    @State(Scope.Thread)
+    public static class Shaped {
+        @Param({"4", "16", "64"})
+        public int propertyCount;
+
+        GremlinVertex[] gremlinVertices;
+        GremlinEdge[] gremlinEdges;
+        ProfileVertex[] profileVertices;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            gremlinVertices = new GremlinVertex[COUNT];
+            gremlinEdges = new GremlinEdge[COUNT];
+            profileVertices = new ProfileVertex[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                gremlinVertices[i] = gremlinVertex(i, propertyCount);
+                gremlinEdges[i] = gremlinEdge(i, propertyCount);
+                profileVertices[i] = profileVertex(i, propertyCount);
+            }
+        }
+
+        int next() {
+            return next++ & (COUNT - 1);
+        }
+    }
+
+    /**
+     * The domain objects of the sample, PersonVertex and RelationshipEdge, and the GremlinVertex and GremlinEdge
+     * objects they convert to
+     */
+    @State(Scope.Thread)
+    public static class Sample {
+        PersonVertex[] personVertices;
+        RelationshipEdge[] relationshipEdges;
+        GremlinVertex[] mappedVertices;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            personVertices = new PersonVertex[COUNT];
+            relationshipEdges = new RelationshipEdge[COUNT];
+            mappedVertices = new GremlinVertex[COUNT];
+            for (int i = 0; i < COUNT; i++) {
+                personVertices[i] = personVertex(i);
+                mappedVertices[i] = ObjectToVertex.toGremlinVertex(personVertices[i]);
+            }
+            for (int i = 0; i < COUNT; i++) {
+                relationshipEdges[i] = RelationshipEdge.builder()
+                        .sourceVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(personVertices[i]))
+                        .destinationVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(
+                                personVertices[(i + 1) & (COUNT - 1)]))
+                        .relationshipType(i % 2 == 0 ? "KNOWS" : "WORKS_WITH")
+                        .build();
+            }
+        }
+
+        int next() {
+            return next++ & (COUNT - 1);
+        }
+    }
+
+    static GremlinVertex gremlinVertex(int i, int propertyCount) {
+        GremlinVertex vertex = GremlinVertex.builder()
+                .id("vertex-" + i)
+                .label("ITEM")
+                .partitionKey(GremlinPartitionKey.builder().fieldName("country").value(country(i)).build())
+                .build();
+        for (int property = 0; property < propertyCount; property++) {
+            vertex.addProperty("property" + property, propertyValue(i, property));
+        }
+        return vertex;
+    }
+
+    static GremlinEdge gremlinEdge(int i, int propertyCount) {
+        GremlinVertex source = gremlinVertex(i, 0);
+        GremlinVertex destination = gremlinVertex((i + 1) & (COUNT - 1), 0);
+        Map<String, Object> properties = new HashMap<>();
+        for (int property = 0; property < propertyCount; property++) {
+            properties.put("property" + property, propertyValue(i, property));
+        }
+        return GremlinEdge.builder()
+                .id("edge-" + i)
+                .label("LINKS")
+                .partitionKey(source.getPartitionKey())
+                .sourceVertexInfo(new GremlinEdgeVertexInfo(source))
+                .destinationVertexInfo(new GremlinEdgeVertexInfo(destination))
+                .properties(properties)
+                .build();
+    }
+
+    static ProfileVertex profileVertex(int i, int propertyCount) {
+        ProfileVertex vertex = new ProfileVertex();
+        vertex.id = "profile-" + i;
+        vertex.country = country(i);
+        vertex.name = "name-" + i;
+        vertex.attributes = new HashMap<>();
+        // The name is one of the properties
+        for (int property = 1; property < propertyCount; property++) {
+            vertex.attributes.put("attribute" + property, propertyValue(i, property));
+        }
+        return vertex;
+    }
+
+    static PersonVertex personVertex(int i) {
+        return PersonVertex.builder()
+                .id("person-" + i)
+                .firstName("first-" + i)
+                .lastName("last-" + i)
+                .email("person-" + i + "@example.com")
+                .country(country(i))
+                .build();
+    }
+
+    /**
+     * A mix of the value types found in documents: strings, ints, longs and doubles
+     */
+    private static Object propertyValue(int i, int property) {
+        switch (property % 4) {
+            case 0:
+                return "value-" + i + "-" + property;
+            case 1:
+                return i + property;
+            case 2:
+                return (long) i * Integer.MAX_VALUE + property;
+            default:
+                return i / (property + 1.0);
+        }
+    }
+
+    private static String country(int i) {
+        return COUNTRIES[i % COUNTRIES.length];
+    }
+}
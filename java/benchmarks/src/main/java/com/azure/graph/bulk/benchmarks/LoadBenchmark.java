@@ -0,0 +1,179 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.graph.bulk.impl.PropertyIdGenerators;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
+import com.azure.graph.bulk.impl.upload.BulkOperationExecutor;
+import com.azure.graph.bulk.impl.upload.DeadLetterSink;
+import com.azure.graph.bulk.impl.upload.GraphSource;
+import com.azure.graph.bulk.impl.upload.SimulatedBulkExecutor;
+import com.azure.graph.bulk.impl.upload.UploadPhase;
+import com.azure.graph.bulk.sample.GenerateDomainSamples;
+import com.azure.graph.bulk.sample.GeneratePOJOSamples;
+import com.azure.graph.bulk.sample.UploadWithBulkLoader;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads a generated graph, like the sample does, through the whole upload pipeline into a SimulatedBulkExecutor and
+ * reports the throughput and the latencies. Runs offline, the graph and the simulated latencies are seeded so two runs
+ * with the same options load the same documents.
+ */
+public final class LoadBenchmark {
+    private LoadBenchmark() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    private static final String VERTEX_COUNT = "vertexcount";
+    private static final String EDGE_MAX = "edgemax";
+    private static final String DOMAIN_SAMPLE = "domainSample";
+    private static final String PARTITIONS = "partitions";
+    private static final String REQUEST_UNITS = "requestUnits";
+    private static final String REQUEST_CHARGE = "requestCharge";
+    private static final String LATENCY = "latency";
+    private static final String LATENCY_SPREAD = "latencySpread";
+    private static final String VERTEX_CONCURRENCY = "vertexConcurrency";
+    private static final String EDGE_CONCURRENCY = "edgeConcurrency";
+    private static final String SEED = "seed";
+
+    public static void main(String[] args) throws ParseException {
+        CommandLine cmd = new DefaultParser().parse(getOptions(), args);
+        int vertexCount = Integer.parseInt(cmd.getOptionValue(VERTEX_COUNT, "100000"));
+        int edgeMax = Integer.parseInt(cmd.getOptionValue(EDGE_MAX, "5"));
+        long seed = Long.parseLong(cmd.getOptionValue(SEED, "0"));
+
+        Recorder recorder = new Recorder(SimulatedBulkExecutor.builder()
+                .partitionCount(Integer.parseInt(cmd.getOptionValue(PARTITIONS, "4")))
+                .requestUnitsPerSecond(Double.parseDouble(cmd.getOptionValue(REQUEST_UNITS, "10000")))
+                .requestCharge(Double.parseDouble(cmd.getOptionValue(REQUEST_CHARGE, "10")))
+                .medianLatency(Duration.ofMillis(Long.parseLong(cmd.getOptionValue(LATENCY, "5"))))
+                .latencySpread(Double.parseDouble(cmd.getOptionValue(LATENCY_SPREAD, "0.5")))
+                .seed(seed)
+                .build());
+        UploadWithBulkLoader loader = UploadWithBulkLoader.builder()
+                .executor(recorder)
+                // Random property ids would make the documents of two runs differ
+                .propertyIdGenerator(PropertyIdGenerators.deterministic())
+                .vertexPhase(UploadPhase.builder()
+                        .name("vertex")
+                        .concurrency(Integer.parseInt(cmd.getOptionValue(VERTEX_CONCURRENCY, "1")))
+                        .build())
+                .edgePhase(UploadPhase.builder()
+                        .name("edge")
+                        .concurrency(Integer.parseInt(cmd.getOptionValue(EDGE_CONCURRENCY, "5")))
+                        .build())
+                .build();
+
+        VertexDirectory directory = new VertexDirectory();
+        GraphSource source = cmd.hasOption(DOMAIN_SAMPLE)
+                ? GraphSource.of(
+                () -> GenerateDomainSamples.getVertices(vertexCount, directory, seed),
+                () -> GenerateDomainSamples.getEdges(directory, edgeMax, seed + 1))
+                : GraphSource.of(
+                () -> GeneratePOJOSamples.getVertices(vertexCount, directory, seed),
+                () -> GeneratePOJOSamples.getEdges(directory, edgeMax, seed + 1));
+
+        long start = System.nanoTime();
+        loader.uploadDocuments(source, true);
+        recorder.report(System.nanoTime() - start);
+    }
+
+    private static Options getOptions() {
+        Options options = new Options();
+        options.addOption("v", VERTEX_COUNT, true, "How many vertices to generate, defaults to 100000");
+        options.addOption("e", EDGE_MAX, true, "Max of edges to attach to each vertex, defaults to 5");
+        options.addOption("d", DOMAIN_SAMPLE, false, "Generates the Domain objects rather than the POJOs");
+        options.addOption("n", PARTITIONS, true, "Number of simulated partitions, defaults to 4");
+        options.addOption("r", REQUEST_UNITS, true, "Request units per second of each partition, defaults to 10000");
+        options.addOption("c", REQUEST_CHARGE, true, "Request units charged per document, defaults to 10");
+        options.addOption("l", LATENCY, true, "Median latency of the responses in milliseconds, defaults to 5");
+        options.addOption("z", LATENCY_SPREAD, true,
+                "Standard deviation of the logarithm of the latencies, defaults to 0.5");
+        options.addOption("u", VERTEX_CONCURRENCY, true, "Micro batch concurrency of the vertices, defaults to 1");
+        options.addOption("o", EDGE_CONCURRENCY, true, "Micro batch concurrency of the edges, defaults to 5");
+        options.addOption("s", SEED, true, "Seed of the graph and of the latencies, defaults to 0");
+        return options;
+    }
+
+    /**
+     * Records when every operation is handed to the simulated executor and when its response comes back. Each attempt
+     * of an operation the RetryPolicy writes again is a separate sample.
+     */
+    private static final class Recorder implements BulkOperationExecutor {
+        private final BulkOperationExecutor executor;
+        private final Map<CosmosItemOperation, Long> submitted = Collections.synchronizedMap(new IdentityHashMap<>());
+        private long[] latencies = new long[1024];
+        private int latencyCount;
+        private long written;
+        private long throttled;
+        private long failed;
+        private double requestCharge;
+
+        private Recorder(BulkOperationExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public Flux<CosmosBulkOperationResponse<Object>> execute(
+                Flux<CosmosItemOperation> operations, CosmosBulkExecutionOptions options) {
+            return executor.execute(operations.doOnNext(operation -> submitted.put(operation, System.nanoTime())),
+                            options)
+                    .doOnNext(this::record);
+        }
+
+        private void record(CosmosBulkOperationResponse<Object> response) {
+            long now = System.nanoTime();
+            Long submittedAt = submitted.remove(response.getOperation());
+            synchronized (this) {
+                if (submittedAt != null) {
+                    if (latencyCount == latencies.length) latencies = Arrays.copyOf(latencies, latencyCount * 2);
+                    latencies[latencyCount++] = now - submittedAt;
+                }
+                if (response.getResponse() != null) requestCharge += response.getResponse().getRequestCharge();
+                if (!DeadLetterSink.isFailure(response)) {
+                    written++;
+                } else if (response.getResponse() != null && response.getResponse().getStatusCode() == 429) {
+                    throttled++;
+                } else {
+                    failed++;
+                }
+            }
+        }
+
+        private synchronized void report(long elapsedNanos) {
+            double seconds = elapsedNanos / (double) TimeUnit.SECONDS.toNanos(1);
+            long[] sorted = Arrays.copyOf(latencies, latencyCount);
+            Arrays.sort(sorted);
+
+            System.out.printf("Elapsed:          %.2f s%n", seconds);
+            System.out.printf("Documents:        %d written, %d throttled responses, %d failed%n",
+                    written, throttled, failed);
+            System.out.printf("Throughput:       %.0f documents/s, %.0f RU/s%n",
+                    written / seconds, requestCharge / seconds);
+            System.out.printf("Latency (ms):     p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f%n",
+                    percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                    percentile(sorted, 0.999), percentile(sorted, 1));
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.graph.bulk.impl.ObjectToEdge;
+import com.azure.graph.bulk.impl.ObjectToVertex;
+import com.azure.graph.bulk.impl.model.GremlinEdge;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversion of the domain objects into GremlinVertex and GremlinEdge objects through their VertexMappingPlan and
+ * EdgeMappingPlan. POJO inputs already are GremlinVertex and GremlinEdge objects, there is nothing to convert, building
+ * them is measured for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    @Benchmark
+    public GremlinVertex profileVertex(BenchmarkInputs.Shaped inputs) {
+        return ObjectToVertex.toGremlinVertex(inputs.profileVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public GremlinVertex buildGremlinVertex(BenchmarkInputs.Shaped inputs) {
+        return BenchmarkInputs.gremlinVertex(inputs.next(), inputs.propertyCount);
+    }
+
+    @Benchmark
+    public GremlinVertex personVertex(BenchmarkInputs.Sample inputs) {
+        return ObjectToVertex.toGremlinVertex(inputs.personVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public GremlinEdgeVertexInfo personVertexInfo(BenchmarkInputs.Sample inputs) {
+        return ObjectToVertex.toGremlinEdgeVertexInfo(inputs.personVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public GremlinEdge relationshipEdge(BenchmarkInputs.Sample inputs) {
+        return ObjectToEdge.toGremlinEdge(inputs.relationshipEdges[inputs.next()]);
+    }
+}
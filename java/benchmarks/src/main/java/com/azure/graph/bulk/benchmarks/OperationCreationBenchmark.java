@@ -0,0 +1,60 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.graph.bulk.impl.BulkGremlinObjectMapper;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The whole path from an object to the CosmosItemOperation handed to the bulk executor: conversion, validation and
+ * serialization
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OperationCreationBenchmark {
+    private final GremlinDocumentOperationCreator creator = GremlinDocumentOperationCreator.builder()
+            .mapper(BulkGremlinObjectMapper.getBulkGremlinObjectMapper())
+            .build();
+
+    @Benchmark
+    public CosmosItemOperation gremlinVertex(BenchmarkInputs.Shaped inputs) {
+        return creator.getVertexCreateOperation(inputs.gremlinVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public CosmosItemOperation profileVertex(BenchmarkInputs.Shaped inputs) {
+        return creator.getVertexCreateOperation(inputs.profileVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public CosmosItemOperation gremlinEdge(BenchmarkInputs.Shaped inputs) {
+        return creator.getEdgeCreateOperation(inputs.gremlinEdges[inputs.next()]);
+    }
+
+    @Benchmark
+    public CosmosItemOperation personVertex(BenchmarkInputs.Sample inputs) {
+        return creator.getVertexCreateOperation(inputs.personVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public CosmosItemOperation relationshipEdge(BenchmarkInputs.Sample inputs) {
+        return creator.getEdgeCreateOperation(inputs.relationshipEdges[inputs.next()]);
+    }
+}
@@ -0,0 +1,26 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.graph.bulk.impl.annotations.GremlinId;
+import com.azure.graph.bulk.impl.annotations.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.annotations.GremlinPropertyMap;
+import com.azure.graph.bulk.impl.annotations.GremlinVertex;
+
+import java.util.Map;
+
+/**
+ * Domain vertex whose number of properties is set by the benchmark, the PersonVertex of the sample always has the same
+ * four properties
+ */
+@GremlinVertex(label = "PROFILE")
+public class ProfileVertex {
+    @GremlinId
+    public String id;
+    @GremlinPartitionKey
+    public String country;
+    public String name;
+    @GremlinPropertyMap
+    public Map<String, Object> attributes;
+}
@@ -0,0 +1,81 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.graph.bulk.impl.PropertyIdGenerator;
+import com.azure.graph.bulk.impl.PropertyIdGenerators;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The PropertyIdGenerators strategies against UUID.randomUUID, which they replaced. The contended benchmarks run on
+ * four threads sharing the generator, as the threads serializing vertices do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropertyIdGeneratorBenchmark {
+    @State(Scope.Benchmark)
+    public static class Strategy {
+        @Param({"threadLocalRandom", "deterministic", "monotonic"})
+        public String name;
+
+        PropertyIdGenerator generator;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            switch (name) {
+                case "threadLocalRandom":
+                    generator = PropertyIdGenerators.threadLocalRandom();
+                    break;
+                case "deterministic":
+                    generator = PropertyIdGenerators.deterministic();
+                    break;
+                case "monotonic":
+                    generator = PropertyIdGenerators.monotonic();
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown strategy " + name);
+            }
+        }
+    }
+
+    @Benchmark
+    public String generateId(Strategy strategy, BenchmarkInputs.Sample inputs) {
+        return strategy.generator.generateId(inputs.personVertices[inputs.next()].id, "firstName", 0);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateIdContended(Strategy strategy, BenchmarkInputs.Sample inputs) {
+        return strategy.generator.generateId(inputs.personVertices[inputs.next()].id, "firstName", 0);
+    }
+
+    @Benchmark
+    public String randomUuid() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String randomUuidContended() {
+        return UUID.randomUUID().toString();
+    }
+}
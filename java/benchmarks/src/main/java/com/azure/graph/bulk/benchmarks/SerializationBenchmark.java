@@ -0,0 +1,59 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.benchmarks;
+
+import com.azure.graph.bulk.impl.BulkGremlinObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The GremlinVertexSerializer and GremlinEdgeSerializer writing documents, into the ObjectNode the bulk operations
+ * carry and into bytes, the form the content hashes are computed from
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+    private final ObjectMapper mapper = BulkGremlinObjectMapper.getBulkGremlinObjectMapper();
+
+    @Benchmark
+    public ObjectNode gremlinVertexToTree(BenchmarkInputs.Shaped inputs) {
+        return mapper.valueToTree(inputs.gremlinVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public byte[] gremlinVertexToBytes(BenchmarkInputs.Shaped inputs) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(inputs.gremlinVertices[inputs.next()]);
+    }
+
+    @Benchmark
+    public ObjectNode gremlinEdgeToTree(BenchmarkInputs.Shaped inputs) {
+        return mapper.valueToTree(inputs.gremlinEdges[inputs.next()]);
+    }
+
+    @Benchmark
+    public byte[] gremlinEdgeToBytes(BenchmarkInputs.Shaped inputs) throws JsonProcessingException {
+        return mapper.writeValueAsBytes(inputs.gremlinEdges[inputs.next()]);
+    }
+
+    @Benchmark
+    public ObjectNode personVertexToTree(BenchmarkInputs.Sample inputs) {
+        return mapper.valueToTree(inputs.mappedVertices[inputs.next()]);
+    }
+}
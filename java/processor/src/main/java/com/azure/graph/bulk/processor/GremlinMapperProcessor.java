@@ -0,0 +1,348 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.processor;
+
+import com.azure.graph.bulk.impl.annotations.EdgeAnnotationValidator;
+import com.azure.graph.bulk.impl.annotations.GremlinEdge;
+import com.azure.graph.bulk.impl.annotations.GremlinEdgeVertex;
+import com.azure.graph.bulk.impl.annotations.GremlinEdgeVertex.Direction;
+import com.azure.graph.bulk.impl.annotations.GremlinId;
+import com.azure.graph.bulk.impl.annotations.GremlinIgnore;
+import com.azure.graph.bulk.impl.annotations.GremlinLabel;
+import com.azure.graph.bulk.impl.annotations.GremlinLabelGetter;
+import com.azure.graph.bulk.impl.annotations.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.annotations.GremlinProperty;
+import com.azure.graph.bulk.impl.annotations.GremlinPropertyMap;
+import com.azure.graph.bulk.impl.annotations.GremlinVertex;
+import com.azure.graph.bulk.impl.annotations.VertexAnnotationValidator;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.processor.MapperSourceWriter.EdgeVertex;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Generates a GremlinVertexMapper or GremlinEdgeMapper for every class annotated with GremlinVertex or GremlinEdge.
+ * The rules enforced at runtime by the VertexAnnotationValidator and EdgeAnnotationValidator are reported as
+ * compile errors instead.
+ * <p>
+ * The generated mappers read the same members the reflection based conversion can see, public instance fields and
+ * public GremlinLabelGetter methods, so both produce identical results. The vertices of an edge are read by generated
+ * code too when the field declares a class annotated with GremlinVertex that is valid and reachable from the mapper
+ * and holds an instance of exactly that class. Other objects, for example of a subclass, are converted at runtime
+ * by ObjectToVertex.
+ */
+public class GremlinMapperProcessor extends AbstractProcessor {
+    public static final String ID_NOT_STRING = "GremlinId field %s is required to be a String.";
+    public static final String LABEL_NOT_STRING = "GremlinLabel field %s is required to be a String.";
+    public static final String LABEL_GETTER_INVALID = "GremlinLabelGetter method %s is required to return a " +
+            "String and not contain any arguments.";
+    public static final String PROPERTY_MAP_NOT_MAP = "GremlinPropertyMap field %s is required to be a Map.";
+    public static final String CLASS_NOT_ACCESSIBLE = "%s is private, no GremlinMapper is generated and " +
+            "reflection will be used to convert it.";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(GremlinVertex.class.getCanonicalName(), GremlinEdge.class.getCanonicalName());
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(GremlinVertex.class))) {
+            if (isMappable(type)) {
+                processVertex(type);
+            }
+        }
+
+        for (TypeElement type : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(GremlinEdge.class))) {
+            if (isMappable(type)) {
+                processEdge(type);
+            }
+        }
+
+        return false;
+    }
+
+    private void processVertex(TypeElement type) {
+        GremlinClassMembers members = getMembers(type);
+        String classLabel = type.getAnnotation(GremlinVertex.class).label();
+
+        if (reportErrors(type, validateVertex(members, classLabel))) return;
+
+        writeSource(type, new MapperSourceWriter(processingEnv.getElementUtils(), type, members)
+                .writeVertexMapper(classLabel));
+    }
+
+    private List<String> validateVertex(GremlinClassMembers members, String classLabel) {
+        List<String> errors = new ArrayList<>();
+        if (members.partitionKeyFields.size() != 1)
+            errors.add(VertexAnnotationValidator.GREMLIN_PARTITION_KEY_INVALID);
+        if (members.idFields.size() != 1)
+            errors.add(VertexAnnotationValidator.GREMLIN_ID_INVALID);
+
+        int labelCount = members.labelFields.size() + members.labelGetters.size();
+        if (labelCount > 0 && !classLabel.isBlank())
+            errors.add(VertexAnnotationValidator.GREMLIN_LABEL_INVALID_WITH_CLASS_ANNOTATION);
+        if (labelCount != 1 && classLabel.isBlank())
+            errors.add(VertexAnnotationValidator.GREMLIN_LABEL_INVALID);
+
+        validateMemberTypes(members, errors);
+        return errors;
+    }
+
+    private void processEdge(TypeElement type) {
+        GremlinClassMembers members = getMembers(type);
+        GremlinEdge edgeAnnotation = type.getAnnotation(GremlinEdge.class);
+        String classLabel = edgeAnnotation.label();
+
+        List<String> errors = new ArrayList<>();
+        int labelCount = members.labelFields.size() + members.labelGetters.size();
+        if (labelCount > 0 && !classLabel.isBlank())
+            errors.add(EdgeAnnotationValidator.GREMLIN_LABEL_INVALID_WITH_CLASS_ANNOTATION);
+        if (labelCount != 1 && classLabel.isBlank())
+            errors.add(EdgeAnnotationValidator.GREMLIN_LABEL_INVALID);
+
+        if (members.idFields.size() > 1)
+            errors.add(EdgeAnnotationValidator.GREMLIN_EDGE_ID);
+
+        validateEdgeDirection(errors, Direction.DESTINATION, members.destinationFields);
+        validateEdgeDirection(errors, Direction.SOURCE, members.sourceFields);
+
+        if (!members.partitionKeyFields.isEmpty())
+            errors.add(EdgeAnnotationValidator.GREMLIN_EDGE_PARTITION_KEY);
+
+        validateMemberTypes(members, errors);
+
+        if (reportErrors(type, errors)) return;
+
+        String partitionKeyFieldName = edgeAnnotation.partitionKeyFieldName().isBlank()
+                ? members.sourceFields.get(0).getSimpleName().toString()
+                : edgeAnnotation.partitionKeyFieldName();
+
+        writeSource(type, new MapperSourceWriter(processingEnv.getElementUtils(), type, members)
+                .writeEdgeMapper(classLabel, partitionKeyFieldName,
+                        getEdgeVertex(type, members.sourceFields.get(0)),
+                        getEdgeVertex(type, members.destinationFields.get(0))));
+    }
+
+    /**
+     * The errors of an invalid vertex class are reported when the class itself is processed, or at runtime when it
+     * was compiled without the processor, so its vertices are converted at runtime
+     */
+    private EdgeVertex getEdgeVertex(TypeElement edgeType, VariableElement field) {
+        if (isEdgeVertexInfo(field)) return EdgeVertex.vertexInfo();
+        if (field.asType().getKind() != TypeKind.DECLARED) return EdgeVertex.converted();
+
+        TypeElement vertexType = (TypeElement) ((DeclaredType) field.asType()).asElement();
+        GremlinVertex vertexAnnotation = vertexType.getAnnotation(GremlinVertex.class);
+        if (vertexAnnotation == null || vertexType.getKind() != ElementKind.CLASS ||
+                !isReachable(vertexType, edgeType)) return EdgeVertex.converted();
+
+        GremlinClassMembers vertexMembers = getMembers(vertexType);
+        if (!validateVertex(vertexMembers, vertexAnnotation.label()).isEmpty()) return EdgeVertex.converted();
+
+        return EdgeVertex.generated(new MapperSourceWriter(processingEnv.getElementUtils(), vertexType,
+                vertexMembers), vertexAnnotation.label());
+    }
+
+    /**
+     * @return true when the class can be named from the package of the mapper generated for the edge
+     */
+    private boolean isReachable(TypeElement type, TypeElement edgeType) {
+        boolean samePackage = processingEnv.getElementUtils().getPackageOf(type)
+                .equals(processingEnv.getElementUtils().getPackageOf(edgeType));
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            Set<Modifier> modifiers = element.getModifiers();
+            if (modifiers.contains(Modifier.PRIVATE)) return false;
+            if (!samePackage && !modifiers.contains(Modifier.PUBLIC)) return false;
+        }
+        return true;
+    }
+
+    private void validateEdgeDirection(List<String> errors, Direction direction, List<VariableElement> fields) {
+        if (fields.isEmpty())
+            errors.add(String.format(EdgeAnnotationValidator.GREMLIN_EDGE_VERTEX_MISSING, direction.name()));
+        if (fields.size() > 1)
+            errors.add(String.format(EdgeAnnotationValidator.GREMLIN_EDGE_VERTEX_TO_MANY, direction.name()));
+    }
+
+    private void validateMemberTypes(GremlinClassMembers members, List<String> errors) {
+        TypeMirror stringType = getType(String.class);
+        TypeMirror mapType = processingEnv.getTypeUtils().erasure(getType(Map.class));
+
+        for (VariableElement field : members.idFields) {
+            if (!processingEnv.getTypeUtils().isSameType(field.asType(), stringType))
+                errors.add(String.format(ID_NOT_STRING, field.getSimpleName()));
+        }
+
+        for (VariableElement field : members.labelFields) {
+            if (!processingEnv.getTypeUtils().isSameType(field.asType(), stringType))
+                errors.add(String.format(LABEL_NOT_STRING, field.getSimpleName()));
+        }
+
+        for (ExecutableElement method : members.labelGetters) {
+            if (!method.getParameters().isEmpty() ||
+                    !processingEnv.getTypeUtils().isSameType(method.getReturnType(), stringType))
+                errors.add(String.format(LABEL_GETTER_INVALID, method.getSimpleName()));
+        }
+
+        for (VariableElement field : members.propertyMapFields()) {
+            if (!processingEnv.getTypeUtils().isAssignable(
+                    processingEnv.getTypeUtils().erasure(field.asType()), mapType))
+                errors.add(String.format(PROPERTY_MAP_NOT_MAP, field.getSimpleName()));
+        }
+    }
+
+    private boolean reportErrors(TypeElement type, List<String> errors) {
+        errors.forEach(error -> processingEnv.getMessager().printMessage(Kind.ERROR, error, type));
+        return !errors.isEmpty();
+    }
+
+    /**
+     * Generated mappers live in the package of the class, which needs to be reachable from there
+     */
+    private boolean isMappable(TypeElement type) {
+        if (type.getKind() != ElementKind.CLASS) return false;
+
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                processingEnv.getMessager().printMessage(Kind.NOTE,
+                        String.format(CLASS_NOT_ACCESSIBLE, type.getQualifiedName()), type);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isEdgeVertexInfo(VariableElement field) {
+        return processingEnv.getTypeUtils().isAssignable(field.asType(), getType(GremlinEdgeVertexInfo.class));
+    }
+
+    private TypeMirror getType(Class<?> clazz) {
+        return processingEnv.getElementUtils().getTypeElement(clazz.getCanonicalName()).asType();
+    }
+
+    /**
+     * Collects the public instance fields of the class and its super classes, in the same order as
+     * FieldUtils.getAllFields, along with the public GremlinLabelGetter methods
+     */
+    private GremlinClassMembers getMembers(TypeElement type) {
+        GremlinClassMembers members = new GremlinClassMembers();
+
+        for (TypeElement current = type; current != null; current = getSuperclass(current)) {
+            for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+                Set<Modifier> modifiers = field.getModifiers();
+                if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) continue;
+                members.addField(field);
+            }
+        }
+
+        for (ExecutableElement method :
+                ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            Set<Modifier> modifiers = method.getModifiers();
+            if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.STATIC)) continue;
+            if (method.getAnnotation(GremlinLabelGetter.class) != null) {
+                members.labelGetters.add(method);
+            }
+        }
+
+        return members;
+    }
+
+    private TypeElement getSuperclass(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) return null;
+
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals(Object.class.getName()) ? null : element;
+    }
+
+    private void writeSource(TypeElement type, String source) {
+        String mapperName = MapperSourceWriter.getMapperQualifiedName(processingEnv.getElementUtils(), type);
+        try (Writer writer = processingEnv.getFiler().createSourceFile(mapperName, type).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The fields and methods of a class grouped by the Gremlin annotation present on them
+     */
+    static class GremlinClassMembers {
+        final List<VariableElement> idFields = new ArrayList<>();
+        final List<VariableElement> labelFields = new ArrayList<>();
+        final List<VariableElement> partitionKeyFields = new ArrayList<>();
+        final List<VariableElement> sourceFields = new ArrayList<>();
+        final List<VariableElement> destinationFields = new ArrayList<>();
+        final List<ExecutableElement> labelGetters = new ArrayList<>();
+        // Property slots in field declaration order, GremlinPropertyMap fields are kept in place
+        final List<VariableElement> propertyFields = new ArrayList<>();
+
+        private void addField(VariableElement field) {
+            if (field.getAnnotation(GremlinId.class) != null) idFields.add(field);
+            if (field.getAnnotation(GremlinLabel.class) != null) labelFields.add(field);
+            if (field.getAnnotation(GremlinPartitionKey.class) != null) partitionKeyFields.add(field);
+
+            GremlinEdgeVertex edgeVertex = field.getAnnotation(GremlinEdgeVertex.class);
+            if (edgeVertex != null) {
+                if (edgeVertex.direction() == Direction.SOURCE) sourceFields.add(field);
+                else destinationFields.add(field);
+            }
+
+            if (isPropertyMap(field)) {
+                propertyFields.add(field);
+                return;
+            }
+
+            if (field.getAnnotation(GremlinIgnore.class) != null ||
+                    field.getAnnotation(GremlinId.class) != null ||
+                    field.getAnnotation(GremlinPartitionKey.class) != null ||
+                    field.getAnnotation(GremlinLabel.class) != null ||
+                    edgeVertex != null
+            ) return;
+
+            propertyFields.add(field);
+        }
+
+        List<VariableElement> propertyMapFields() {
+            List<VariableElement> results = new ArrayList<>();
+            propertyFields.stream().filter(GremlinClassMembers::isPropertyMap).forEach(results::add);
+            return results;
+        }
+
+        static boolean isPropertyMap(VariableElement field) {
+            return field.getAnnotation(GremlinPropertyMap.class) != null;
+        }
+
+        static String getPropertyName(VariableElement field) {
+            GremlinProperty property = field.getAnnotation(GremlinProperty.class);
+            return property == null ? field.getSimpleName().toString() : property.name();
+        }
+    }
+}
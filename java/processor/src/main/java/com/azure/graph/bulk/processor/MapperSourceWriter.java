@@ -0,0 +1,345 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.processor;
+
+import com.azure.graph.bulk.impl.GremlinMapperRegistry;
+import com.azure.graph.bulk.impl.annotations.GremlinPartitionKey;
+import com.azure.graph.bulk.processor.GremlinMapperProcessor.GremlinClassMembers;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.util.Elements;
+import java.util.Collections;
+
+/**
+ * Writes the source of the mapper generated for one class. Every type in the generated source is fully qualified so
+ * the names used by the class being mapped can never clash with them.
+ */
+class MapperSourceWriter {
+    private static final String GREMLIN_VERTEX = "com.azure.graph.bulk.impl.model.GremlinVertex";
+    private static final String GREMLIN_EDGE = "com.azure.graph.bulk.impl.model.GremlinEdge";
+    private static final String GREMLIN_EDGE_VERTEX_INFO = "com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo";
+    private static final String GREMLIN_PARTITION_KEY = "com.azure.graph.bulk.impl.model.GremlinPartitionKey";
+    private static final String GREMLIN_INTERNER = "com.azure.graph.bulk.impl.model.GremlinInterner";
+    private static final String VERTEX_PROPERTIES = "com.azure.graph.bulk.impl.model.VertexProperties";
+    private static final String VERTEX_SCHEMA = "com.azure.graph.bulk.impl.model.VertexSchema";
+
+    private final Elements elements;
+    private final TypeElement type;
+    private final GremlinClassMembers members;
+    private final StringBuilder source = new StringBuilder();
+
+    MapperSourceWriter(Elements elements, TypeElement type, GremlinClassMembers members) {
+        this.elements = elements;
+        this.type = type;
+        this.members = members;
+    }
+
+    /**
+     * Builds the fully qualified name of the mapper generated for the class, matching
+     * GremlinMapperRegistry.getMapperClassName
+     *
+     * @param elements utilities of the processing environment
+     * @param type     the class converted by the mapper
+     * @return the name of the generated mapper
+     */
+    static String getMapperQualifiedName(Elements elements, TypeElement type) {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        String simpleName = getMapperSimpleName(type);
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    private static String getMapperSimpleName(TypeElement type) {
+        StringBuilder name = new StringBuilder(type.getSimpleName());
+        for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement;
+             enclosing = enclosing.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return name + GremlinMapperRegistry.MAPPER_SUFFIX;
+    }
+
+    String writeVertexMapper(String classLabel) {
+        writeClassStart("com.azure.graph.bulk.impl.GremlinVertexMapper");
+        line(1, "@java.lang.Override");
+        line(1, "public " + GREMLIN_VERTEX + " toGremlinVertex(" + getTypeName() + " from) {");
+        writeVertexId();
+        line(0, "");
+        writeLabel(classLabel, false);
+        line(0, "");
+        writeProperties("new " + VERTEX_PROPERTIES + "(" + VERTEX_SCHEMA + ".forLabel(label))");
+        line(0, "");
+        writePartitionKeyValue();
+        line(0, "");
+        line(2, "return " + GREMLIN_VERTEX + ".builder()");
+        line(4, ".id(id)");
+        line(4, ".label(label)");
+        line(4, ".partitionKey(" + GREMLIN_INTERNER + ".partitionKey(" + literal(getPartitionKeyFieldName()) +
+                ", partitionKeyValue))");
+        line(4, ".properties(properties)");
+        line(4, ".build();");
+        line(1, "}");
+        line(0, "}");
+        return source.toString();
+    }
+
+    /**
+     * Writes the method of an edge mapper reading the id, label and partition key of the vertex class, the same
+     * values the reflection based conversion reads for a GremlinEdgeVertexInfo
+     *
+     * @param name       name of the method
+     * @param classLabel label of the GremlinVertex annotation of the vertex class
+     * @return source of the method
+     */
+    String writeEdgeVertexInfoMethod(String name, String classLabel) {
+        line(0, "");
+        line(1, "private static " + GREMLIN_EDGE_VERTEX_INFO + " " + name + "(" + getTypeName() + " from) {");
+        writeVertexId();
+        line(0, "");
+        writeLabel(classLabel, false);
+        line(0, "");
+        writePartitionKeyValue();
+        line(0, "");
+        line(2, "return " + GREMLIN_EDGE_VERTEX_INFO + ".builder()");
+        line(4, ".id(id)");
+        line(4, ".label(label)");
+        line(4, ".partitionKey(" + GREMLIN_INTERNER + ".partitionKey(" + literal(getPartitionKeyFieldName()) +
+                ", partitionKeyValue))");
+        line(4, ".build();");
+        line(1, "}");
+        return source.toString();
+    }
+
+    String writeEdgeMapper(String classLabel, String partitionKeyFieldName,
+                           EdgeVertex sourceVertex, EdgeVertex destinationVertex) {
+        writeClassStart("com.azure.graph.bulk.impl.GremlinEdgeMapper");
+        line(1, "@java.lang.Override");
+        line(1, "public " + GREMLIN_EDGE + " toGremlinEdge(" + getTypeName() + " from) {");
+        line(2, GREMLIN_EDGE + " converted = new " + GREMLIN_EDGE + "();");
+
+        if (!members.idFields.isEmpty()) {
+            VariableElement idField = members.idFields.get(0);
+            line(0, "");
+            line(2, "java.lang.String id = from." + idField.getSimpleName() + ";");
+            line(2, "if (id == null || id.isBlank()) {");
+            line(3, "throw new java.lang.IllegalArgumentException(" +
+                    literal("GremlinId cannot be null, please ensure " + idField.getSimpleName() +
+                            " is populated.") + ");");
+            line(2, "}");
+            line(2, "converted.setId(id);");
+        }
+
+        line(0, "");
+        writeLabel(classLabel, true);
+        line(2, "converted.setLabel(" + GREMLIN_INTERNER + ".label(label));");
+
+        line(0, "");
+        writeEdgeVertex("sourceVertexInfo", members.sourceFields.get(0), sourceVertex);
+        line(2, "converted.setSourceVertexInfo(sourceVertexInfo);");
+        line(2, "if (sourceVertexInfo.getPartitionKey() != null) {");
+        line(3, "converted.setPartitionKey(" + GREMLIN_INTERNER + ".partitionKey(" +
+                literal(partitionKeyFieldName) + ", sourceVertexInfo.getPartitionKey().getValue()));");
+        line(2, "}");
+
+        line(0, "");
+        writeEdgeVertex("destinationVertexInfo", members.destinationFields.get(0), destinationVertex);
+        line(2, "converted.setDestinationVertexInfo(destinationVertexInfo);");
+
+        line(0, "");
+        writeProperties("new java.util.HashMap<>()");
+        line(2, "converted.setProperties(properties);");
+        line(0, "");
+        line(2, "return converted;");
+        line(1, "}");
+        writeEdgeVertexInfoMethod("toSourceVertexInfo", sourceVertex);
+        writeEdgeVertexInfoMethod("toDestinationVertexInfo", destinationVertex);
+        line(0, "}");
+        return source.toString();
+    }
+
+    private void writeEdgeVertexInfoMethod(String name, EdgeVertex vertex) {
+        if (vertex.vertexWriter != null) {
+            source.append(vertex.vertexWriter.writeEdgeVertexInfoMethod(name, vertex.classLabel));
+        }
+    }
+
+    private void writeClassStart(String mapperInterface) {
+        String packageName = elements.getPackageOf(type).getQualifiedName().toString();
+        line(0, "// Generated by com.azure.graph.bulk.processor.GremlinMapperProcessor, do not edit.");
+        if (!packageName.isEmpty()) {
+            line(0, "package " + packageName + ";");
+        }
+        line(0, "");
+        line(0, "@javax.annotation.processing.Generated(\"" + GremlinMapperProcessor.class.getName() + "\")");
+        line(0, "public final class " + getMapperSimpleName(type) + " implements " +
+                mapperInterface + "<" + getTypeName() + "> {");
+    }
+
+    /**
+     * Null values are skipped, same as the reflection based conversion
+     *
+     * @param newMap expression creating the map the properties are put in
+     */
+    private void writeProperties(String newMap) {
+        line(2, "java.util.Map<java.lang.String, java.lang.Object> properties = " + newMap + ";");
+        for (VariableElement field : members.propertyFields) {
+            String access = "from." + field.getSimpleName();
+
+            if (GremlinClassMembers.isPropertyMap(field)) {
+                line(2, "if (" + access + " != null) {");
+                line(3, access + ".forEach((key, value) -> {");
+                line(4, "if (value != null) {");
+                line(5, "properties.put((java.lang.String) key, value);");
+                line(4, "}");
+                line(3, "});");
+                line(2, "}");
+            } else if (field.asType().getKind().isPrimitive()) {
+                line(2, "properties.put(" + literal(GremlinClassMembers.getPropertyName(field)) + ", " +
+                        access + ");");
+            } else {
+                line(2, "if (" + access + " != null) {");
+                line(3, "properties.put(" + literal(GremlinClassMembers.getPropertyName(field)) + ", " +
+                        access + ");");
+                line(2, "}");
+            }
+        }
+    }
+
+    /**
+     * The label is resolved in the documented order: the class level annotation, then the GremlinLabelGetter
+     * method and last the field marked with GremlinLabel
+     */
+    private void writeLabel(String classLabel, boolean fieldWhenBlank) {
+        if (!classLabel.isBlank()) {
+            line(2, "java.lang.String label = " + literal(classLabel) + ";");
+            return;
+        }
+
+        line(2, "java.lang.String label = null;");
+        for (ExecutableElement getter : members.labelGetters) {
+            line(2, "java.lang.String " + getter.getSimpleName() + "Label = from." + getter.getSimpleName() + "();");
+            line(2, "if (" + getter.getSimpleName() + "Label != null && !" + getter.getSimpleName() +
+                    "Label.isBlank()) {");
+            line(3, "label = " + getter.getSimpleName() + "Label;");
+            line(2, "}");
+        }
+        for (VariableElement field : members.labelFields) {
+            line(2, fieldWhenBlank
+                    ? "if (label == null || label.isBlank()) {"
+                    : "if (label == null) {");
+            line(3, "label = from." + field.getSimpleName() + ";");
+            line(2, "}");
+        }
+    }
+
+    private void writeVertexId() {
+        VariableElement idField = members.idFields.get(0);
+        line(2, "java.lang.String id = from." + idField.getSimpleName() + ";");
+        line(2, "if (id == null) {");
+        line(3, "throw new java.lang.IllegalArgumentException(" +
+                literal("GremlinId cannot be null, please ensure " + idField.getSimpleName() + " is populated.") +
+                ");");
+        line(2, "}");
+    }
+
+    private void writePartitionKeyValue() {
+        line(2, "java.lang.Object partitionKeyValue = from." + members.partitionKeyFields.get(0).getSimpleName() +
+                ";");
+        line(2, "if (partitionKeyValue instanceof " + GREMLIN_PARTITION_KEY + ") {");
+        line(3, "partitionKeyValue = ((" + GREMLIN_PARTITION_KEY + ") partitionKeyValue).getValue();");
+        line(2, "}");
+    }
+
+    private String getPartitionKeyFieldName() {
+        VariableElement partitionKeyField = members.partitionKeyFields.get(0);
+        String partitionKeyFieldName = partitionKeyField.getAnnotation(GremlinPartitionKey.class).fieldName();
+        return partitionKeyFieldName.isBlank() ? partitionKeyField.getSimpleName().toString() : partitionKeyFieldName;
+    }
+
+    /**
+     * Objects of a subclass of the vertex class are converted at runtime, the subclass can have a label or
+     * members of its own
+     */
+    private void writeEdgeVertex(String variable, VariableElement field, EdgeVertex vertex) {
+        String access = "from." + field.getSimpleName();
+        line(2, "if (" + access + " == null) {");
+        line(3, "throw new java.lang.IllegalArgumentException(" +
+                literal("GremlinEdgeVertex cannot be null, please ensure " + field.getSimpleName() +
+                        " is populated.") + ");");
+        line(2, "}");
+
+        String converted = "com.azure.graph.bulk.impl.ObjectToVertex.toGremlinEdgeVertexInfo(" + access + ")";
+        if (vertex.isVertexInfo) {
+            line(2, GREMLIN_EDGE_VERTEX_INFO + " " + variable + " = " + access + ";");
+        } else if (vertex.vertexWriter != null) {
+            String method = "to" + Character.toUpperCase(variable.charAt(0)) + variable.substring(1);
+            line(2, GREMLIN_EDGE_VERTEX_INFO + " " + variable + " = " + access + ".getClass() == " +
+                    vertex.vertexWriter.type.getQualifiedName() + ".class");
+            line(4, "? " + method + "(" + access + ")");
+            line(4, ": " + converted + ";");
+        } else {
+            line(2, GREMLIN_EDGE_VERTEX_INFO + " " + variable + " = " + converted + ";");
+        }
+    }
+
+    /**
+     * Generic classes are mapped for any type argument
+     */
+    private String getTypeName() {
+        String name = type.getQualifiedName().toString();
+        if (type.getTypeParameters().isEmpty()) return name;
+        return name + "<" + String.join(", ", Collections.nCopies(type.getTypeParameters().size(), "?")) + ">";
+    }
+
+    private String literal(String value) {
+        return elements.getConstantExpression(value);
+    }
+
+    private void line(int indent, String text) {
+        if (!text.isEmpty()) {
+            source.append("    ".repeat(indent)).append(text);
+        }
+        source.append('\n');
+    }
+
+    /**
+     * How the mapper of an edge gets the GremlinEdgeVertexInfo of one of its vertices
+     */
+    static final class EdgeVertex {
+        private final boolean isVertexInfo;
+        // Writes the method reading the vertex class, null when the object is converted at runtime
+        private final MapperSourceWriter vertexWriter;
+        private final String classLabel;
+
+        private EdgeVertex(boolean isVertexInfo, MapperSourceWriter vertexWriter, String classLabel) {
+            this.isVertexInfo = isVertexInfo;
+            this.vertexWriter = vertexWriter;
+            this.classLabel = classLabel;
+        }
+
+        /**
+         * @return the field holds a GremlinEdgeVertexInfo, used as it is
+         */
+        static EdgeVertex vertexInfo() {
+            return new EdgeVertex(true, null, null);
+        }
+
+        /**
+         * @param vertexWriter writer of the class annotated with GremlinVertex the field holds
+         * @param classLabel   label of the GremlinVertex annotation of the class
+         * @return the values are read by a method generated for the class
+         */
+        static EdgeVertex generated(MapperSourceWriter vertexWriter, String classLabel) {
+            return new EdgeVertex(false, vertexWriter, classLabel);
+        }
+
+        /**
+         * @return the object is converted at runtime by ObjectToVertex
+         */
+        static EdgeVertex converted() {
+            return new EdgeVertex(false, null, null);
+        }
+    }
+}
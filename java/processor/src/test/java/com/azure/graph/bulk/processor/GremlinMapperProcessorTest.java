@@ -0,0 +1,213 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.processor;
+
+import com.azure.graph.bulk.impl.GremlinEdgeMapper;
+import com.azure.graph.bulk.impl.GremlinMapperRegistry;
+import com.azure.graph.bulk.impl.GremlinVertexMapper;
+import com.azure.graph.bulk.impl.annotations.VertexAnnotationValidator;
+import com.azure.graph.bulk.impl.model.GremlinEdge;
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GremlinMapperProcessorTest {
+    private static final String PERSON_SOURCE = "package test.model;\n" +
+            "import com.azure.graph.bulk.impl.annotations.*;\n" +
+            "import java.util.Map;\n" +
+            "@GremlinVertex(label = \"PERSON\")\n" +
+            "public class Person {\n" +
+            "    @GremlinId public String id;\n" +
+            "    @GremlinPartitionKey public String country;\n" +
+            "    @GremlinProperty(name = \"given\") public String firstName;\n" +
+            "    public int age;\n" +
+            "    @GremlinIgnore public String secret;\n" +
+            "    @GremlinPropertyMap public Map<String, Object> extra;\n" +
+            "}\n";
+
+    private static final String KNOWS_SOURCE = "package test.model;\n" +
+            "import com.azure.graph.bulk.impl.annotations.*;\n" +
+            "@GremlinEdge(partitionKeyFieldName = \"country\")\n" +
+            "public class Knows {\n" +
+            "    @GremlinEdgeVertex(direction = GremlinEdgeVertex.Direction.SOURCE) public Person source;\n" +
+            "    @GremlinEdgeVertex(direction = GremlinEdgeVertex.Direction.DESTINATION) public Person destination;\n" +
+            "    @GremlinLabel public String relationship;\n" +
+            "    public Integer since;\n" +
+            "}\n";
+
+    private static final String EMPLOYEE_SOURCE = "package test.model;\n" +
+            "import com.azure.graph.bulk.impl.annotations.*;\n" +
+            "@GremlinVertex(label = \"EMPLOYEE\")\n" +
+            "public class Employee extends Person {\n" +
+            "}\n";
+
+    private static final String INVALID_SOURCE = "package test.model;\n" +
+            "import com.azure.graph.bulk.impl.annotations.*;\n" +
+            "@GremlinVertex(label = \"INVALID\")\n" +
+            "public class Invalid {\n" +
+            "    @GremlinPartitionKey public String country;\n" +
+            "}\n";
+
+    @TempDir
+    Path outputDirectory;
+
+    @Test
+    void GeneratesVertexMapperTest() throws Exception {
+        try (URLClassLoader loader = compile(Map.of("test.model.Person", PERSON_SOURCE))) {
+            Class<?> personClass = loader.loadClass("test.model.Person");
+            GremlinVertexMapper<Object> mapper = GremlinMapperRegistry.getVertexMapper(personClass);
+            assertNotNull(mapper);
+            assertEquals("test.model.PersonGremlinMapper", mapper.getClass().getName());
+
+            Object person = newPerson(personClass, "1", "Neverland", "John");
+            personClass.getField("extra").set(person, Map.of("nickname", "JD"));
+
+            GremlinVertex vertex = mapper.toGremlinVertex(person);
+            assertEquals("1", vertex.getId());
+            assertEquals("PERSON", vertex.getLabel());
+            assertEquals("country", vertex.getPartitionKey().getFieldName());
+            assertEquals("Neverland", vertex.getPartitionKey().getValue());
+            assertEquals("John", vertex.getProperties().get("given"));
+            assertEquals(42, vertex.getProperties().get("age"));
+            assertEquals("JD", vertex.getProperties().get("nickname"));
+            assertFalse(vertex.getProperties().containsKey("secret"));
+            assertFalse(vertex.getProperties().containsKey("firstName"));
+        }
+    }
+
+    @Test
+    void GeneratesEdgeMapperTest() throws Exception {
+        try (URLClassLoader loader = compile(Map.of(
+                "test.model.Person", PERSON_SOURCE,
+                "test.model.Knows", KNOWS_SOURCE))) {
+            Class<?> personClass = loader.loadClass("test.model.Person");
+            Class<?> knowsClass = loader.loadClass("test.model.Knows");
+            GremlinEdgeMapper<Object> mapper = GremlinMapperRegistry.getEdgeMapper(knowsClass);
+            assertNotNull(mapper);
+
+            Object knows = knowsClass.getDeclaredConstructor().newInstance();
+            knowsClass.getField("source").set(knows, newPerson(personClass, "1", "Neverland", "John"));
+            knowsClass.getField("destination").set(knows, newPerson(personClass, "2", "Oz", "Jane"));
+            knowsClass.getField("relationship").set(knows, "KNOWS");
+            knowsClass.getField("since").set(knows, 2001);
+
+            GremlinEdge edge = mapper.toGremlinEdge(knows);
+            assertEquals("KNOWS", edge.getLabel());
+            assertEquals("1", edge.getSourceVertexInfo().getId());
+            assertEquals("PERSON", edge.getSourceVertexInfo().getLabel());
+            assertEquals("2", edge.getDestinationVertexInfo().getId());
+            assertEquals("country", edge.getPartitionKey().getFieldName());
+            assertEquals("Neverland", edge.getPartitionKey().getValue());
+            assertEquals(2001, edge.getProperties().get("since"));
+            edge.validate();
+
+            knowsClass.getField("destination").set(knows, null);
+            assertThrows(IllegalArgumentException.class, () -> mapper.toGremlinEdge(knows));
+        }
+    }
+
+    @Test
+    void GeneratesEdgeVertexExtractionTest() throws Exception {
+        try (URLClassLoader loader = compile(Map.of(
+                "test.model.Person", PERSON_SOURCE,
+                "test.model.Employee", EMPLOYEE_SOURCE,
+                "test.model.Knows", KNOWS_SOURCE))) {
+            String mapperSource = Files.readString(outputDirectory.resolve("test/model/KnowsGremlinMapper.java"));
+            assertTrue(mapperSource.contains("toSourceVertexInfo(test.model.Person from)"));
+            assertTrue(mapperSource.contains("toDestinationVertexInfo(test.model.Person from)"));
+
+            Class<?> knowsClass = loader.loadClass("test.model.Knows");
+            GremlinEdgeMapper<Object> mapper = GremlinMapperRegistry.getEdgeMapper(knowsClass);
+            Object knows = knowsClass.getDeclaredConstructor().newInstance();
+            knowsClass.getField("source").set(knows,
+                    newPerson(loader.loadClass("test.model.Person"), "1", "Neverland", "John"));
+            // A subclass has a label of its own, it is converted at runtime
+            knowsClass.getField("destination").set(knows,
+                    newPerson(loader.loadClass("test.model.Employee"), "2", "Oz", "Jane"));
+            knowsClass.getField("relationship").set(knows, "KNOWS");
+
+            GremlinEdge edge = mapper.toGremlinEdge(knows);
+            assertEquals("PERSON", edge.getSourceVertexInfo().getLabel());
+            assertEquals("Neverland", edge.getSourceVertexInfo().getPartitionKey().getValue());
+            assertEquals("EMPLOYEE", edge.getDestinationVertexInfo().getLabel());
+            assertEquals("Oz", edge.getDestinationVertexInfo().getPartitionKey().getValue());
+
+            knowsClass.getField("source").set(knows, newPerson(loader.loadClass("test.model.Person"), null, "Oz", ""));
+            assertThrows(IllegalArgumentException.class, () -> mapper.toGremlinEdge(knows));
+        }
+    }
+
+    @Test
+    void ReportsValidationErrorsTest() {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertFalse(runCompiler(Map.of("test.model.Invalid", INVALID_SOURCE), diagnostics));
+
+        assertTrue(diagnostics.getDiagnostics().stream()
+                .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+                .anyMatch(diagnostic -> diagnostic.getMessage(null)
+                        .contains(VertexAnnotationValidator.GREMLIN_ID_INVALID)));
+    }
+
+    private Object newPerson(Class<?> personClass, String id, String country, String firstName)
+            throws ReflectiveOperationException {
+        Object person = personClass.getDeclaredConstructor().newInstance();
+        personClass.getField("id").set(person, id);
+        personClass.getField("country").set(person, country);
+        personClass.getField("firstName").set(person, firstName);
+        personClass.getField("age").setInt(person, 42);
+        personClass.getField("secret").set(person, "hidden");
+        return person;
+    }
+
+    private URLClassLoader compile(Map<String, String> sources) throws Exception {
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        assertTrue(runCompiler(sources, diagnostics), () -> diagnostics.getDiagnostics().toString());
+        return new URLClassLoader(new java.net.URL[]{outputDirectory.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private boolean runCompiler(Map<String, String> sources, DiagnosticCollector<JavaFileObject> diagnostics) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+
+        List<JavaFileObject> compilationUnits = new java.util.ArrayList<>();
+        sources.forEach((name, source) -> compilationUnits.add(new StringSource(name, source)));
+
+        JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                List.of("-d", outputDirectory.toString(), "-s", outputDirectory.toString(),
+                        "-classpath", System.getProperty("java.class.path")),
+                null, compilationUnits);
+        task.setProcessors(List.of(new GremlinMapperProcessor()));
+        return task.call();
+    }
+
+    private static class StringSource extends SimpleJavaFileObject {
+        private final String source;
+
+        StringSource(String className, String source) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return source;
+        }
+    }
+}
@@ -17,10 +17,20 @@ public final class BulkGremlinObjectMapper {
      * Defines an ObjectMapper that has the Serialization Modules for both GremlinVertex and GremlinEdge classes
      */
     public static ObjectMapper getBulkGremlinObjectMapper() {
+        return getBulkGremlinObjectMapper(PropertyIdGenerators.threadLocalRandom());
+    }
+
+    /**
+     * Defines an ObjectMapper that has the Serialization Modules for both GremlinVertex and GremlinEdge classes
+     *
+     * @param propertyIdGenerator generates the ids written with the property values of a GremlinVertex
+     */
+    public static ObjectMapper getBulkGremlinObjectMapper(PropertyIdGenerator propertyIdGenerator) {
         ObjectMapper mapper = new ObjectMapper();
 
         SimpleModule vertexModule = new SimpleModule("GremlinVertexModule");
-        vertexModule.addSerializer(GremlinVertex.class, new GremlinVertexSerializer(GremlinVertex.class));
+        vertexModule.addSerializer(GremlinVertex.class,
+                new GremlinVertexSerializer(GremlinVertex.class, propertyIdGenerator));
         mapper.registerModule(vertexModule);
 
         SimpleModule edgeModule = new SimpleModule("GremlinEdgeModule");
@@ -0,0 +1,283 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.graph.bulk.impl.annotations.EdgeAnnotationValidator;
+import com.azure.graph.bulk.impl.annotations.GremlinEdge;
+import com.azure.graph.bulk.impl.annotations.GremlinEdgeVertex;
+import com.azure.graph.bulk.impl.annotations.GremlinEdgeVertex.Direction;
+import com.azure.graph.bulk.impl.annotations.GremlinId;
+import com.azure.graph.bulk.impl.annotations.GremlinIgnore;
+import com.azure.graph.bulk.impl.annotations.GremlinLabel;
+import com.azure.graph.bulk.impl.annotations.GremlinLabelGetter;
+import com.azure.graph.bulk.impl.annotations.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.annotations.GremlinProperty;
+import com.azure.graph.bulk.impl.annotations.GremlinPropertyMap;
+import com.azure.graph.bulk.impl.model.AnnotationValidationException;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinInterner;
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.reflect.Modifier.isStatic;
+
+/**
+ * Immutable description of how to convert instances of one class annotated with GremlinEdge into a GremlinEdge.
+ * Holds the accessors of the edge class together with the accessors used to pull the GremlinEdgeVertexInfo off of
+ * the source and destination vertices, so converting an edge does not look up any annotations.
+ * Plans are cached per class and are safe to share across threads.
+ */
+final class EdgeMappingPlan {
+    private static final EdgeAnnotationValidator edgeClassValidator = new EdgeAnnotationValidator();
+
+    private static final ClassValue<EdgeMappingPlan> plans = new ClassValue<>() {
+        @Override
+        protected EdgeMappingPlan computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final String classLabel;
+    private final MemberAccessor[] labelGetters;
+    private final MemberAccessor labelField;
+    private final MemberAccessor idField;
+    private final EdgeVertexSlot sourceVertex;
+    private final EdgeVertexSlot destinationVertex;
+    private final String partitionKeyFieldName;
+    // Property slots in field declaration order, a null name marks a GremlinPropertyMap field
+    private final String[] propertyNames;
+    private final MemberAccessor[] propertyFields;
+
+    private EdgeMappingPlan(Builder builder) {
+        this.classLabel = builder.classLabel;
+        this.labelGetters = builder.labelGetters.toArray(new MemberAccessor[0]);
+        this.labelField = builder.labelField;
+        this.idField = builder.idField;
+        this.sourceVertex = builder.sourceVertex;
+        this.destinationVertex = builder.destinationVertex;
+        this.partitionKeyFieldName = builder.partitionKeyFieldName;
+        this.propertyNames = builder.propertyNames.toArray(new String[0]);
+        this.propertyFields = builder.propertyFields.toArray(new MemberAccessor[0]);
+    }
+
+    /**
+     * Gets the plan for the class provided, compiling and validating it on first use
+     *
+     * @param clazz class annotated with GremlinEdge
+     * @return the cached plan for the class
+     */
+    static EdgeMappingPlan forClass(Class<?> clazz) {
+        return plans.get(clazz);
+    }
+
+    private static EdgeMappingPlan compile(Class<?> clazz) {
+        GremlinEdge edgeAnnotation = clazz.getAnnotation(GremlinEdge.class);
+        if (edgeAnnotation == null) {
+            throw new IllegalArgumentException(
+                    "Class " + clazz.getSimpleName() + " is missing GremlinEdge annotation");
+        }
+
+        List<String> validationResults = edgeClassValidator.validate(clazz);
+        if (!validationResults.isEmpty()) {
+            throw new AnnotationValidationException(clazz, validationResults);
+        }
+
+        Builder builder = new Builder();
+        if (!edgeAnnotation.label().isBlank()) {
+            builder.classLabel = GremlinInterner.label(edgeAnnotation.label());
+        }
+
+        for (Method method : MethodUtils.getMethodsWithAnnotation(clazz, GremlinLabelGetter.class)) {
+            if (isStatic(method.getModifiers())) continue;
+            try {
+                builder.labelGetters.add(MemberAccessor.of(method));
+            } catch (IllegalAccessException e) {
+                // method is not accessible, attempts to call it will fail.
+            }
+        }
+
+        for (Field field : FieldUtils.getAllFields(clazz)) {
+            if (isStatic(field.getModifiers())) continue;
+
+            MemberAccessor accessor;
+            try {
+                accessor = MemberAccessor.of(field);
+            } catch (IllegalAccessException e) {
+                continue; // Field is not accessible
+            }
+            builder.addField(field, accessor, edgeAnnotation);
+        }
+
+        return new EdgeMappingPlan(builder);
+    }
+
+    /**
+     * Converts the object provided into a GremlinEdge using the resolved accessors
+     *
+     * @param from instance of the class this plan was compiled for
+     * @return An instance of the GremlinEdge object based on the values extracted from the object provided
+     */
+    com.azure.graph.bulk.impl.model.GremlinEdge map(Object from) {
+        com.azure.graph.bulk.impl.model.GremlinEdge converted = new com.azure.graph.bulk.impl.model.GremlinEdge();
+
+        if (idField != null) {
+            String id = (String) idField.get(from);
+            if (id == null || id.isBlank()) {
+                throw new IllegalArgumentException(
+                        "GremlinId cannot be null, please ensure " + idField.getName() + " is populated.");
+            }
+            converted.setId(id);
+        }
+
+        converted.setLabel(getLabel(from));
+
+        // The vertex slots are only missing when the fields are not accessible, GremlinEdge.validate reports that
+        if (sourceVertex != null) {
+            GremlinEdgeVertexInfo sourceVertexInfo = sourceVertex.resolve(from);
+            converted.setSourceVertexInfo(sourceVertexInfo);
+            if (sourceVertexInfo.getPartitionKey() != null) {
+                converted.setPartitionKey(GremlinInterner.partitionKey(
+                        partitionKeyFieldName, sourceVertexInfo.getPartitionKey().getValue()));
+            }
+        }
+        if (destinationVertex != null) {
+            converted.setDestinationVertexInfo(destinationVertex.resolve(from));
+        }
+
+        Map<String, Object> properties = new HashMap<>();
+        for (int i = 0; i < propertyFields.length; i++) {
+            Object value = propertyFields[i].get(from);
+            if (value == null) continue;
+
+            if (propertyNames[i] != null) {
+                properties.put(propertyNames[i], value);
+            } else if (value instanceof Map) {
+                ((Map<?, ?>) value).forEach((k, v) -> {
+                    if (v != null) {
+                        properties.put((String) k, v);
+                    }
+                });
+            }
+        }
+        converted.setProperties(properties);
+
+        return converted;
+    }
+
+    /**
+     * Resolves the label in the documented order: the class level annotation, then the GremlinLabelGetter method and
+     * last the field marked with GremlinLabel
+     */
+    private String getLabel(Object from) {
+        if (classLabel != null) return classLabel;
+
+        String label = null;
+        for (MemberAccessor getter : labelGetters) {
+            String edgeLabel = (String) getter.get(from);
+            if (edgeLabel != null && !edgeLabel.isBlank()) {
+                label = edgeLabel;
+            }
+        }
+
+        if ((label == null || label.isBlank()) && labelField != null) {
+            label = (String) labelField.get(from);
+        }
+        return GremlinInterner.label(label);
+    }
+
+    /**
+     * One end of the edge. The value of the field is either a GremlinEdgeVertexInfo, a GremlinVertex or a domain
+     * object with GremlinVertex annotations. For the latter the VertexMappingPlan of the last class seen is kept, as
+     * the field almost always holds a single class, which saves the plan lookup for every edge.
+     */
+    private static final class EdgeVertexSlot {
+        private final MemberAccessor field;
+        private volatile VertexMappingPlan lastPlan;
+
+        private EdgeVertexSlot(MemberAccessor field) {
+            this.field = field;
+        }
+
+        private GremlinEdgeVertexInfo resolve(Object from) {
+            Object vertex = field.get(from);
+
+            if (vertex == null) {
+                throw new IllegalArgumentException(
+                        "GremlinEdgeVertex cannot be null, please ensure " + field.getName() + " is populated.");
+            }
+            if (vertex instanceof GremlinEdgeVertexInfo) return (GremlinEdgeVertexInfo) vertex;
+            if (vertex instanceof GremlinVertex) return new GremlinEdgeVertexInfo((GremlinVertex) vertex);
+
+            VertexMappingPlan plan = lastPlan;
+            if (plan == null || plan.getType() != vertex.getClass()) {
+                plan = VertexMappingPlan.forClass(vertex.getClass());
+                lastPlan = plan;
+            }
+            return plan.mapEdgeVertexInfo(vertex);
+        }
+    }
+
+    private static class Builder {
+        private String classLabel;
+        private final List<MemberAccessor> labelGetters = new ArrayList<>();
+        private MemberAccessor labelField;
+        private MemberAccessor idField;
+        private EdgeVertexSlot sourceVertex;
+        private EdgeVertexSlot destinationVertex;
+        private String partitionKeyFieldName;
+        private final List<String> propertyNames = new ArrayList<>();
+        private final List<MemberAccessor> propertyFields = new ArrayList<>();
+
+        /**
+         * For the partition key's field name, it will default to the value provided by the GremlinEdge annotation's
+         * partitionKeyFieldName if present, otherwise will use the name of the field marked as the source vertex.
+         */
+        private void addField(Field field, MemberAccessor accessor, GremlinEdge edgeAnnotation) {
+            if (field.isAnnotationPresent(GremlinId.class)) {
+                idField = accessor;
+            }
+
+            if (field.isAnnotationPresent(GremlinLabel.class)) {
+                labelField = accessor;
+            }
+
+            GremlinEdgeVertex edgeVertexAnnotation = field.getAnnotation(GremlinEdgeVertex.class);
+            if (edgeVertexAnnotation != null) {
+                if (edgeVertexAnnotation.direction() == Direction.SOURCE) {
+                    sourceVertex = new EdgeVertexSlot(accessor);
+                    partitionKeyFieldName = edgeAnnotation.partitionKeyFieldName().isBlank()
+                            ? field.getName()
+                            : edgeAnnotation.partitionKeyFieldName();
+                } else {
+                    destinationVertex = new EdgeVertexSlot(accessor);
+                }
+            }
+
+            if (field.isAnnotationPresent(GremlinPropertyMap.class)) {
+                propertyNames.add(null);
+                propertyFields.add(accessor);
+                return;
+            }
+
+            if (field.isAnnotationPresent(GremlinIgnore.class) ||
+                    field.isAnnotationPresent(GremlinId.class) ||
+                    field.isAnnotationPresent(GremlinPartitionKey.class) ||
+                    field.isAnnotationPresent(GremlinLabel.class) ||
+                    edgeVertexAnnotation != null
+            ) return;
+
+            GremlinProperty propertyAnnotation = field.getAnnotation(GremlinProperty.class);
+            propertyNames.add(propertyAnnotation == null ? field.getName() : propertyAnnotation.name());
+            propertyFields.add(accessor);
+        }
+    }
+}
@@ -10,16 +10,34 @@ import com.azure.cosmos.models.PartitionKey;
 import com.azure.graph.bulk.impl.model.DocumentSerializationException;
 import com.azure.graph.bulk.impl.model.GremlinEdge;
 import com.azure.graph.bulk.impl.model.GremlinVertex;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex.ContentHash;
+import com.azure.graph.bulk.impl.upload.ContentHasher;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
 
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 public class GremlinDocumentOperationCreator {
     private final ObjectMapper mapper;
+    private final ContentHashIndex contentHashIndex;
+    private final Scheduler scheduler;
+    private final int parallelism;
+    private final int prefetch;
 
     public GremlinDocumentOperationCreator(GremlinDocumentCreatorBuilder builder) {
         this.mapper = builder.mapper;
+        this.contentHashIndex = builder.contentHashIndex;
+        this.scheduler = builder.scheduler;
+        this.parallelism = builder.parallelism;
+        this.prefetch = builder.prefetch;
     }
 
     public static GremlinDocumentCreatorBuilder builder() {
@@ -31,10 +49,23 @@ public class GremlinDocumentOperationCreator {
      *
      * @param vertices Stream of objects that are either GremlinVertex objects, or domain objects with the
      *                 GremlinVertex annotations
-     * @return Stream of Cosmos Item Operations
+     * @return Stream of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
      */
     public Stream<CosmosItemOperation> getVertexCreateOperations(Stream<Object> vertices) {
-        return vertices.map(this::getVertexCreateOperation);
+        return vertices.map(this::getVertexCreateOperation).filter(Objects::nonNull);
+    }
+
+    /**
+     * Used to convert the Flux of objects provided into a Flux of Cosmos Create Operations. The conversion runs
+     * on the configured scheduler, see GremlinDocumentCreatorBuilder.parallelism and prefetch, and doesn't keep the
+     * order of the objects provided.
+     *
+     * @param vertices Flux of objects that are either GremlinVertex objects, or domain objects with the
+     *                 GremlinVertex annotations
+     * @return Flux of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
+     */
+    public Flux<CosmosItemOperation> getVertexCreateOperations(Flux<?> vertices) {
+        return getOperations(vertices, this::getVertexCreateOperation);
     }
 
     /**
@@ -42,54 +73,60 @@ public class GremlinDocumentOperationCreator {
      *
      * @param vertices Stream of objects that are either GremlinVertex objects, or domain objects with the
      *                 GremlinVertex annotations
-     * @return Stream of Cosmos Item Operations
+     * @return Stream of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
      */
     public Stream<CosmosItemOperation> getVertexUpsertOperations(Stream<Object> vertices) {
-        return vertices.map(this::getVertexUpsertOperation);
+        return vertices.map(this::getVertexUpsertOperation).filter(Objects::nonNull);
+    }
+
+    /**
+     * Used to convert the Flux of objects provided into a Flux of Cosmos Upsert Operations. The conversion runs
+     * on the configured scheduler, see GremlinDocumentCreatorBuilder.parallelism and prefetch, and doesn't keep the
+     * order of the objects provided.
+     *
+     * @param vertices Flux of objects that are either GremlinVertex objects, or domain objects with the
+     *                 GremlinVertex annotations
+     * @return Flux of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
+     */
+    public Flux<CosmosItemOperation> getVertexUpsertOperations(Flux<?> vertices) {
+        return getOperations(vertices, this::getVertexUpsertOperation);
     }
 
     /***
      * Converts the object provided into a Cosmos Create Operation
      *
      * @param vertex Either a GremlinVertex object or domain object with the GremlinVertex annotations
-     * @return CosmosItemOperation to create the object with
+     * @return CosmosItemOperation to create the object with, null when the ContentHashIndex shows the document
+     * hasn't changed since it was last written
      */
     public CosmosItemOperation getVertexCreateOperation(Object vertex) {
         GremlinVertex gremlinVertex = getVertexFromObject(vertex);
-
-        PartitionKey partitionKey = new PartitionKey(gremlinVertex.getPartitionKey().getValue());
-        try {
-            return CosmosBulkOperations.getCreateItemOperation(
-                    new JsonSerializable(mapper.writeValueAsString(gremlinVertex)),
-                    partitionKey);
-        } catch (JsonProcessingException e) {
-            throw new DocumentSerializationException(e);
-        }
+        return toOperation(false, gremlinVertex, gremlinVertex.getId(), gremlinVertex.getPartitionKey().getValue());
     }
 
     /***
      * Converts the object provided into a Cosmos Upsert Operation
      *
      * @param vertex Either a GremlinVertex object or domain object with the GremlinVertex annotations
-     * @return CosmosItemOperation to upsert the object with
+     * @return CosmosItemOperation to upsert the object with, null when the ContentHashIndex shows the document
+     * hasn't changed since it was last written
      */
     public CosmosItemOperation getVertexUpsertOperation(Object vertex) {
         GremlinVertex gremlinVertex = getVertexFromObject(vertex);
-
-        PartitionKey partitionKey = new PartitionKey(gremlinVertex.getPartitionKey().getValue());
-        try {
-            return CosmosBulkOperations.getUpsertItemOperation(
-                    new JsonSerializable(mapper.writeValueAsString(gremlinVertex)),
-                    partitionKey);
-        } catch (JsonProcessingException e) {
-            throw new DocumentSerializationException(e);
-        }
+        return toOperation(true, gremlinVertex, gremlinVertex.getId(), gremlinVertex.getPartitionKey().getValue());
     }
 
     private GremlinVertex getVertexFromObject(Object rawVertex) {
-        GremlinVertex vertex = (rawVertex instanceof GremlinVertex) ?
-                (GremlinVertex) rawVertex :
-                ObjectToVertex.toGremlinVertex(rawVertex);
+        GremlinVertex vertex;
+        if (rawVertex instanceof GremlinVertex) {
+            vertex = (GremlinVertex) rawVertex;
+        } else {
+            // Prefer the mapper generated at compile time, fall back to reflection when there is none
+            GremlinVertexMapper<Object> generatedMapper = GremlinMapperRegistry.getVertexMapper(rawVertex.getClass());
+            vertex = generatedMapper != null
+                    ? generatedMapper.toGremlinVertex(rawVertex)
+                    : ObjectToVertex.toGremlinVertex(rawVertex);
+        }
 
         vertex.validate();
         return vertex;
@@ -100,10 +137,23 @@ public class GremlinDocumentOperationCreator {
      *
      * @param edges Stream of objects that are either GremlinEdge objects, or domain objects with the
      *              GremlinEdge annotations
-     * @return Stream of Cosmos Item Operations
+     * @return Stream of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
      */
     public Stream<CosmosItemOperation> getEdgeCreateOperations(Stream<Object> edges) {
-        return edges.map(this::getEdgeCreateOperation);
+        return edges.map(this::getEdgeCreateOperation).filter(Objects::nonNull);
+    }
+
+    /**
+     * Used to convert the Flux of objects provided into a Flux of Cosmos Create Operations. The conversion runs
+     * on the configured scheduler, see GremlinDocumentCreatorBuilder.parallelism and prefetch, and doesn't keep the
+     * order of the objects provided.
+     *
+     * @param edges Flux of objects that are either GremlinEdge objects, or domain objects with the
+     *              GremlinEdge annotations
+     * @return Flux of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
+     */
+    public Flux<CosmosItemOperation> getEdgeCreateOperations(Flux<?> edges) {
+        return getOperations(edges, this::getEdgeCreateOperation);
     }
 
     /**
@@ -111,33 +161,49 @@ public class GremlinDocumentOperationCreator {
      *
      * @param edges Stream of objects that are either GremlinEdge objects, or domain objects with the
      *              GremlinEdge annotations
-     * @return Stream of Cosmos Item Operations
+     * @return Stream of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
      */
     public Stream<CosmosItemOperation> getEdgeUpsertOperations(Stream<Object> edges) {
-        return edges.map(this::getEdgeUpsertOperation);
+        return edges.map(this::getEdgeUpsertOperation).filter(Objects::nonNull);
+    }
+
+    /**
+     * Used to convert the Flux of objects provided into a Flux of Cosmos Upsert Operations. The conversion runs
+     * on the configured scheduler, see GremlinDocumentCreatorBuilder.parallelism and prefetch, and doesn't keep the
+     * order of the objects provided.
+     *
+     * @param edges Flux of objects that are either GremlinEdge objects, or domain objects with the
+     *              GremlinEdge annotations
+     * @return Flux of Cosmos Item Operations, without the documents the ContentHashIndex shows as unchanged
+     */
+    public Flux<CosmosItemOperation> getEdgeUpsertOperations(Flux<?> edges) {
+        return getOperations(edges, this::getEdgeUpsertOperation);
     }
 
     /***
      * Converts the object provided into a Cosmos Create Operation
      *
      * @param edge Either a GremlinVertex object or domain object with the GremlinVertex annotations
-     * @return CosmosItemOperation to create the object with
+     * @return CosmosItemOperation to create the object with, null when the ContentHashIndex shows the document
+     * hasn't changed since it was last written
      */
     public CosmosItemOperation getEdgeCreateOperation(Object edge) {
         GremlinEdge gremlinEdge = getEdgeFromObject(edge);
-
-        PartitionKey partitionKey = new PartitionKey(gremlinEdge.getPartitionKey().getValue());
-        try {
-            return CosmosBulkOperations.getCreateItemOperation(
-                    new JsonSerializable(mapper.writeValueAsString(gremlinEdge)),
-                    partitionKey);
-        } catch (JsonProcessingException e) {
-            throw new DocumentSerializationException(e);
-        }
+        return toOperation(false, gremlinEdge, gremlinEdge.getId(), gremlinEdge.getPartitionKey().getValue());
     }
 
     private GremlinEdge getEdgeFromObject(Object e) {
-        GremlinEdge edge = e instanceof GremlinEdge ? (GremlinEdge) e : ObjectToEdge.toGremlinEdge(e);
+        GremlinEdge edge;
+        if (e instanceof GremlinEdge) {
+            edge = (GremlinEdge) e;
+        } else {
+            // Prefer the mapper generated at compile time, fall back to reflection when there is none
+            GremlinEdgeMapper<Object> generatedMapper = GremlinMapperRegistry.getEdgeMapper(e.getClass());
+            edge = generatedMapper != null
+                    ? generatedMapper.toGremlinEdge(e)
+                    : ObjectToEdge.toGremlinEdge(e);
+        }
+
         edge.validate();
         return edge;
     }
@@ -146,17 +212,110 @@ public class GremlinDocumentOperationCreator {
      * Converts the object provided into a Cosmos Upsert Operation
      *
      * @param edge Either a GremlinVertex object or domain object with the GremlinVertex annotations
-     * @return CosmosItemOperation to upsert the object with
+     * @return CosmosItemOperation to upsert the object with, null when the ContentHashIndex shows the document
+     * hasn't changed since it was last written
      */
     public CosmosItemOperation getEdgeUpsertOperation(Object edge) {
         GremlinEdge gremlinEdge = getEdgeFromObject(edge);
+        return toOperation(true, gremlinEdge, gremlinEdge.getId(), gremlinEdge.getPartitionKey().getValue());
+    }
+
+    /**
+     * Converts the objects on the rails of a ParallelFlux, each rail requests prefetch objects at a time from the
+     * source so the source is only read as fast as the operations are consumed. Used by the Flux based methods, and
+     * by callers wrapping one of the single object methods.
+     *
+     * @param source    Flux of the objects to convert
+     * @param converter converts an object, for example getVertexUpsertOperation, a null result skips the object
+     * @param <T>       type of the objects
+     * @return Flux of Cosmos Item Operations, not in the order of the objects provided
+     */
+    public <T> Flux<CosmosItemOperation> getOperations(
+            Flux<T> source, Function<? super T, CosmosItemOperation> converter) {
+        return source
+                .parallel(parallelism, prefetch)
+                .runOn(scheduler, prefetch)
+                .flatMap(item -> Mono.justOrEmpty(converter.apply(item)))
+                .sequential(prefetch);
+    }
+
+    /**
+     * @param operation operation created by one of the methods of this class, or read back by JsonlDeadLetterSink
+     * @return true when the document of the operation is an edge
+     */
+    public static boolean isEdge(CosmosItemOperation operation) {
+        Object item = operation.getItem();
+        return item instanceof JsonSerializable &&
+                ((JsonSerializable) item).getPropertyBag().path(GremlinFieldNames.EDGE_IDENTICATOR).asBoolean();
+    }
+
+    /**
+     * @param operation operation created by one of the methods of this class, or read back by JsonlDeadLetterSink
+     * @return id of the document of the operation, or null when it is unknown. The SDK only sets the id of the
+     * operations without a document, the id of a create or upsert is read from its document.
+     */
+    public static String getId(CosmosItemOperation operation) {
+        if (operation.getId() != null) return operation.getId();
+        Object item = operation.getItem();
+        return item instanceof JsonSerializable
+                ? ((JsonSerializable) item).getPropertyBag().path(GremlinFieldNames.VERTEX_ID).asText(null)
+                : null;
+    }
+
+    /**
+     * Gets the partition key of the operation in a form that can be hashed and compared. Two equal PartitionKey
+     * instances don't have the same hash code on the SDK in use, so maps and hashes of the partition key of the
+     * operations use its JSON form instead.
+     *
+     * @param operation operation to get the partition key of
+     * @return the JSON form of the partition key, for example ["a"], or null when the operation has none
+     */
+    public static String partitionKeyOf(CosmosItemOperation operation) {
+        return partitionKeyOf(operation.getPartitionKeyValue());
+    }
+
+    /**
+     * @param partitionKey partition key of an operation
+     * @return the JSON form of the partition key, or null when there is none, see partitionKeyOf(CosmosItemOperation)
+     */
+    public static String partitionKeyOf(PartitionKey partitionKey) {
+        return partitionKey == null ? null : partitionKey.toString();
+    }
+
+    /**
+     * Creates the operation for the document. With a ContentHashIndex configured, documents whose content hash
+     * matches the index are skipped and the hashes are carried as the context of the operation, so the index can be
+     * updated once the write succeeded, see ContentHashIndex.markWritten.
+     */
+    private CosmosItemOperation toOperation(boolean upsert, Object gremlinObject, String id, Object partitionKeyValue) {
+        PartitionKey partitionKey = new PartitionKey(partitionKeyValue);
+        JsonSerializable document = toDocument(gremlinObject);
+
+        if (contentHashIndex == null) {
+            return upsert
+                    ? CosmosBulkOperations.getUpsertItemOperation(document, partitionKey)
+                    : CosmosBulkOperations.getCreateItemOperation(document, partitionKey);
+        }
+
+        ContentHash contentHash = new ContentHash(
+                ContentHasher.hashKey(id, partitionKeyValue),
+                ContentHasher.hashDocument(mapper, document.getPropertyBag()));
+        if (contentHashIndex.isUnchanged(contentHash.getKeyHash(), contentHash.getContentHash())) return null;
 
-        PartitionKey partitionKey = new PartitionKey(gremlinEdge.getPartitionKey().getValue());
+        return upsert
+                ? CosmosBulkOperations.getUpsertItemOperation(document, partitionKey, contentHash)
+                : CosmosBulkOperations.getCreateItemOperation(document, partitionKey, contentHash);
+    }
+
+    /**
+     * Serializes the GremlinVertex or GremlinEdge straight into the Json tree held by the operation. Writing it to a
+     * String first would have JsonSerializable parse the String back into the same tree.
+     */
+    private JsonSerializable toDocument(Object gremlinObject) {
         try {
-            return CosmosBulkOperations.getUpsertItemOperation(
-                    new JsonSerializable(mapper.writeValueAsString(gremlinEdge)),
-                    partitionKey);
-        } catch (JsonProcessingException e) {
+            ObjectNode document = mapper.valueToTree(gremlinObject);
+            return new JsonSerializable(document);
+        } catch (IllegalArgumentException e) {
             throw new DocumentSerializationException(e);
         }
     }
@@ -167,12 +326,58 @@ public class GremlinDocumentOperationCreator {
         }
 
         private ObjectMapper mapper;
+        private ContentHashIndex contentHashIndex;
+        private Scheduler scheduler = Schedulers.parallel();
+        private int parallelism = Schedulers.DEFAULT_POOL_SIZE;
+        private int prefetch = Queues.SMALL_BUFFER_SIZE;
 
         public GremlinDocumentCreatorBuilder mapper(ObjectMapper mapper) {
             this.mapper = mapper;
             return this;
         }
 
+        /**
+         * Skips the documents that haven't changed since they were last written. Only documents with stable ids and
+         * content are ever skipped, vertices need deterministic property ids (see PropertyIdGenerators) and edges
+         * an id that doesn't change between loads.
+         *
+         * @param contentHashIndex index of the content hashes of the documents written by earlier loads
+         * @return the builder
+         */
+        public GremlinDocumentCreatorBuilder contentHashIndex(ContentHashIndex contentHashIndex) {
+            this.contentHashIndex = contentHashIndex;
+            return this;
+        }
+
+        /**
+         * @param scheduler runs the conversion of the Flux based methods, defaults to Schedulers.parallel()
+         * @return the builder
+         */
+        public GremlinDocumentCreatorBuilder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        /**
+         * @param parallelism number of objects the Flux based methods convert at the same time, defaults to the
+         *                    number of processors
+         * @return the builder
+         */
+        public GremlinDocumentCreatorBuilder parallelism(int parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * @param prefetch number of objects requested from the source, and of operations buffered, per parallel
+         *                 rail of the Flux based methods
+         * @return the builder
+         */
+        public GremlinDocumentCreatorBuilder prefetch(int prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
         public GremlinDocumentOperationCreator build() {
             return new GremlinDocumentOperationCreator(this);
         }
@@ -0,0 +1,22 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.graph.bulk.impl.model.GremlinEdge;
+
+/**
+ * Converts instances of a class annotated with GremlinEdge without the use of reflection. Implementations are
+ * generated at compile time by the GremlinMapperProcessor and discovered through the GremlinMapperRegistry.
+ *
+ * @param <T> the class annotated with GremlinEdge
+ */
+public interface GremlinEdgeMapper<T> {
+    /**
+     * Converts the object provided into a GremlinEdge
+     *
+     * @param from object to convert into a GremlinEdge
+     * @return An instance of the GremlinEdge object based on the values extracted from the object provided
+     */
+    GremlinEdge toGremlinEdge(T from);
+}
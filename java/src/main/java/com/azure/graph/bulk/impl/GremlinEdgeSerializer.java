@@ -5,17 +5,35 @@ package com.azure.graph.bulk.impl;
 
 import com.azure.graph.bulk.impl.model.GremlinEdge;
 import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinInterner;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 
+import static com.azure.graph.bulk.impl.GremlinVertexSerializer.writeLabel;
+
 /**
- * Serializer capable to serializing a GremlinEdge in the structure required by the CosmosDb Graph database
+ * Serializer capable to serializing a GremlinEdge in the structure required by the CosmosDb Graph database. The field
+ * names, and the labels, are written from their Json encoding pooled by GremlinInterner.
  */
 public class GremlinEdgeSerializer extends StdSerializer<GremlinEdge> {
+    private static final SerializableString IDENTICATOR = GremlinInterner.encoded(GremlinFieldNames.EDGE_IDENTICATOR);
+    private static final SerializableString ID = GremlinInterner.encoded(GremlinFieldNames.EDGE_ID);
+    private static final SerializableString LABEL = GremlinInterner.encoded(GremlinFieldNames.EDGE_LABEL);
+    private static final SerializableString DESTINATION_PARTITION =
+            GremlinInterner.encoded(GremlinFieldNames.EDGE_DESTINATIONV_PARTITION);
+    private static final SerializableString DESTINATION_ID =
+            GremlinInterner.encoded(GremlinFieldNames.EDGE_DESTINATIONV_ID);
+    private static final SerializableString DESTINATION_LABEL =
+            GremlinInterner.encoded(GremlinFieldNames.EDGE_DESTINATIONV_LABEL);
+    private static final SerializableString SOURCE_ID = GremlinInterner.encoded(GremlinFieldNames.EDGE_SOURCEV_ID);
+    private static final SerializableString SOURCE_LABEL =
+            GremlinInterner.encoded(GremlinFieldNames.EDGE_SOURCEV_LABEL);
+
     protected GremlinEdgeSerializer(Class<GremlinEdge> t) {
         super(t);
     }
@@ -33,29 +51,34 @@ public class GremlinEdgeSerializer extends StdSerializer<GremlinEdge> {
     public void serialize(GremlinEdge gremlinEdge, JsonGenerator jsonGenerator, SerializerProvider serializerProvider)
             throws IOException {
         jsonGenerator.writeStartObject();
-        jsonGenerator.writeBooleanField(GremlinFieldNames.EDGE_IDENTICATOR, true);
+        jsonGenerator.writeFieldName(IDENTICATOR);
+        jsonGenerator.writeBoolean(true);
 
-        jsonGenerator.writeStringField(GremlinFieldNames.EDGE_ID, gremlinEdge.getId());
-        jsonGenerator.writeStringField(GremlinFieldNames.EDGE_LABEL, gremlinEdge.getLabel());
+        jsonGenerator.writeFieldName(ID);
+        jsonGenerator.writeString(gremlinEdge.getId());
+        writeLabel(jsonGenerator, LABEL, gremlinEdge.getLabel());
 
         GremlinEdgeVertexInfo sourceVertexInfo = gremlinEdge.getSourceVertexInfo();
         GremlinEdgeVertexInfo destinationVertexInfo = gremlinEdge.getDestinationVertexInfo();
 
-        jsonGenerator.writeObjectField(gremlinEdge.getPartitionKey().getFieldName(),
-                gremlinEdge.getPartitionKey().getValue());
-        jsonGenerator.writeObjectField(GremlinFieldNames.EDGE_DESTINATIONV_PARTITION,
-                destinationVertexInfo.getPartitionKey().getValue());
+        jsonGenerator.writeFieldName(GremlinInterner.encoded(gremlinEdge.getPartitionKey().getFieldName()));
+        jsonGenerator.writeObject(gremlinEdge.getPartitionKey().getValue());
+        jsonGenerator.writeFieldName(DESTINATION_PARTITION);
+        jsonGenerator.writeObject(destinationVertexInfo.getPartitionKey().getValue());
 
-        jsonGenerator.writeStringField(GremlinFieldNames.EDGE_DESTINATIONV_ID, destinationVertexInfo.getId());
-        jsonGenerator.writeStringField(GremlinFieldNames.EDGE_DESTINATIONV_LABEL, destinationVertexInfo.getLabel());
+        jsonGenerator.writeFieldName(DESTINATION_ID);
+        jsonGenerator.writeString(destinationVertexInfo.getId());
+        writeLabel(jsonGenerator, DESTINATION_LABEL, destinationVertexInfo.getLabel());
 
-        jsonGenerator.writeStringField(GremlinFieldNames.EDGE_SOURCEV_ID, sourceVertexInfo.getId());
-        jsonGenerator.writeStringField(GremlinFieldNames.EDGE_SOURCEV_LABEL, sourceVertexInfo.getLabel());
+        jsonGenerator.writeFieldName(SOURCE_ID);
+        jsonGenerator.writeString(sourceVertexInfo.getId());
+        writeLabel(jsonGenerator, SOURCE_LABEL, sourceVertexInfo.getLabel());
 
         gremlinEdge.getProperties().forEach((key, value) -> {
             if (value != null) {
                 try {
-                    jsonGenerator.writeObjectField(key, value);
+                    jsonGenerator.writeFieldName(GremlinInterner.encoded(key));
+                    jsonGenerator.writeObject(value);
                 } catch (IOException e) {
                     throw new UncheckedIOException(e);
                 }
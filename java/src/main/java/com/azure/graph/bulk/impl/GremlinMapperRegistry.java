@@ -0,0 +1,95 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.graph.bulk.impl.model.ObjectConversionException;
+
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * Finds the mappers generated at compile time by the GremlinMapperProcessor. A generated mapper lives in the package
+ * of the class it converts and is named after it, with the names of enclosing classes joined by an underscore and
+ * GremlinMapper appended, e.g. Outer.Inner is converted by Outer_InnerGremlinMapper. The result of the lookup is
+ * cached per class, so classes without a generated mapper only pay for the failed class load once.
+ */
+public final class GremlinMapperRegistry {
+    private GremlinMapperRegistry() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    public static final String MAPPER_SUFFIX = "GremlinMapper";
+
+    private static final Object NO_MAPPER = new Object();
+
+    private static final ClassValue<Object> mappers = new ClassValue<>() {
+        @Override
+        protected Object computeValue(Class<?> type) {
+            return loadMapper(type);
+        }
+    };
+
+    /**
+     * Gets the generated vertex mapper for the class provided
+     *
+     * @param clazz class annotated with GremlinVertex
+     * @return the generated mapper, or null when no mapper was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static GremlinVertexMapper<Object> getVertexMapper(Class<?> clazz) {
+        Object mapper = mappers.get(clazz);
+        return mapper instanceof GremlinVertexMapper ? (GremlinVertexMapper<Object>) mapper : null;
+    }
+
+    /**
+     * Gets the generated edge mapper for the class provided
+     *
+     * @param clazz class annotated with GremlinEdge
+     * @return the generated mapper, or null when no mapper was generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static GremlinEdgeMapper<Object> getEdgeMapper(Class<?> clazz) {
+        Object mapper = mappers.get(clazz);
+        return mapper instanceof GremlinEdgeMapper ? (GremlinEdgeMapper<Object>) mapper : null;
+    }
+
+    /**
+     * Builds the fully qualified name of the mapper generated for the class provided
+     *
+     * @param clazz the class converted by the mapper
+     * @return the name of the generated mapper, or null for anonymous and local classes which can't have one
+     */
+    public static String getMapperClassName(Class<?> clazz) {
+        if (clazz.isAnonymousClass() || clazz.isLocalClass()) return null;
+
+        StringBuilder name = new StringBuilder(clazz.getSimpleName());
+        for (Class<?> enclosing = clazz.getEnclosingClass(); enclosing != null;
+             enclosing = enclosing.getEnclosingClass()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+
+        String packageName = clazz.getPackageName();
+        return packageName.isEmpty()
+                ? name + MAPPER_SUFFIX
+                : packageName + "." + name + MAPPER_SUFFIX;
+    }
+
+    private static Object loadMapper(Class<?> clazz) {
+        String mapperClassName = getMapperClassName(clazz);
+        if (mapperClassName == null || clazz.isPrimitive() || clazz.isArray()) return NO_MAPPER;
+
+        Class<?> mapperClass;
+        try {
+            mapperClass = Class.forName(mapperClassName, true, clazz.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return NO_MAPPER;
+        }
+
+        try {
+            return mapperClass.getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
+                 NoSuchMethodException e) {
+            throw new ObjectConversionException(e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+
+/**
+ * Converts instances of a class annotated with GremlinVertex without the use of reflection. Implementations are
+ * generated at compile time by the GremlinMapperProcessor and discovered through the GremlinMapperRegistry.
+ *
+ * @param <T> the class annotated with GremlinVertex
+ */
+public interface GremlinVertexMapper<T> {
+    /**
+     * Converts the object provided into a GremlinVertex
+     *
+     * @param from object to convert into a GremlinVertex
+     * @return An instance of the GremlinVertex object based on the values extracted from the object provided
+     */
+    GremlinVertex toGremlinVertex(T from);
+}
@@ -3,22 +3,44 @@
 
 package com.azure.graph.bulk.impl;
 
+import com.azure.graph.bulk.impl.model.GremlinInterner;
 import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
 import com.azure.graph.bulk.impl.model.GremlinVertex;
+import com.azure.graph.bulk.impl.model.VertexProperties;
+import com.azure.graph.bulk.impl.model.VertexSchema;
+import com.azure.graph.bulk.impl.model.VertexSchema.Kind;
 import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.util.UUID;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
- * Serializer capable to serializing a GremlinVertex in the structure required by the CosmosDb Graph database
+ * Serializer capable to serializing a GremlinVertex in the structure required by the CosmosDb Graph database. The
+ * field names, and the labels, are written from their Json encoding pooled by GremlinInterner.
  */
 public class GremlinVertexSerializer extends StdSerializer<GremlinVertex> {
+    private static final SerializableString ID = GremlinInterner.encoded(GremlinFieldNames.VERTEX_ID);
+    private static final SerializableString LABEL = GremlinInterner.encoded(GremlinFieldNames.VERTEX_LABEL);
+    private static final SerializableString PROPERTY_ID = GremlinInterner.encoded(GremlinFieldNames.PROPERTY_ID);
+    private static final SerializableString PROPERTY_VALUE =
+            GremlinInterner.encoded(GremlinFieldNames.PROPERTY_VALUE);
+
+    private final transient PropertyIdGenerator propertyIdGenerator;
+
     protected GremlinVertexSerializer(Class<GremlinVertex> t) {
+        this(t, PropertyIdGenerators.threadLocalRandom());
+    }
+
+    protected GremlinVertexSerializer(Class<GremlinVertex> t, PropertyIdGenerator propertyIdGenerator) {
         super(t);
+        this.propertyIdGenerator = propertyIdGenerator;
     }
 
     /**
@@ -35,29 +57,108 @@ public class GremlinVertexSerializer extends StdSerializer<GremlinVertex> {
                           JsonGenerator jsonGenerator,
                           SerializerProvider serializerProvider) throws IOException {
         jsonGenerator.writeStartObject();
-        jsonGenerator.writeStringField(GremlinFieldNames.VERTEX_ID, gremlinVertex.getId());
+        jsonGenerator.writeFieldName(ID);
+        jsonGenerator.writeString(gremlinVertex.getId());
 
-        jsonGenerator.writeStringField(GremlinFieldNames.VERTEX_LABEL, gremlinVertex.getLabel());
+        writeLabel(jsonGenerator, LABEL, gremlinVertex.getLabel());
 
         GremlinPartitionKey partitionKey = gremlinVertex.getPartitionKey();
 
-        jsonGenerator.writeObjectField(partitionKey.getFieldName(), partitionKey.getValue());
-
-        gremlinVertex.getProperties().forEach((key, value) -> {
-            if (value != null) {
-                try {
-                    jsonGenerator.writeArrayFieldStart(key);
-                    jsonGenerator.writeStartObject();
-                    jsonGenerator.writeStringField(GremlinFieldNames.PROPERTY_ID, UUID.randomUUID().toString());
-                    jsonGenerator.writeObjectField(GremlinFieldNames.PROPERTY_VALUE, value);
-                    jsonGenerator.writeEndObject();
-                    jsonGenerator.writeEndArray();
-                } catch (IOException e) {
-                    throw new UncheckedIOException(e);
+        jsonGenerator.writeFieldName(GremlinInterner.encoded(partitionKey.getFieldName()));
+        jsonGenerator.writeObject(partitionKey.getValue());
+
+        Map<String, Object> properties = gremlinVertex.getProperties();
+        if (properties instanceof VertexProperties) {
+            writeProperties(gremlinVertex.getId(), (VertexProperties) properties, jsonGenerator);
+        } else {
+            properties.forEach((key, value) -> {
+                if (value != null) {
+                    try {
+                        writeProperty(gremlinVertex.getId(), key, value, jsonGenerator);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
                 }
+            });
+        }
+
+        jsonGenerator.writeEndObject();
+    }
+
+    /**
+     * Writes the values held in the slots of the schema and those of the overflow together in the order of their
+     * names, so the document doesn't depend on whether the schema had a slot for a property when the vertex was
+     * built. The primitive values are written without boxing them.
+     */
+    private void writeProperties(String id, VertexProperties properties, JsonGenerator jsonGenerator)
+            throws IOException {
+        VertexSchema schema = properties.getSchema();
+        Map<String, Object> overflow = properties.getOverflow();
+        Iterator<Map.Entry<String, Object>> overflowEntries = overflow.isEmpty()
+                ? Collections.emptyIterator()
+                : new TreeMap<>(overflow).entrySet().iterator();
+        Map.Entry<String, Object> nextOverflow = overflowEntries.hasNext() ? overflowEntries.next() : null;
+
+        for (int slot : schema.getNameOrder()) {
+            if (slot >= properties.getSlotCount()) continue;
+            Kind kind = properties.getStoredKind(slot);
+            if (kind == null) continue;
+
+            String name = schema.getName(slot);
+            while (nextOverflow != null && nextOverflow.getKey().compareTo(name) < 0) {
+                writeProperty(id, nextOverflow.getKey(), nextOverflow.getValue(), jsonGenerator);
+                nextOverflow = overflowEntries.hasNext() ? overflowEntries.next() : null;
+            }
+            writePropertyStart(id, name, schema.getEncodedName(slot), jsonGenerator);
+            switch (kind) {
+                case INT:
+                    jsonGenerator.writeNumber((int) properties.getLong(slot));
+                    break;
+                case LONG:
+                    jsonGenerator.writeNumber(properties.getLong(slot));
+                    break;
+                case DOUBLE:
+                    jsonGenerator.writeNumber(properties.getDouble(slot));
+                    break;
+                default:
+                    jsonGenerator.writeObject(properties.getObject(slot));
             }
-        });
+            writePropertyEnd(jsonGenerator);
+        }
+
+        while (nextOverflow != null) {
+            writeProperty(id, nextOverflow.getKey(), nextOverflow.getValue(), jsonGenerator);
+            nextOverflow = overflowEntries.hasNext() ? overflowEntries.next() : null;
+        }
+    }
+
+    private void writeProperty(String id, String key, Object value, JsonGenerator jsonGenerator) throws IOException {
+        writePropertyStart(id, key, GremlinInterner.encoded(key), jsonGenerator);
+        jsonGenerator.writeObject(value);
+        writePropertyEnd(jsonGenerator);
+    }
 
+    private void writePropertyStart(String id, String key, SerializableString encodedKey, JsonGenerator jsonGenerator)
+            throws IOException {
+        jsonGenerator.writeFieldName(encodedKey);
+        jsonGenerator.writeStartArray();
+        jsonGenerator.writeStartObject();
+        jsonGenerator.writeFieldName(PROPERTY_ID);
+        jsonGenerator.writeString(propertyIdGenerator.generateId(id, key, 0));
+        jsonGenerator.writeFieldName(PROPERTY_VALUE);
+    }
+
+    private static void writePropertyEnd(JsonGenerator jsonGenerator) throws IOException {
         jsonGenerator.writeEndObject();
+        jsonGenerator.writeEndArray();
+    }
+
+    static void writeLabel(JsonGenerator jsonGenerator, SerializableString name, String label) throws IOException {
+        jsonGenerator.writeFieldName(name);
+        if (label == null) {
+            jsonGenerator.writeNull();
+        } else {
+            jsonGenerator.writeString(GremlinInterner.encoded(label));
+        }
     }
 }
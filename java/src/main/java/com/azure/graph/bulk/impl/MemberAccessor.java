@@ -0,0 +1,73 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.graph.bulk.impl.model.ObjectConversionException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+/**
+ * Reads the value of a single field or no argument method through a MethodHandle that has been resolved once,
+ * so the per object cost is a direct invocation instead of a reflective lookup and access check.
+ */
+final class MemberAccessor {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final String name;
+    private final MethodHandle getter;
+
+    private MemberAccessor(String name, MethodHandle getter) {
+        this.name = name;
+        this.getter = getter.asType(GETTER_TYPE);
+    }
+
+    /**
+     * Resolves an accessor for the instance field provided
+     *
+     * @param field the field to read
+     * @return accessor reading the field
+     * @throws IllegalAccessException when the field can't be read from this package, matching Field.canAccess
+     */
+    static MemberAccessor of(Field field) throws IllegalAccessException {
+        return new MemberAccessor(field.getName(), MethodHandles.lookup().unreflectGetter(field));
+    }
+
+    /**
+     * Resolves an accessor for the instance method provided, the method should not contain any arguments
+     *
+     * @param method the method to call
+     * @return accessor calling the method
+     * @throws IllegalAccessException when the method can't be called from this package
+     */
+    static MemberAccessor of(Method method) throws IllegalAccessException {
+        return new MemberAccessor(method.getName(), MethodHandles.lookup().unreflect(method));
+    }
+
+    /**
+     * @return the name of the field or method this accessor reads from
+     */
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Reads the value from the instance provided
+     *
+     * @param from the instance to read the value from
+     * @return the value of the field, or the result of calling the method
+     */
+    Object get(Object from) {
+        try {
+            return (Object) getter.invokeExact(from);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new ObjectConversionException(e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+/**
+ * Generates the id written with every property value of a GremlinVertex document. Implementations are shared by all
+ * the threads serializing vertices and need to be thread safe. See PropertyIdGenerators for the available strategies.
+ */
+public interface PropertyIdGenerator {
+    /**
+     * @param vertexId    id of the vertex the property belongs to
+     * @param propertyKey name of the property
+     * @param valueIndex  position of the value within the property, starting at 0
+     * @return the id to store with the property value
+     */
+    String generateId(String vertexId, String propertyKey, int valueIndex);
+}
@@ -0,0 +1,128 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The PropertyIdGenerator strategies available to the GremlinVertexSerializer
+ */
+public final class PropertyIdGenerators {
+    private PropertyIdGenerators() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    private static final PropertyIdGenerator threadLocalRandom = new ThreadLocalRandomGenerator();
+    private static final PropertyIdGenerator deterministic = new DeterministicGenerator();
+
+    /**
+     * Random version 4 UUIDs drawn from ThreadLocalRandom. Unlike UUID.randomUUID, which shares a single
+     * SecureRandom, threads never contend for the generator. This is the default strategy.
+     *
+     * @return the shared generator
+     */
+    public static PropertyIdGenerator threadLocalRandom() {
+        return threadLocalRandom;
+    }
+
+    /**
+     * UUIDs derived from a hash of the vertex id, the property name and the index of the value. Serializing the same
+     * vertex again produces the same property ids, so reloading unchanged data writes byte identical documents and
+     * an upsert of an unchanged vertex doesn't rewrite its property ids.
+     *
+     * @return the shared generator
+     */
+    public static PropertyIdGenerator deterministic() {
+        return deterministic;
+    }
+
+    /**
+     * UUIDs made of a random prefix, picked once per generator, and an increasing counter. Each thread reserves a
+     * block of counter values at a time, so the shared counter is only touched once per block.
+     *
+     * @return a new generator with its own prefix
+     */
+    public static PropertyIdGenerator monotonic() {
+        return new MonotonicGenerator(ThreadLocalRandom.current().nextLong());
+    }
+
+    private static final class ThreadLocalRandomGenerator implements PropertyIdGenerator {
+        @Override
+        public String generateId(String vertexId, String propertyKey, int valueIndex) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            // Set the version (4) and variant (IETF) bits, matching UUID.randomUUID
+            long mostSigBits = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+            long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+            return new UUID(mostSigBits, leastSigBits).toString();
+        }
+    }
+
+    /**
+     * Two 64 bit hashes with different seeds over the characters of the vertex id and property name followed by the
+     * value index. Not meant to be cryptographically strong, only stable across runs and JVMs.
+     */
+    private static final class DeterministicGenerator implements PropertyIdGenerator {
+        private static final long HIGH_SEED = 0x9e3779b97f4a7c15L;
+        private static final long LOW_SEED = 0xc2b2ae3d27d4eb4fL;
+
+        @Override
+        public String generateId(String vertexId, String propertyKey, int valueIndex) {
+            long high = hash(HIGH_SEED, vertexId, propertyKey, valueIndex);
+            long low = hash(LOW_SEED, vertexId, propertyKey, valueIndex);
+            // Set the version (8, custom) and variant (IETF) bits so the ids remain valid UUIDs
+            return new UUID((high & 0xffffffffffff0fffL) | 0x0000000000008000L,
+                    (low & 0x3fffffffffffffffL) | 0x8000000000000000L).toString();
+        }
+
+        private static long hash(long seed, String vertexId, String propertyKey, int valueIndex) {
+            long hash = seed;
+            hash = hash(hash, vertexId);
+            hash = hash(hash, propertyKey);
+            return mix(hash ^ valueIndex);
+        }
+
+        private static long hash(long hash, String value) {
+            // The length keeps ("ab", "c") and ("a", "bc") apart
+            hash = mix(hash ^ value.length());
+            for (int i = 0; i < value.length(); i++) {
+                hash = (hash ^ value.charAt(i)) * 0x100000001b3L;
+            }
+            return hash;
+        }
+
+        /**
+         * Finalizer of the SplitMix64 generator, spreads every input bit over the whole value
+         */
+        private static long mix(long value) {
+            value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+            value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+            return value ^ (value >>> 31);
+        }
+    }
+
+    private static final class MonotonicGenerator implements PropertyIdGenerator {
+        private static final int BLOCK_SIZE = 1024;
+
+        private final long prefix;
+        private final AtomicLong nextBlock = new AtomicLong();
+        private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[]{0, 0});
+
+        private MonotonicGenerator(long prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public String generateId(String vertexId, String propertyKey, int valueIndex) {
+            // block[0] is the next value to hand out, block[1] the end of the block reserved by this thread
+            long[] block = blocks.get();
+            if (block[0] == block[1]) {
+                block[0] = nextBlock.getAndAdd(BLOCK_SIZE);
+                block[1] = block[0] + BLOCK_SIZE;
+            }
+            return new UUID(prefix, block[0]++).toString();
+        }
+    }
+}
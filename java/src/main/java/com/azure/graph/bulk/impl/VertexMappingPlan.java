@@ -0,0 +1,260 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.graph.bulk.impl.annotations.GremlinId;
+import com.azure.graph.bulk.impl.annotations.GremlinIgnore;
+import com.azure.graph.bulk.impl.annotations.GremlinLabel;
+import com.azure.graph.bulk.impl.annotations.GremlinLabelGetter;
+import com.azure.graph.bulk.impl.annotations.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.annotations.GremlinProperty;
+import com.azure.graph.bulk.impl.annotations.GremlinPropertyMap;
+import com.azure.graph.bulk.impl.annotations.GremlinVertex;
+import com.azure.graph.bulk.impl.annotations.VertexAnnotationValidator;
+import com.azure.graph.bulk.impl.model.AnnotationValidationException;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinInterner;
+import com.azure.graph.bulk.impl.model.VertexProperties;
+import com.azure.graph.bulk.impl.model.VertexSchema;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.commons.lang3.reflect.MethodUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.reflect.Modifier.isStatic;
+
+/**
+ * Immutable description of how to convert instances of one class annotated with GremlinVertex into a GremlinVertex.
+ * The annotations are read once when the plan is compiled; mapping an object is a loop over the resolved accessors.
+ * Plans are cached per class and are safe to share across threads.
+ */
+final class VertexMappingPlan {
+    private static final VertexAnnotationValidator vertexValidator = new VertexAnnotationValidator();
+
+    private static final ClassValue<VertexMappingPlan> plans = new ClassValue<>() {
+        @Override
+        protected VertexMappingPlan computeValue(Class<?> type) {
+            return compile(type);
+        }
+    };
+
+    private final Class<?> type;
+    private final String classLabel;
+    private final MemberAccessor[] labelGetters;
+    private final MemberAccessor labelField;
+    private final MemberAccessor idField;
+    private final MemberAccessor partitionKeyField;
+    private final String partitionKeyFieldName;
+    // Property slots in field declaration order, a null name marks a GremlinPropertyMap field
+    private final String[] propertyNames;
+    private final MemberAccessor[] propertyFields;
+
+    private VertexMappingPlan(Class<?> type, Builder builder) {
+        this.type = type;
+        this.classLabel = builder.classLabel;
+        this.labelGetters = builder.labelGetters.toArray(new MemberAccessor[0]);
+        this.labelField = builder.labelField;
+        this.idField = builder.idField;
+        this.partitionKeyField = builder.partitionKeyField;
+        this.partitionKeyFieldName = builder.partitionKeyFieldName;
+        this.propertyNames = builder.propertyNames.toArray(new String[0]);
+        this.propertyFields = builder.propertyFields.toArray(new MemberAccessor[0]);
+    }
+
+    /**
+     * Gets the plan for the class provided, compiling and validating it on first use
+     *
+     * @param clazz class annotated with GremlinVertex
+     * @return the cached plan for the class
+     */
+    static VertexMappingPlan forClass(Class<?> clazz) {
+        return plans.get(clazz);
+    }
+
+    private static VertexMappingPlan compile(Class<?> clazz) {
+        GremlinVertex vertexAnnotation = clazz.getAnnotation(GremlinVertex.class);
+        if (vertexAnnotation == null) {
+            throw new IllegalArgumentException(
+                    "Class " + clazz.getSimpleName() + " is missing GremlinVertex annotation");
+        }
+
+        List<String> validationResults = vertexValidator.validate(clazz);
+        if (!validationResults.isEmpty()) {
+            throw new AnnotationValidationException(clazz, validationResults);
+        }
+
+        Builder builder = new Builder();
+        if (!vertexAnnotation.label().isBlank()) {
+            builder.classLabel = GremlinInterner.label(vertexAnnotation.label());
+        }
+
+        for (Method method : MethodUtils.getMethodsWithAnnotation(clazz, GremlinLabelGetter.class)) {
+            if (isStatic(method.getModifiers())) continue;
+            try {
+                builder.labelGetters.add(MemberAccessor.of(method));
+            } catch (IllegalAccessException e) {
+                // method is not accessible, attempts to call it will fail.
+            }
+        }
+
+        for (Field field : FieldUtils.getAllFields(clazz)) {
+            if (isStatic(field.getModifiers())) continue;
+
+            MemberAccessor accessor;
+            try {
+                accessor = MemberAccessor.of(field);
+            } catch (IllegalAccessException e) {
+                continue; // Field is not accessible
+            }
+            builder.addField(field, accessor);
+        }
+
+        return new VertexMappingPlan(clazz, builder);
+    }
+
+    /**
+     * Converts the object provided into a GremlinVertex using the resolved accessors
+     *
+     * @param from instance of the class this plan was compiled for
+     * @return An instance of the GremlinVertex object based on the values extracted from the object provided
+     */
+    com.azure.graph.bulk.impl.model.GremlinVertex map(Object from) {
+        String label = getLabel(from);
+        Map<String, Object> properties = new VertexProperties(VertexSchema.forLabel(label));
+
+        for (int i = 0; i < propertyFields.length; i++) {
+            Object value = propertyFields[i].get(from);
+            if (value == null) continue;
+
+            if (propertyNames[i] != null) {
+                properties.put(propertyNames[i], value);
+            } else if (value instanceof Map) {
+                ((Map<?, ?>) value).forEach((k, v) -> {
+                    if (v != null) {
+                        properties.put((String) k, v);
+                    }
+                });
+            }
+        }
+
+        return com.azure.graph.bulk.impl.model.GremlinVertex.builder()
+                .id(getId(from))
+                .label(label)
+                .partitionKey(getPartitionKey(from))
+                .properties(properties)
+                .build();
+    }
+
+    /**
+     * Pulls only the values required to link a GremlinEdge to the vertex, skipping the properties
+     *
+     * @param from instance of the class this plan was compiled for
+     * @return GremlinEdgeVertexInfo with the id, label and partition key of the vertex
+     */
+    GremlinEdgeVertexInfo mapEdgeVertexInfo(Object from) {
+        return GremlinEdgeVertexInfo.builder()
+                .id(getId(from))
+                .label(getLabel(from))
+                .partitionKey(getPartitionKey(from))
+                .build();
+    }
+
+    /**
+     * @return the class this plan was compiled for
+     */
+    Class<?> getType() {
+        return type;
+    }
+
+    private String getId(Object from) {
+        if (idField == null) return null;
+
+        String id = (String) idField.get(from);
+        if (id == null) {
+            throw new IllegalArgumentException(
+                    "GremlinId cannot be null, please ensure " + idField.getName() + " is populated.");
+        }
+        return id;
+    }
+
+    /**
+     * Resolves the label in the documented order: the class level annotation, then the GremlinLabelGetter method and
+     * last the field marked with GremlinLabel
+     */
+    private String getLabel(Object from) {
+        if (classLabel != null) return classLabel;
+
+        String label = null;
+        for (MemberAccessor getter : labelGetters) {
+            String vertexLabel = (String) getter.get(from);
+            if (vertexLabel != null && !vertexLabel.isBlank()) {
+                label = vertexLabel;
+            }
+        }
+
+        if (label == null && labelField != null) {
+            label = (String) labelField.get(from);
+        }
+        return GremlinInterner.label(label);
+    }
+
+    private com.azure.graph.bulk.impl.model.GremlinPartitionKey getPartitionKey(Object from) {
+        if (partitionKeyField == null) return null;
+
+        Object rawObjectValue = partitionKeyField.get(from);
+        return GremlinInterner.partitionKey(partitionKeyFieldName,
+                rawObjectValue instanceof com.azure.graph.bulk.impl.model.GremlinPartitionKey
+                        ? ((com.azure.graph.bulk.impl.model.GremlinPartitionKey) rawObjectValue).getValue()
+                        : rawObjectValue);
+    }
+
+    private static class Builder {
+        private String classLabel;
+        private final List<MemberAccessor> labelGetters = new ArrayList<>();
+        private MemberAccessor labelField;
+        private MemberAccessor idField;
+        private MemberAccessor partitionKeyField;
+        private String partitionKeyFieldName;
+        private final List<String> propertyNames = new ArrayList<>();
+        private final List<MemberAccessor> propertyFields = new ArrayList<>();
+
+        private void addField(Field field, MemberAccessor accessor) {
+            if (field.isAnnotationPresent(GremlinId.class)) {
+                idField = accessor;
+            }
+
+            if (field.isAnnotationPresent(GremlinLabel.class)) {
+                labelField = accessor;
+            }
+
+            GremlinPartitionKey pkAnnotation = field.getAnnotation(GremlinPartitionKey.class);
+            if (pkAnnotation != null) {
+                partitionKeyField = accessor;
+                partitionKeyFieldName = pkAnnotation.fieldName().isBlank()
+                        ? field.getName()
+                        : pkAnnotation.fieldName();
+            }
+
+            if (field.isAnnotationPresent(GremlinPropertyMap.class)) {
+                propertyNames.add(null);
+                propertyFields.add(accessor);
+                return;
+            }
+
+            if (field.isAnnotationPresent(GremlinIgnore.class) ||
+                    field.isAnnotationPresent(GremlinId.class) ||
+                    pkAnnotation != null ||
+                    field.isAnnotationPresent(GremlinLabel.class)
+            ) return;
+
+            GremlinProperty propertyAnnotation = field.getAnnotation(GremlinProperty.class);
+            propertyNames.add(propertyAnnotation == null ? field.getName() : propertyAnnotation.name());
+            propertyFields.add(accessor);
+        }
+    }
+}
@@ -31,12 +31,28 @@ public class EdgeAnnotationValidator {
     public static final String GREMLIN_EDGE_PARTITION_KEY = "GremlinEdge classes construct the Partition Key from " +
             "the source vertex and the partitionKeyName value in the GremlinEdge call annotation.";
 
-    private final Map<String, List<String>> validatedClasses = new HashMap<>();
-
+    /**
+     * Results are cached per class, the cache is safe to use from parallel streams and is keyed by the class itself,
+     * so classes with the same name from different class loaders are validated separately.
+     */
+    private final ClassValue<List<String>> validatedClasses = new ClassValue<>() {
+        @Override
+        protected List<String> computeValue(Class<?> type) {
+            return List.copyOf(validateClass(type));
+        }
+    };
+
+    /**
+     * Validates the annotations of the class provided, the class is only inspected the first time it is validated
+     *
+     * @param clazz class annotated with GremlinEdge
+     * @return unmodifiable list of validation errors, empty when the class is valid
+     */
     public List<String> validate(Class<?> clazz) {
-        if (validatedClasses.containsKey(clazz.getName()))
-            return validatedClasses.get(clazz.getName());
+        return validatedClasses.get(clazz);
+    }
 
+    private List<String> validateClass(Class<?> clazz) {
         List<String> results = new ArrayList<>();
 
         Stream<Class<? extends Annotation>> fieldAnnotations =
@@ -54,8 +70,6 @@ public class EdgeAnnotationValidator {
         validateEdges(clazz, results);
         validatePartitionKey(results, fieldAnnotationCounts);
 
-        validatedClasses.put(clazz.getName(), results);
-
         return results;
     }
 
@@ -23,13 +23,29 @@ public class VertexAnnotationValidator {
             "on only one field or method when there is no label set on the GremlinVertex class annotation.";
     public static final String GREMLIN_EDGES_MISSING = "GremlinEdge annotation is required on two fields.";
 
-    private final Map<String, List<String>> validatedClasses = new HashMap<>();
+    /**
+     * Results are cached per class, the cache is safe to use from parallel streams and is keyed by the class itself,
+     * so classes with the same name from different class loaders are validated separately.
+     */
+    private final ClassValue<List<String>> validatedClasses = new ClassValue<>() {
+        @Override
+        protected List<String> computeValue(Class<?> type) {
+            return List.copyOf(validateClass(type));
+        }
+    };
 
 
+    /**
+     * Validates the annotations of the class provided, the class is only inspected the first time it is validated
+     *
+     * @param clazz class annotated with GremlinVertex
+     * @return unmodifiable list of validation errors, empty when the class is valid
+     */
     public List<String> validate(Class<?> clazz) {
-        if (validatedClasses.containsKey(clazz.getName()))
-            return validatedClasses.get(clazz.getName());
+        return validatedClasses.get(clazz);
+    }
 
+    private List<String> validateClass(Class<?> clazz) {
         List<String> results = new ArrayList<>();
 
         Stream<Class<? extends Annotation>> fieldAnnotations =
@@ -46,8 +62,6 @@ public class VertexAnnotationValidator {
         validateId(results, fieldAnnotationCounts);
         validateLabel(clazz, results, fieldAnnotationCounts, methodAnnotationCounts);
 
-        validatedClasses.put(clazz.getName(), results);
-
         return results;
     }
 
@@ -58,6 +58,19 @@ public class GremlinEdge {
         this.partitionKey = partitionKey;
     }
 
+    /**
+     * Changes the value of the partition key. The key can be a canonical one of GremlinInterner, shared with other
+     * objects, so it isn't modified, the edge takes the canonical key of the new value instead.
+     *
+     * @param value new value of the partition key
+     * @throws IllegalStateException when there is no partition key, or the value is null or not a primitive data
+     *                               type
+     */
+    public void setPartitionKeyValue(Object value) {
+        if (partitionKey == null) throw new IllegalStateException("Partition key is missing, its value can't be set");
+        partitionKey = GremlinInterner.partitionKey(partitionKey.getFieldName(), value);
+    }
+
     public void setProperties(Map<String, Object> properties) {
         this.properties = properties;
     }
@@ -161,7 +174,7 @@ public class GremlinEdge {
         }
 
         public GremlinEdge.GremlinEdgeBuilder label(String label) {
-            this.label = label;
+            this.label = GremlinInterner.label(label);
             return this;
         }
 
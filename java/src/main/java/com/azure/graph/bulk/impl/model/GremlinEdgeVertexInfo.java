@@ -3,10 +3,8 @@
 
 package com.azure.graph.bulk.impl.model;
 
-import com.azure.graph.bulk.impl.annotations.GremlinId;
-import org.apache.commons.lang3.reflect.FieldUtils;
+import com.azure.graph.bulk.impl.ObjectToVertex;
 
-import java.lang.reflect.Field;
 import java.util.Objects;
 
 public class GremlinEdgeVertexInfo {
@@ -34,47 +32,7 @@ public class GremlinEdgeVertexInfo {
      * Vertex and another Vertex
      */
     public static GremlinEdgeVertexInfo fromGremlinVertex(Object from) {
-        if (from instanceof GremlinVertex) {
-            return new GremlinEdgeVertexInfo((GremlinVertex) from);
-        }
-
-        GremlinEdgeVertexInfoBuilder builder = GremlinEdgeVertexInfo.builder();
-
-        Class<?> clazz = from.getClass();
-
-        Class<com.azure.graph.bulk.impl.annotations.GremlinVertex> annotationClass =
-                com.azure.graph.bulk.impl.annotations.GremlinVertex.class;
-        if (!clazz.isAnnotationPresent(annotationClass)) {
-            throw new IllegalArgumentException(
-                    "Class " + clazz.getSimpleName() + " is missing GremlinVertex annotation");
-        }
-
-        builder.label(clazz.getAnnotation(
-                com.azure.graph.bulk.impl.annotations.GremlinVertex.class).label());
-
-        for (Field field : FieldUtils.getAllFields(clazz)) {
-            if (field.isAnnotationPresent(GremlinId.class)) {
-                try {
-                    builder.id((String) field.get(from));
-                } catch (IllegalAccessException e) {
-                    throw new ObjectConversionException(e);
-                }
-            }
-
-            if (field.isAnnotationPresent(com.azure.graph.bulk.impl.annotations.GremlinPartitionKey.class)) {
-                try {
-                    Object rawObject = field.get(from);
-                    if (rawObject instanceof GremlinPartitionKey)
-                        builder.partitionKey((GremlinPartitionKey) rawObject);
-                    else {
-                        builder.partitionKey(GremlinPartitionKey.builder().value(rawObject).build());
-                    }
-                } catch (IllegalAccessException e) {
-                    throw new ObjectConversionException(e);
-                }
-            }
-        }
-        return builder.build();
+        return ObjectToVertex.toGremlinEdgeVertexInfo(from);
     }
 
     public void validate() {
@@ -146,6 +104,19 @@ public class GremlinEdgeVertexInfo {
         this.partitionKey = partitionKey;
     }
 
+    /**
+     * Changes the value of the partition key. The key can be a canonical one of GremlinInterner, shared with other
+     * objects, so it isn't modified, the vertex takes the canonical key of the new value instead.
+     *
+     * @param value new value of the partition key
+     * @throws IllegalStateException when there is no partition key, or the value is null or not a primitive data
+     *                               type
+     */
+    public void setPartitionKeyValue(Object value) {
+        if (partitionKey == null) throw new IllegalStateException("Partition key is missing, its value can't be set");
+        partitionKey = GremlinInterner.partitionKey(partitionKey.getFieldName(), value);
+    }
+
     public static class GremlinEdgeVertexInfoBuilder {
         private String id;
         private String label;
@@ -160,7 +131,7 @@ public class GremlinEdgeVertexInfo {
         }
 
         public GremlinEdgeVertexInfo.GremlinEdgeVertexInfoBuilder label(String label) {
-            this.label = label;
+            this.label = GremlinInterner.label(label);
             return this;
         }
 
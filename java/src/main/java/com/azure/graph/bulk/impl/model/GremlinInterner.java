@@ -0,0 +1,98 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pools the values repeated across the vertices and edges of a graph: the labels, the partition keys and the names
+ * written by the serializers. A graph has a handful of labels and at most a few thousand partition key values, so the
+ * converted objects can share one instance of each rather than every object holding its own copy.
+ * <p>
+ * Each pool holds at most MAX_POOLED entries, past that values are returned as they are, or as new instances, so a
+ * source with unbounded distinct values, for example one partition key per vertex, doesn't grow the pools forever.
+ */
+public final class GremlinInterner {
+    static final int MAX_POOLED = 65_536;
+
+    private static final Map<String, String> labels = new ConcurrentHashMap<>();
+    private static final Map<String, Map<Object, GremlinPartitionKey>> partitionKeys = new ConcurrentHashMap<>();
+    private static final Map<String, SerializedString> names = new ConcurrentHashMap<>();
+
+    private GremlinInterner() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    /**
+     * @param label label of a vertex or an edge
+     * @return the pooled instance equal to the label, the label itself when it is null or the pool is full
+     */
+    public static String label(String label) {
+        if (label == null) return null;
+
+        String pooled = labels.get(label);
+        if (pooled != null) return pooled;
+        if (labels.size() >= MAX_POOLED) return label;
+
+        pooled = labels.putIfAbsent(label, label);
+        return pooled == null ? label : pooled;
+    }
+
+    /**
+     * Gets the canonical partition key for the field name and value provided. The instance is shared by all the
+     * vertices and edges with that partition key, so its value can't be changed. Their setPartitionKeyValue takes
+     * the canonical key of the new value instead.
+     *
+     * @param fieldName name of the partition key field of the document
+     * @param value     value of the partition key
+     * @return the pooled partition key, a new one when the pool is full
+     * @throws IllegalStateException when the value is null or not a primitive data type
+     */
+    public static GremlinPartitionKey partitionKey(String fieldName, Object value) {
+        if (fieldName == null || value == null) {
+            return GremlinPartitionKey.builder().fieldName(fieldName).value(value).build();
+        }
+
+        Map<Object, GremlinPartitionKey> values = partitionKeys.get(fieldName);
+        if (values == null) {
+            if (partitionKeys.size() >= MAX_POOLED) return newPartitionKey(fieldName, value);
+            values = partitionKeys.computeIfAbsent(fieldName, key -> new ConcurrentHashMap<>());
+        }
+
+        GremlinPartitionKey pooled = values.get(value);
+        if (pooled != null) return pooled;
+        if (values.size() >= MAX_POOLED) return newPartitionKey(fieldName, value);
+
+        GremlinPartitionKey partitionKey = newPartitionKey(fieldName, value);
+        partitionKey.share();
+        pooled = values.putIfAbsent(value, partitionKey);
+        return pooled == null ? partitionKey : pooled;
+    }
+
+    /**
+     * Gets the name, or string value, already encoded as Json, so generators writing it again and again don't
+     * escape and encode it every time
+     *
+     * @param name field name or string value written by a serializer
+     * @return the pooled encoded name, a new one when the pool is full
+     */
+    public static SerializableString encoded(String name) {
+        SerializedString pooled = names.get(name);
+        if (pooled != null) return pooled;
+        if (names.size() >= MAX_POOLED) return new SerializedString(name);
+
+        return names.computeIfAbsent(name, SerializedString::new);
+    }
+
+    private static GremlinPartitionKey newPartitionKey(String fieldName, Object value) {
+        return GremlinPartitionKey.builder()
+                .fieldName(fieldName)
+                .value(value)
+                .build();
+    }
+}
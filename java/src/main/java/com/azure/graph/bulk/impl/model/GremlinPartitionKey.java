@@ -8,6 +8,8 @@ import com.azure.cosmos.implementation.Undefined;
 public class GremlinPartitionKey {
     private final String fieldName;
     private Object value;
+    // Set on the canonical instances of GremlinInterner, which are shared by many vertices and edges
+    private boolean shared;
 
     public void validate() {
         if (fieldName == null || fieldName.isBlank())
@@ -22,7 +24,15 @@ public class GremlinPartitionKey {
         return this.value;
     }
 
+    /**
+     * @param value value of the partition key
+     * @throws IllegalStateException when the value is null or not a primitive data type, or when the key is a
+     *                               canonical one of GremlinInterner, whose value is set with setPartitionKeyValue
+     *                               of the vertex or edge holding it
+     */
     public void setValue(Object value) {
+        if (shared)
+            throw new IllegalStateException("Partition key is shared by other objects and cannot be modified");
         if (value == null)
             throw new IllegalStateException("Partition key cannot be set to null value");
         if (!isValidDataType(value))
@@ -30,6 +40,10 @@ public class GremlinPartitionKey {
         this.value = value;
     }
 
+    void share() {
+        shared = true;
+    }
+
     private boolean isValidDataType(Object value) {
         if (value instanceof Boolean) return true;
         if (value instanceof String) return true;
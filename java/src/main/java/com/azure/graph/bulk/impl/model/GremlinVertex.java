@@ -19,10 +19,7 @@ public class GremlinVertex {
         if (value == null) return;
 
         if (isPartitionKey) {
-            partitionKey = GremlinPartitionKey.builder()
-                    .fieldName(key)
-                    .value(value.toString())
-                    .build();
+            partitionKey = GremlinInterner.partitionKey(key, value.toString());
         } else {
             properties.put(key, value);
         }
@@ -78,6 +75,19 @@ public class GremlinVertex {
         this.partitionKey = partitionKey;
     }
 
+    /**
+     * Changes the value of the partition key. The key can be a canonical one of GremlinInterner, shared with other
+     * objects, so it isn't modified, the vertex takes the canonical key of the new value instead.
+     *
+     * @param value new value of the partition key
+     * @throws IllegalStateException when there is no partition key, or the value is null or not a primitive data
+     *                               type
+     */
+    public void setPartitionKeyValue(Object value) {
+        if (partitionKey == null) throw new IllegalStateException("Partition key is missing, its value can't be set");
+        partitionKey = GremlinInterner.partitionKey(partitionKey.getFieldName(), value);
+    }
+
     public void setProperties(Map<String, Object> properties) {
         this.properties = properties;
     }
@@ -126,7 +136,7 @@ public class GremlinVertex {
         }
 
         public GremlinVertex.GremlinVertexBuilder label(String label) {
-            this.label = label;
+            this.label = GremlinInterner.label(label);
             return this;
         }
 
@@ -140,7 +150,14 @@ public class GremlinVertex {
             return this;
         }
 
+        /**
+         * Builds the vertex, its properties are held in the slots of the VertexSchema of its label when no
+         * properties map is provided
+         */
         public GremlinVertex build() {
+            if (properties == null) {
+                properties = new VertexProperties(VertexSchema.forLabel(label));
+            }
             return new GremlinVertex(this);
         }
     }
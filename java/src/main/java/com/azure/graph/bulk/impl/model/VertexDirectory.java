@@ -0,0 +1,215 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds what the edges need of the vertices, the id, the label and the partition key, without keeping the vertices
+ * themselves. Edge generators and validators refer to a vertex by its index in the directory and resolve the
+ * GremlinEdgeVertexInfo of an endpoint only when the edge is built.
+ * <p>
+ * The ids are stored as UTF-8 bytes one after the other in a single array, the labels and partition keys as ordinals
+ * into dictionaries of the distinct values, in parallel arrays indexed by the vertex. A vertex with a UUID id takes
+ * about 48 bytes instead of the hundreds taken by a GremlinVertex, or by a GremlinEdgeVertexInfo and its Strings.
+ * The lookup of a vertex by id, used by indexOf and contains, is built on its first use and adds 8 bytes per vertex.
+ * <p>
+ * Not thread safe, a directory is filled by one thread and can then be read by several.
+ */
+public class VertexDirectory {
+    private static final int MIN_CAPACITY = 16;
+
+    private byte[] idBytes = new byte[MIN_CAPACITY * 36];
+    private int idBytesSize;
+    private int[] idEnds = new int[MIN_CAPACITY];
+    private int[] labelOrdinals = new int[MIN_CAPACITY];
+    private int[] partitionKeyOrdinals = new int[MIN_CAPACITY];
+    private int size;
+
+    private final List<String> labels = new ArrayList<>();
+    private final Map<String, Integer> labelIndex = new HashMap<>();
+    private final List<GremlinPartitionKey> partitionKeys = new ArrayList<>();
+    private final Map<GremlinPartitionKey, Integer> partitionKeyIndex = new HashMap<>();
+
+    // Open addressing table of the vertex indexes plus one, 0 marks a free slot, null until indexOf is first called
+    private int[] lookup;
+
+    /**
+     * @param vertex Either a GremlinVertex object or domain object with the GremlinVertex annotations
+     * @return the index of the vertex in the directory
+     */
+    public int add(Object vertex) {
+        GremlinEdgeVertexInfo info = GremlinEdgeVertexInfo.fromGremlinVertex(vertex);
+        return add(info.getId(), info.getLabel(), info.getPartitionKey());
+    }
+
+    /**
+     * @param id           id of the vertex
+     * @param label        label of the vertex
+     * @param partitionKey partition key of the vertex
+     * @return the index of the vertex in the directory
+     */
+    public int add(String id, String label, GremlinPartitionKey partitionKey) {
+        if (id == null || label == null || partitionKey == null) {
+            throw new IllegalArgumentException("id, label and partitionKey are required");
+        }
+        if (size == idEnds.length) grow();
+
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        if (idBytesSize + bytes.length > idBytes.length) {
+            idBytes = Arrays.copyOf(idBytes, Math.max(idBytes.length * 2, idBytesSize + bytes.length));
+        }
+        System.arraycopy(bytes, 0, idBytes, idBytesSize, bytes.length);
+        idBytesSize += bytes.length;
+
+        idEnds[size] = idBytesSize;
+        labelOrdinals[size] = labelIndex.computeIfAbsent(label, key -> {
+            labels.add(key);
+            return labels.size() - 1;
+        });
+        partitionKeyOrdinals[size] = partitionKeyIndex.computeIfAbsent(partitionKey, key -> {
+            partitionKeys.add(key);
+            return partitionKeys.size() - 1;
+        });
+
+        int index = size++;
+        if (lookup != null) insert(index);
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param index index of the vertex
+     * @return the id of the vertex
+     */
+    public String getId(int index) {
+        checkIndex(index);
+        int start = index == 0 ? 0 : idEnds[index - 1];
+        return new String(idBytes, start, idEnds[index] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param index index of the vertex
+     * @return the label of the vertex
+     */
+    public String getLabel(int index) {
+        checkIndex(index);
+        return labels.get(labelOrdinals[index]);
+    }
+
+    /**
+     * @param index index of the vertex
+     * @return the partition key of the vertex, shared by all the vertices with the same partition key, it must not
+     * be modified
+     */
+    public GremlinPartitionKey getPartitionKey(int index) {
+        checkIndex(index);
+        return partitionKeys.get(partitionKeyOrdinals[index]);
+    }
+
+    /**
+     * @param index index of the vertex
+     * @return a new GremlinEdgeVertexInfo of the vertex, to link an edge to it
+     */
+    public GremlinEdgeVertexInfo getVertexInfo(int index) {
+        return GremlinEdgeVertexInfo.builder()
+                .id(getId(index))
+                .label(getLabel(index))
+                .partitionKey(getPartitionKey(index))
+                .build();
+    }
+
+    /**
+     * @param id id of a vertex
+     * @return the index of the first vertex added with the id, -1 when there is none
+     */
+    public int indexOf(String id) {
+        if (lookup == null) buildLookup();
+
+        byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+        int mask = lookup.length - 1;
+        for (int slot = hash(bytes, 0, bytes.length) & mask; lookup[slot] != 0; slot = (slot + 1) & mask) {
+            int index = lookup[slot] - 1;
+            int start = index == 0 ? 0 : idEnds[index - 1];
+            if (Arrays.equals(idBytes, start, idEnds[index], bytes, 0, bytes.length)) return index;
+        }
+        return -1;
+    }
+
+    /**
+     * @param vertexInfo endpoint of an edge
+     * @return true when the directory holds a vertex with the id, label and partition key of the endpoint
+     */
+    public boolean contains(GremlinEdgeVertexInfo vertexInfo) {
+        int index = indexOf(vertexInfo.getId());
+        return index >= 0 &&
+                getLabel(index).equals(vertexInfo.getLabel()) &&
+                getPartitionKey(index).equals(vertexInfo.getPartitionKey());
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+    }
+
+    private void grow() {
+        int capacity = idEnds.length * 2;
+        idEnds = Arrays.copyOf(idEnds, capacity);
+        labelOrdinals = Arrays.copyOf(labelOrdinals, capacity);
+        partitionKeyOrdinals = Arrays.copyOf(partitionKeyOrdinals, capacity);
+    }
+
+    private void buildLookup() {
+        // At most half full, so the probe sequences stay short
+        lookup = new int[Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size)) << 2)];
+        for (int index = 0; index < size; index++) {
+            insert(index);
+        }
+    }
+
+    private void insert(int index) {
+        if ((size << 1) > lookup.length) {
+            buildLookupOfCapacity(lookup.length << 1, index);
+        }
+        int start = index == 0 ? 0 : idEnds[index - 1];
+        int mask = lookup.length - 1;
+        int slot = hash(idBytes, start, idEnds[index]) & mask;
+        while (lookup[slot] != 0) {
+            // Keep the first vertex added with an id
+            int other = lookup[slot] - 1;
+            int otherStart = other == 0 ? 0 : idEnds[other - 1];
+            if (Arrays.equals(idBytes, start, idEnds[index], idBytes, otherStart, idEnds[other])) return;
+            slot = (slot + 1) & mask;
+        }
+        lookup[slot] = index + 1;
+    }
+
+    /**
+     * Rebuilds the lookup with the vertices before the one being inserted
+     */
+    private void buildLookupOfCapacity(int capacity, int inserting) {
+        lookup = new int[capacity];
+        for (int index = 0; index < inserting; index++) {
+            insert(index);
+        }
+    }
+
+    private static int hash(byte[] bytes, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + bytes[i];
+        }
+        // Spread the bits, the table is indexed by the low bits of the hash
+        return hash ^ (hash >>> 16);
+    }
+}
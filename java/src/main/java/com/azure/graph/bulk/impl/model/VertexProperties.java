@@ -0,0 +1,248 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import com.azure.graph.bulk.impl.model.VertexSchema.Kind;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * The properties of a vertex held in the slots of the VertexSchema of its label, rather than in a map of its own. The
+ * values are held in an array indexed by the slot, the values of the Integer, Long and Double slots unboxed in a
+ * parallel array of longs. Properties without a slot are held in an overflow map, a property put before the schema
+ * gave it a slot stays in the overflow map of the vertex.
+ * <p>
+ * A Map like any other to its users, except that null values aren't held, putting one removes the property. The
+ * GremlinVertexSerializer reads the slots directly, without boxing the primitive values or looking up the names.
+ * <p>
+ * Not thread safe, same as the HashMap it replaces.
+ */
+public class VertexProperties extends AbstractMap<String, Object> {
+    // Marks the slots whose value is held in primitives
+    private static final Object PRIMITIVE = new Object();
+
+    private final VertexSchema schema;
+    private Object[] values;
+    private long[] primitives;
+    private Map<String, Object> overflow;
+    private int size;
+
+    public VertexProperties(VertexSchema schema) {
+        this.schema = schema;
+        this.values = new Object[schema.size()];
+        schema.vertexCreated();
+    }
+
+    public VertexSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * @return the number of slots of the vertex, at most the size of the schema
+     */
+    public int getSlotCount() {
+        return values.length;
+    }
+
+    /**
+     * @param slot slot of the schema
+     * @return how the value of the slot is held, null when the vertex doesn't have the property
+     */
+    public Kind getStoredKind(int slot) {
+        Object value = values[slot];
+        if (value == null) return null;
+        return value == PRIMITIVE ? schema.getKind(slot) : Kind.OBJECT;
+    }
+
+    /**
+     * @param slot slot held as Kind.OBJECT
+     * @return the value of the slot
+     */
+    public Object getObject(int slot) {
+        return values[slot];
+    }
+
+    /**
+     * @param slot slot held as Kind.INT or Kind.LONG
+     * @return the value of the slot
+     */
+    public long getLong(int slot) {
+        return primitives[slot];
+    }
+
+    /**
+     * @param slot slot held as Kind.DOUBLE
+     * @return the value of the slot
+     */
+    public double getDouble(int slot) {
+        return Double.longBitsToDouble(primitives[slot]);
+    }
+
+    /**
+     * @return the properties not held in a slot, those the schema has no slot for or had none for when put
+     */
+    public Map<String, Object> getOverflow() {
+        return overflow == null ? Collections.emptyMap() : overflow;
+    }
+
+    @Override
+    public Object put(String key, Object value) {
+        if (value == null) return remove(key);
+
+        int slot = schema.slotOf(key, value);
+        if (slot < 0) {
+            if (overflow == null) overflow = new HashMap<>();
+            Object previous = overflow.put(key, value);
+            if (previous == null) size++;
+            return previous;
+        }
+
+        if (slot >= values.length) {
+            values = Arrays.copyOf(values, schema.size());
+        }
+        Object previous = get(slot);
+        // Put before the property got its slot
+        if (previous == null && overflow != null) previous = overflow.remove(key);
+        if (previous == null) size++;
+
+        Kind kind = schema.getKind(slot);
+        if (kind != Kind.OBJECT && kind == Kind.of(value)) {
+            if (primitives == null || slot >= primitives.length) {
+                primitives = primitives == null ? new long[values.length] : Arrays.copyOf(primitives, values.length);
+            }
+            primitives[slot] = kind == Kind.DOUBLE
+                    ? Double.doubleToRawLongBits((Double) value)
+                    : ((Number) value).longValue();
+            values[slot] = PRIMITIVE;
+        } else {
+            values[slot] = value;
+        }
+        return previous;
+    }
+
+    @Override
+    public Object get(Object key) {
+        if (!(key instanceof String)) return null;
+
+        int slot = schema.indexOf((String) key);
+        Object value = slot >= 0 && slot < values.length ? get(slot) : null;
+        if (value == null && overflow != null) value = overflow.get(key);
+        return value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Object remove(Object key) {
+        if (!(key instanceof String)) return null;
+
+        int slot = schema.indexOf((String) key);
+        Object previous = null;
+        if (slot >= 0 && slot < values.length) {
+            previous = get(slot);
+            values[slot] = null;
+        }
+        if (previous == null && overflow != null) previous = overflow.remove(key);
+        if (previous != null) size--;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        overflow = null;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * @return the value of the slot, boxed when it is held in primitives
+     */
+    private Object get(int slot) {
+        Object value = values[slot];
+        if (value != PRIMITIVE) return value;
+
+        switch (schema.getKind(slot)) {
+            case INT:
+                return (int) primitives[slot];
+            case LONG:
+                return primitives[slot];
+            default:
+                return getDouble(slot);
+        }
+    }
+
+    private final class EntryIterator implements Iterator<Entry<String, Object>> {
+        private int next = advance(0);
+        private int last = -1;
+        private Iterator<Entry<String, Object>> overflowIterator;
+
+        private int advance(int from) {
+            int slot = from;
+            while (slot < values.length && values[slot] == null) slot++;
+            return slot;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (next < values.length) return true;
+            if (overflowIterator == null) overflowIterator = getOverflow().entrySet().iterator();
+            return overflowIterator.hasNext();
+        }
+
+        @Override
+        public Entry<String, Object> next() {
+            if (!hasNext()) throw new NoSuchElementException();
+            if (next < values.length) {
+                last = next;
+                next = advance(next + 1);
+                return new SimpleImmutableEntry<>(schema.getName(last), get(last));
+            }
+            last = -1;
+            return overflowIterator.next();
+        }
+
+        @Override
+        public void remove() {
+            if (last >= 0) {
+                if (values[last] == null) throw new IllegalStateException();
+                values[last] = null;
+            } else {
+                if (overflowIterator == null) throw new IllegalStateException();
+                overflowIterator.remove();
+            }
+            size--;
+        }
+    }
+}
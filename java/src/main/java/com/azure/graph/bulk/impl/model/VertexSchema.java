@@ -0,0 +1,212 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import com.fasterxml.jackson.core.SerializableString;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * The property names of the vertices of one label, each mapped to the slot holding its value in VertexProperties.
+ * A schema is shared by all the vertices of its label, so the names are held once rather than by every vertex.
+ * <p>
+ * Every vertex of the label pays for every slot, so only the common properties get one. A property gets a slot once
+ * it has been seen in a quarter of the vertices, counted from minVertices vertices on. Until then, and for good when
+ * it is rare, it is held in the overflow map of the vertices that have it.
+ * <p>
+ * The kind of a slot is set by the first value added to it. Integer, Long and Double slots hold their values
+ * unboxed, values of another type added to such a slot later are held as objects.
+ * <p>
+ * The schemas of forLabel are held for the life of the JVM, so the slots of a label, and the MAX_SCHEMAS labels that
+ * get a shared schema, depend on everything loaded before in the same JVM. A vertex built with a schema of its own
+ * doesn't depend on them.
+ * <p>
+ * Safe to share across threads, a schema is replaced rather than modified when a slot is added.
+ */
+public final class VertexSchema {
+    static final int MAX_SLOTS = 256;
+    static final int MIN_VERTICES = 16;
+    private static final int MAX_SCHEMAS = 4096;
+    // Properties counted before they get a slot, the names of sparse or dynamic properties aren't all kept
+    private static final int MAX_CANDIDATES = 1024;
+    private static final Map<String, VertexSchema> schemas = new ConcurrentHashMap<>();
+
+    private final int minVertices;
+    private final LongAdder vertices = new LongAdder();
+    private final Map<String, LongAdder> candidates = new ConcurrentHashMap<>();
+    private volatile Slots slots =
+            new Slots(new String[0], new SerializableString[0], new Kind[0], new HashMap<>(), new int[0]);
+
+    public enum Kind {
+        OBJECT, INT, LONG, DOUBLE;
+
+        static Kind of(Object value) {
+            if (value instanceof Integer) return INT;
+            if (value instanceof Long) return LONG;
+            if (value instanceof Double) return DOUBLE;
+            return OBJECT;
+        }
+    }
+
+    public VertexSchema() {
+        this(MIN_VERTICES);
+    }
+
+    /**
+     * @param minVertices number of vertices seen before the properties get slots
+     */
+    VertexSchema(int minVertices) {
+        this.minVertices = minVertices;
+    }
+
+    /**
+     * @param label label of the vertices
+     * @return the schema shared by the vertices of the label, a new unshared schema once there are too many labels
+     */
+    public static VertexSchema forLabel(String label) {
+        String key = label == null ? "" : label;
+        VertexSchema schema = schemas.get(key);
+        if (schema != null) return schema;
+        if (schemas.size() >= MAX_SCHEMAS) return new VertexSchema();
+
+        return schemas.computeIfAbsent(key, unused -> new VertexSchema());
+    }
+
+    /**
+     * Drops the schemas of all the labels, the vertices built afterwards get new ones. Vertices already built keep
+     * their schema.
+     */
+    static void reset() {
+        schemas.clear();
+    }
+
+    /**
+     * @return the number of slots, the values of a vertex fit in arrays of that length
+     */
+    public int size() {
+        return slots.names.length;
+    }
+
+    /**
+     * @param name name of a property
+     * @return the slot of the property, -1 when the schema doesn't have one
+     */
+    public int indexOf(String name) {
+        Integer slot = slots.index.get(name);
+        return slot == null ? -1 : slot;
+    }
+
+    public String getName(int slot) {
+        return slots.names[slot];
+    }
+
+    /**
+     * @param slot slot of a property
+     * @return the name of the property encoded as Json, pooled by GremlinInterner
+     */
+    public SerializableString getEncodedName(int slot) {
+        return slots.encodedNames[slot];
+    }
+
+    public Kind getKind(int slot) {
+        return slots.kinds[slot];
+    }
+
+    /**
+     * The slots are numbered in the order the properties were first seen, which can change from one run to the next
+     * when vertices are converted concurrently. Writing the properties in the order of their names keeps the
+     * documents, and their content hashes, the same across runs.
+     *
+     * @return the slots in the order of their names, shared by all the callers, it must not be modified
+     */
+    public int[] getNameOrder() {
+        return slots.nameOrder;
+    }
+
+    /**
+     * Counts a new vertex of the label, called by the VertexProperties of every vertex
+     */
+    void vertexCreated() {
+        vertices.increment();
+    }
+
+    /**
+     * Gets the slot of the property, adding it when the schema doesn't have one yet and the property is common enough
+     *
+     * @param name  name of the property
+     * @param value value of the property, sets the kind of a new slot
+     * @return the slot of the property, -1 when the property must be held elsewhere
+     */
+    int slotOf(String name, Object value) {
+        int slot = indexOf(name);
+        if (slot >= 0) return slot;
+        if (!isCommon(name)) return -1;
+
+        synchronized (this) {
+            Slots current = slots;
+            Integer existing = current.index.get(name);
+            if (existing != null) return existing;
+
+            int size = current.names.length;
+            if (size >= MAX_SLOTS) return -1;
+
+            String[] names = Arrays.copyOf(current.names, size + 1);
+            SerializableString[] encodedNames = Arrays.copyOf(current.encodedNames, size + 1);
+            Kind[] kinds = Arrays.copyOf(current.kinds, size + 1);
+            Map<String, Integer> index = new HashMap<>(current.index);
+            names[size] = name;
+            encodedNames[size] = GremlinInterner.encoded(name);
+            kinds[size] = Kind.of(value);
+            index.put(name, size);
+            int[] nameOrder = IntStream.range(0, size + 1)
+                    .boxed()
+                    .sorted(Comparator.comparing(ordered -> names[ordered]))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            slots = new Slots(names, encodedNames, kinds, index, nameOrder);
+            candidates.remove(name);
+            return size;
+        }
+    }
+
+    /**
+     * Counts the property, which doesn't have a slot yet
+     *
+     * @return true once the property has been seen in a quarter of the vertices
+     */
+    private boolean isCommon(String name) {
+        LongAdder seen = candidates.get(name);
+        if (seen == null) {
+            if (candidates.size() >= MAX_CANDIDATES) return false;
+            seen = candidates.computeIfAbsent(name, unused -> new LongAdder());
+        }
+        seen.increment();
+
+        long total = vertices.sum();
+        return total >= minVertices && seen.sum() * 4 >= total;
+    }
+
+    private static final class Slots {
+        private final String[] names;
+        private final SerializableString[] encodedNames;
+        private final Kind[] kinds;
+        private final Map<String, Integer> index;
+        private final int[] nameOrder;
+
+        private Slots(String[] names, SerializableString[] encodedNames, Kind[] kinds, Map<String, Integer> index,
+                      int[] nameOrder) {
+            this.names = names;
+            this.encodedNames = encodedNames;
+            this.kinds = kinds;
+            this.index = index;
+            this.nameOrder = nameOrder;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.CosmosAsyncContainer;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import reactor.core.publisher.Flux;
+
+/**
+ * Runs bulk operations, see CosmosAsyncContainer.executeBulkOperations. The loader only writes through this interface,
+ * so the documents can go somewhere else than Cosmos DB: a JsonlBulkExecutor for a dry run, an InMemoryBulkExecutor,
+ * discard() to measure the cost of the pipeline alone, or a SimulatedBulkExecutor.
+ */
+@FunctionalInterface
+public interface BulkOperationExecutor {
+    /**
+     * @param operations the operations to run
+     * @param options    options of the bulk execution
+     * @return Flux of the responses, one per operation
+     */
+    Flux<CosmosBulkOperationResponse<Object>> execute(
+            Flux<CosmosItemOperation> operations, CosmosBulkExecutionOptions options);
+
+    /**
+     * @param container container the operations are run against
+     * @return executor running the operations with the bulk support of the container
+     */
+    static BulkOperationExecutor of(CosmosAsyncContainer container) {
+        return container::executeBulkOperations;
+    }
+
+    /**
+     * @return executor dropping every operation, each gets a successful response without charge
+     */
+    static BulkOperationExecutor discard() {
+        return (operations, options) -> operations.map(operation -> BulkResponses.success(operation, 0));
+    }
+}
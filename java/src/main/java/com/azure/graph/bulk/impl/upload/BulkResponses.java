@@ -0,0 +1,40 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBatchOperationResult;
+import com.azure.cosmos.models.CosmosBatchResponse;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.ModelBridgeInternal;
+
+import java.time.Duration;
+import java.util.HashMap;
+
+/**
+ * Builds the bulk responses Cosmos DB would return, the constructors of the SDK are package private
+ */
+final class BulkResponses {
+    private BulkResponses() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    static CosmosBulkOperationResponse<Object> success(CosmosItemOperation operation, double requestCharge) {
+        return response(operation, 201, requestCharge, Duration.ZERO);
+    }
+
+    static CosmosBulkOperationResponse<Object> response(
+            CosmosItemOperation operation, int statusCode, double requestCharge, Duration retryAfter) {
+        CosmosBatchOperationResult result = ModelBridgeInternal.createCosmosBatchResult(
+                null, requestCharge, null, statusCode, retryAfter, 0, operation);
+        CosmosBatchResponse batchResponse = ModelBridgeInternal.createCosmosBatchResponse(
+                statusCode, 0, null, new HashMap<>(), null);
+        return ModelBridgeInternal.createCosmosBulkOperationResponse(
+                operation, ModelBridgeInternal.createCosmosBulkItemResponse(result, batchResponse), null);
+    }
+
+    static CosmosBulkOperationResponse<Object> failure(CosmosItemOperation operation, Exception exception) {
+        return ModelBridgeInternal.createCosmosBulkOperationResponse(operation, exception, null);
+    }
+}
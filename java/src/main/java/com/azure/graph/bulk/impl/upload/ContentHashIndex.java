@@ -0,0 +1,356 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosItemOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Persistent table of the content hash last written for every document, keyed by the hash of the document's id and
+ * partition key. The table is an open addressing hash table in a memory mapped file, so a reload of tens of millions
+ * of documents doesn't need the table on the heap.
+ * <p>
+ * The file starts with a header holding a magic number, the format version, the number of slots and the number of
+ * entries, followed by the slots. Each slot holds the key hash and content hash as two longs, a key hash of 0 marks
+ * an empty slot. The table is doubled in place once it is three quarters full, up to MAX_SLOTS. A full table keeps
+ * updating the documents it holds, the documents that don't fit are only written again by the next load.
+ * <p>
+ * One index can be shared by the threads creating operations and the threads handling the responses. The slots are
+ * claimed with compare and set, so lookups and updates don't wait for each other, only the growth of the table holds
+ * them back.
+ */
+public class ContentHashIndex implements Closeable {
+    private static final Logger log = LoggerFactory.getLogger(ContentHashIndex.class);
+
+    private static final int MAGIC = 0x47484958; // GHIX
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int SLOT_SIZE = 16;
+    private static final int SLOT_COUNT_OFFSET = 8;
+    private static final int SIZE_OFFSET = 16;
+    private static final long MIN_SLOTS = 1024;
+    // A single mapped buffer is limited to 2GB
+    private static final long MAX_SLOTS = 1L << 26;
+    // Atomic access to the longs of the mapped file, big endian like the rest of the file
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path file;
+    private final FileChannel channel;
+    private final long maxSlots;
+    // Shared by the lookups and updates, exclusive to the growth of the table
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean fullReported = new AtomicBoolean();
+    private MappedByteBuffer buffer;
+    private long slotCount;
+
+    private ContentHashIndex(Path file, FileChannel channel, MappedByteBuffer buffer, long maxSlots) {
+        this.file = file;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.maxSlots = maxSlots;
+        this.slotCount = buffer.getLong(SLOT_COUNT_OFFSET);
+    }
+
+    /**
+     * Opens the index stored in the file provided, creating an empty index when the file doesn't exist
+     *
+     * @param file location of the index
+     * @return the opened index
+     * @throws IOException when the file can't be read, created or isn't an index
+     */
+    public static ContentHashIndex open(Path file) throws IOException {
+        return open(file, 0);
+    }
+
+    /**
+     * Opens the index stored in the file provided, creating an empty index when the file doesn't exist
+     *
+     * @param file            location of the index
+     * @param expectedEntries number of documents expected, sizes a new index so it doesn't need to grow
+     * @return the opened index
+     * @throws IOException when the file can't be read, created or isn't an index
+     */
+    public static ContentHashIndex open(Path file, long expectedEntries) throws IOException {
+        return open(file, expectedEntries, MAX_SLOTS);
+    }
+
+    static ContentHashIndex open(Path file, long expectedEntries, long maxSlots) throws IOException {
+        if (expectedEntries > capacity(maxSlots)) {
+            throw new IllegalArgumentException("expectedEntries must be at most " + capacity(maxSlots));
+        }
+
+        if (Files.exists(file)) {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, channel.size());
+            if (channel.size() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                channel.close();
+                throw new IOException(file + " is not a content hash index");
+            }
+            return new ContentHashIndex(file, channel, buffer, maxSlots);
+        }
+
+        long slots = MIN_SLOTS;
+        while (capacity(slots) < expectedEntries && slots < maxSlots) {
+            slots <<= 1;
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        return new ContentHashIndex(file, channel, create(channel, slots), maxSlots);
+    }
+
+    private static MappedByteBuffer create(FileChannel channel, long slots) throws IOException {
+        MappedByteBuffer buffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + slots * SLOT_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(SLOT_COUNT_OFFSET, slots);
+        buffer.putLong(SIZE_OFFSET, 0);
+        return buffer;
+    }
+
+    /**
+     * @return number of entries a table of slots holds before it grows
+     */
+    private static long capacity(long slots) {
+        return slots * 3 / 4;
+    }
+
+    /**
+     * @param keyHash     hash of the document's id and partition key, see ContentHasher.hashKey
+     * @param contentHash hash of the document, see ContentHasher.hashDocument
+     * @return true when the index holds the same content hash for the document
+     */
+    public boolean isUnchanged(long keyHash, long contentHash) {
+        lock.readLock().lock();
+        try {
+            int position = slotPosition(findSlot(buffer, slotCount, keyHash));
+            return (long) LONGS.getVolatile(buffer, position) == keyHash &&
+                    (long) LONGS.getVolatile(buffer, position + 8) == contentHash;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records the content hash of a document that has been written successfully
+     *
+     * @param keyHash     hash of the document's id and partition key, see ContentHasher.hashKey
+     * @param contentHash hash of the document, see ContentHasher.hashDocument
+     */
+    public void put(long keyHash, long contentHash) {
+        if (keyHash == 0) throw new IllegalArgumentException("Key hash 0 marks an empty slot");
+
+        boolean grow;
+        lock.readLock().lock();
+        try {
+            int position = claimSlot(keyHash);
+            if (position < 0) return;
+            LONGS.setVolatile(buffer, position + 8, contentHash);
+            grow = needsGrowth();
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (grow) grow();
+    }
+
+    /**
+     * Records the content hash carried by an operation created by the GremlinDocumentOperationCreator once the
+     * operation has been written successfully. Operations without a content hash are ignored.
+     *
+     * @param operation the operation that has been written
+     */
+    public void markWritten(CosmosItemOperation operation) {
+        Object context = operation.getContext();
+        if (context instanceof ContentHash) {
+            ContentHash contentHash = (ContentHash) context;
+            put(contentHash.getKeyHash(), contentHash.getContentHash());
+        }
+    }
+
+    /**
+     * @return the number of documents in the index
+     */
+    public long size() {
+        lock.readLock().lock();
+        try {
+            return getSize();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Flushes the index to disk
+     */
+    public void flush() {
+        lock.readLock().lock();
+        try {
+            buffer.force();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            buffer.force();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long getSize() {
+        return (long) LONGS.getVolatile(buffer, SIZE_OFFSET);
+    }
+
+    private boolean needsGrowth() {
+        return slotCount < maxSlots && getSize() > capacity(slotCount);
+    }
+
+    /**
+     * Finds the slot holding the key, or claims an empty slot for it. Called with the read lock held.
+     *
+     * @return position of the slot, or -1 when the key isn't in the table and the table is full
+     */
+    private int claimSlot(long keyHash) {
+        long mask = slotCount - 1;
+        long slot = keyHash & mask;
+        while (true) {
+            int position = slotPosition(slot);
+            long existing = (long) LONGS.getVolatile(buffer, position);
+            if (existing == keyHash) return position;
+            if (existing != 0) {
+                slot = (slot + 1) & mask;
+            } else if (slotCount >= maxSlots && getSize() >= capacity(slotCount)) {
+                if (fullReported.compareAndSet(false, true)) {
+                    log.warn("Content hash index {} is full, the documents it doesn't hold are written by every load",
+                            file);
+                }
+                return -1;
+            } else if (LONGS.compareAndSet(buffer, position, 0L, keyHash)) {
+                LONGS.getAndAdd(buffer, SIZE_OFFSET, 1L);
+                return position;
+            }
+            // Otherwise another thread claimed the slot meanwhile, it is looked at again
+        }
+    }
+
+    private void grow() {
+        lock.writeLock().lock();
+        try {
+            // Another thread may have grown the table meanwhile
+            if (needsGrowth()) resize(slotCount << 1);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to grow content hash index " + file, e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grows the table within the index file, which can't be replaced while it is mapped on every platform. The slots
+     * are copied aside, the file is extended and the slots are inserted again. A crash in between leaves a table
+     * missing some of the entries, whose documents are then only written again. Called with the write lock held.
+     */
+    private void resize(long newSlotCount) throws IOException {
+        Path copy = file.resolveSibling(file.getFileName() + ".resize");
+        try (FileChannel copyChannel = FileChannel.open(copy, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE,
+                StandardOpenOption.DELETE_ON_CLOSE)) {
+            ByteBuffer slots = buffer.duplicate();
+            slots.position(HEADER_SIZE).limit(slotPosition(slotCount));
+            while (slots.hasRemaining()) {
+                copyChannel.write(slots);
+            }
+
+            MappedByteBuffer newBuffer = channel.map(MapMode.READ_WRITE, 0, HEADER_SIZE + newSlotCount * SLOT_SIZE);
+            for (long slot = 0; slot < slotCount; slot++) {
+                newBuffer.putLong(slotPosition(slot), 0);
+            }
+            newBuffer.putLong(SLOT_COUNT_OFFSET, newSlotCount);
+
+            ByteBuffer chunk = ByteBuffer.allocate(SLOT_SIZE * 4096);
+            long length = copyChannel.size();
+            for (long offset = 0; offset < length; offset += chunk.capacity()) {
+                chunk.clear();
+                chunk.limit((int) Math.min(chunk.capacity(), length - offset));
+                while (chunk.hasRemaining()) {
+                    if (copyChannel.read(chunk, offset + chunk.position()) < 0) throw new EOFException(copy.toString());
+                }
+                chunk.flip();
+                while (chunk.hasRemaining()) {
+                    long keyHash = chunk.getLong();
+                    long contentHash = chunk.getLong();
+                    if (keyHash == 0) continue;
+
+                    int position = slotPosition(findSlot(newBuffer, newSlotCount, keyHash));
+                    newBuffer.putLong(position, keyHash);
+                    newBuffer.putLong(position + 8, contentHash);
+                }
+            }
+
+            buffer = newBuffer;
+            slotCount = newSlotCount;
+        }
+    }
+
+    /**
+     * Linear probing from the slot picked by the key hash, finds the slot holding the key or the empty slot the key
+     * would go in
+     */
+    private static long findSlot(ByteBuffer buffer, long slotCount, long keyHash) {
+        long mask = slotCount - 1;
+        long slot = keyHash & mask;
+        while (true) {
+            long existing = (long) LONGS.getVolatile(buffer, slotPosition(slot));
+            if (existing == 0 || existing == keyHash) return slot;
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private static int slotPosition(long slot) {
+        return (int) (HEADER_SIZE + slot * SLOT_SIZE);
+    }
+
+    /**
+     * The key and content hash of a document, carried as the context of its operation until it has been written
+     */
+    public static final class ContentHash {
+        private final long keyHash;
+        private final long contentHash;
+
+        public ContentHash(long keyHash, long contentHash) {
+            this.keyHash = keyHash;
+            this.contentHash = contentHash;
+        }
+
+        public long getKeyHash() {
+            return keyHash;
+        }
+
+        public long getContentHash() {
+            return contentHash;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.graph.bulk.impl.model.DocumentSerializationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Stable 64 bit hashes of documents and keys for the ContentHashIndex. The hashes only need to stay the same across
+ * runs and JVMs, they are not cryptographically strong.
+ */
+public final class ContentHasher {
+    private ContentHasher() {
+        throw new IllegalStateException("Utility class, should not be constructed");
+    }
+
+    private static final long SEED = 0xcbf29ce484222325L;
+    private static final long PRIME = 0x100000001b3L;
+
+    /**
+     * Hashes the Json the mapper writes for the document, without collecting the Json into a String or byte array
+     *
+     * @param mapper   the mapper used to serialize the document
+     * @param document the document to hash
+     * @return hash of the serialized document
+     */
+    public static long hashDocument(ObjectMapper mapper, Object document) {
+        HashingOutputStream stream = new HashingOutputStream();
+        try {
+            mapper.writeValue(stream, document);
+        } catch (IOException e) {
+            throw new DocumentSerializationException(e);
+        }
+        return mix(stream.hash);
+    }
+
+    /**
+     * Hashes the id and partition key of a document, together they identify the document within a container
+     *
+     * @param id           id of the document
+     * @param partitionKey value of the partition key of the document
+     * @return hash of the key, never 0
+     */
+    public static long hashKey(String id, Object partitionKey) {
+        long hash = hash(SEED, id);
+        hash = hash(hash, String.valueOf(partitionKey));
+        hash = mix(hash);
+        // 0 marks an empty slot in the ContentHashIndex
+        return hash == 0 ? 1 : hash;
+    }
+
+    private static long hash(long hash, String value) {
+        // The length keeps ("ab", "c") and ("a", "bc") apart
+        hash = (hash ^ value.length()) * PRIME;
+        for (int i = 0; i < value.length(); i++) {
+            hash = (hash ^ value.charAt(i)) * PRIME;
+        }
+        return hash;
+    }
+
+    /**
+     * Finalizer of the SplitMix64 generator, spreads every input bit over the whole value
+     */
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    /**
+     * FNV-1a over the bytes written to the stream
+     */
+    private static final class HashingOutputStream extends OutputStream {
+        private long hash = SEED;
+
+        @Override
+        public void write(int b) {
+            hash = (hash ^ (b & 0xff)) * PRIME;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            long current = hash;
+            for (int i = off; i < off + len; i++) {
+                current = (current ^ (b[i] & 0xff)) * PRIME;
+            }
+            hash = current;
+        }
+    }
+}
@@ -0,0 +1,356 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosItemOperation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Iterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Stage between the source of the domain objects and the bulk executor that converts and serializes the objects on a
+ * fixed number of worker threads. The workers pull objects from the source one at a time and hand the operations to
+ * the bulk executor through a bounded queue, so at most queueCapacity operations, plus one per worker, are held in
+ * memory no matter how far the conversion runs ahead of the writes.
+ * <p>
+ * With Ordering.RELAXED the operations are emitted in the order the workers finish them. With Ordering.STRICT they
+ * are emitted in the order of the source, a worker that gets queueCapacity objects ahead of the oldest unfinished
+ * object waits for it.
+ */
+public class ConversionPipeline {
+    public enum Ordering {
+        STRICT,
+        RELAXED
+    }
+
+    private static final AtomicInteger pipelineCount = new AtomicInteger();
+
+    private final int workers;
+    private final int queueCapacity;
+    private final Ordering ordering;
+
+    public ConversionPipeline(ConversionPipelineBuilder builder) {
+        if (builder.workers < 1) throw new IllegalArgumentException("workers must be at least 1");
+        if (builder.queueCapacity < 1) throw new IllegalArgumentException("queueCapacity must be at least 1");
+
+        this.workers = builder.workers;
+        this.queueCapacity = builder.queueCapacity;
+        this.ordering = builder.ordering;
+    }
+
+    public static ConversionPipelineBuilder builder() {
+        return new ConversionPipelineBuilder();
+    }
+
+    /**
+     * Converts the objects of the source, the workers are started when the returned Flux is subscribed to and stopped
+     * when it completes, fails or is cancelled.
+     *
+     * @param source    the objects to convert, only read by one worker at a time
+     * @param converter converts an object into its operation, a null result skips the object
+     * @param <T>       type of the objects
+     * @return Flux of the operations
+     */
+    public <T> Flux<CosmosItemOperation> convert(
+            Stream<T> source, Function<? super T, CosmosItemOperation> converter) {
+        return Flux.defer(() -> {
+            Run<T> run = new Run<>(source.iterator(), converter);
+            run.start();
+            return Flux.<CosmosItemOperation>generate(run::emitNext)
+                    // Waiting for the workers blocks, keep that off the threads of the bulk executor
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .doFinally(signal -> run.stop());
+        });
+    }
+
+    /**
+     * One subscription to the pipeline, holds the workers and the queue between them and the subscriber
+     */
+    private final class Run<T> {
+        private final Iterator<T> source;
+        private final Function<? super T, CosmosItemOperation> converter;
+        private final OperationQueue queue;
+        private final ExecutorService executor;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private long nextSequence;
+
+        private Run(Iterator<T> source, Function<? super T, CosmosItemOperation> converter) {
+            this.source = source;
+            this.converter = converter;
+            this.queue = ordering == Ordering.STRICT
+                    ? new OrderedOperationQueue(queueCapacity, workers)
+                    : new RelaxedOperationQueue(queueCapacity, workers);
+
+            int pipeline = pipelineCount.incrementAndGet();
+            AtomicInteger worker = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+                Thread thread = new Thread(runnable,
+                        "gremlin-conversion-" + pipeline + "-" + worker.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private void start() {
+            for (int i = 0; i < workers; i++) {
+                executor.execute(this::work);
+            }
+            executor.shutdown();
+        }
+
+        private void stop() {
+            executor.shutdownNow();
+        }
+
+        private void work() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    T item;
+                    long sequence;
+                    synchronized (source) {
+                        if (failure.get() != null || !source.hasNext()) break;
+                        item = source.next();
+                        sequence = nextSequence++;
+                    }
+                    queue.put(sequence, converter.apply(item));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException | Error e) {
+                failure.compareAndSet(null, e);
+                queue.abort();
+            } finally {
+                queue.workerDone();
+            }
+        }
+
+        private void emitNext(SynchronousSink<CosmosItemOperation> sink) {
+            try {
+                CosmosItemOperation operation = queue.take();
+                if (operation != null) {
+                    sink.next(operation);
+                } else if (failure.get() != null) {
+                    sink.error(failure.get());
+                } else {
+                    sink.complete();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                sink.error(e);
+            }
+        }
+    }
+
+    private interface OperationQueue {
+        /**
+         * @param sequence  position of the object in the source
+         * @param operation the operation, null when the object is skipped
+         */
+        void put(long sequence, CosmosItemOperation operation) throws InterruptedException;
+
+        void workerDone();
+
+        /**
+         * Stops the operations, take returns null from now on and workers waiting to put are released
+         */
+        void abort();
+
+        /**
+         * @return the next operation, null once all the workers are done and every operation has been taken
+         */
+        CosmosItemOperation take() throws InterruptedException;
+    }
+
+    /**
+     * Bounded multi producer, single consumer queue. The end of the operations is marked by a sentinel added by the
+     * last worker to finish.
+     */
+    private static final class RelaxedOperationQueue implements OperationQueue {
+        private static final Object END = new Object();
+
+        private final BlockingQueue<Object> queue;
+        private final AtomicInteger runningWorkers;
+        private volatile boolean aborted;
+
+        private RelaxedOperationQueue(int capacity, int workers) {
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.runningWorkers = new AtomicInteger(workers);
+        }
+
+        @Override
+        public void put(long sequence, CosmosItemOperation operation) throws InterruptedException {
+            if (operation != null && !aborted) queue.put(operation);
+        }
+
+        @Override
+        public void workerDone() {
+            if (runningWorkers.decrementAndGet() == 0) {
+                try {
+                    queue.put(END);
+                } catch (InterruptedException e) {
+                    // The subscriber is gone and the workers are being shut down
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void abort() {
+            aborted = true;
+            // Wakes up the consumer when it is waiting on an empty queue
+            queue.offer(END);
+        }
+
+        @Override
+        public CosmosItemOperation take() throws InterruptedException {
+            if (aborted) return null;
+
+            Object next = queue.take();
+            if (next == END) {
+                queue.offer(END);
+                return null;
+            }
+            return (CosmosItemOperation) next;
+        }
+    }
+
+    /**
+     * Ring of capacity slots indexed by the sequence of the object. A worker waits until the slot for its sequence
+     * has been taken, the consumer waits until the slot of the next sequence has been filled.
+     */
+    private static final class OrderedOperationQueue implements OperationQueue {
+        private static final Object SKIPPED = new Object();
+
+        private final Object[] slots;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition slotFreed = lock.newCondition();
+        private final Condition slotFilled = lock.newCondition();
+        private int runningWorkers;
+        private boolean aborted;
+        private long nextToTake;
+
+        private OrderedOperationQueue(int capacity, int workers) {
+            this.slots = new Object[capacity];
+            this.runningWorkers = workers;
+        }
+
+        @Override
+        public void put(long sequence, CosmosItemOperation operation) throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (!aborted && sequence - nextToTake >= slots.length) {
+                    slotFreed.await();
+                }
+                if (aborted) return;
+                slots[slot(sequence)] = operation == null ? SKIPPED : operation;
+                slotFilled.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void workerDone() {
+            lock.lock();
+            try {
+                runningWorkers--;
+                slotFilled.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public void abort() {
+            lock.lock();
+            try {
+                aborted = true;
+                slotFreed.signalAll();
+                slotFilled.signal();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public CosmosItemOperation take() throws InterruptedException {
+            lock.lockInterruptibly();
+            try {
+                while (!aborted) {
+                    Object next = slots[slot(nextToTake)];
+                    if (next != null) {
+                        slots[slot(nextToTake)] = null;
+                        nextToTake++;
+                        slotFreed.signalAll();
+                        if (next != SKIPPED) return (CosmosItemOperation) next;
+                    } else if (runningWorkers == 0) {
+                        return null;
+                    } else {
+                        slotFilled.await();
+                    }
+                }
+                return null;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int slot(long sequence) {
+            return (int) (sequence % slots.length);
+        }
+    }
+
+    public static class ConversionPipelineBuilder {
+        ConversionPipelineBuilder() {
+
+        }
+
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private int queueCapacity = 1024;
+        private Ordering ordering = Ordering.RELAXED;
+
+        /**
+         * @param workers number of threads converting objects, defaults to the number of processors
+         * @return the builder
+         */
+        public ConversionPipelineBuilder workers(int workers) {
+            this.workers = workers;
+            return this;
+        }
+
+        /**
+         * @param queueCapacity number of converted operations waiting for the bulk executor, defaults to 1024
+         * @return the builder
+         */
+        public ConversionPipelineBuilder queueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * @param ordering whether the operations keep the order of the source, defaults to Ordering.RELAXED
+         * @return the builder
+         */
+        public ConversionPipelineBuilder ordering(Ordering ordering) {
+            this.ordering = ordering;
+            return this;
+        }
+
+        public ConversionPipeline build() {
+            return new ConversionPipeline(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+
+import java.io.Closeable;
+
+/**
+ * Receives the operations that failed, a response with an exception or a status code that isn't successful, so they
+ * can be looked at and written again later, see JsonlDeadLetterSink
+ */
+public interface DeadLetterSink extends Closeable {
+    /**
+     * Called from the threads handling the responses, implementations must be thread safe
+     *
+     * @param response response of the failed operation
+     */
+    void accept(CosmosBulkOperationResponse<?> response);
+
+    /**
+     * @param response response of an operation
+     * @return true when the operation failed and belongs in a dead letter sink, also when there is neither an
+     * exception nor a response to tell whether it succeeded
+     */
+    static boolean isFailure(CosmosBulkOperationResponse<?> response) {
+        return response.getException() != null
+                || response.getResponse() == null
+                || !response.getResponse().isSuccessStatusCode();
+    }
+}
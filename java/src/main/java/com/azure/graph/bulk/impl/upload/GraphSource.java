@@ -0,0 +1,46 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Provides the vertices and the edges of a load as streams, so a source producing them lazily only holds the objects
+ * in flight rather than the whole graph. The edges are only asked for once the vertices have been read, a source can
+ * generate the edges from what it recorded while the vertices went through, for example the ids and partition keys
+ * of the vertices.
+ */
+public interface GraphSource {
+    /**
+     * @return the vertices, GremlinVertex objects or domain objects with the GremlinVertex annotations
+     */
+    Stream<?> getVertices();
+
+    /**
+     * Called once the stream returned by getVertices has been read to its end
+     *
+     * @return the edges, GremlinEdge objects or domain objects with the GremlinEdge annotations
+     */
+    Stream<?> getEdges();
+
+    /**
+     * @param vertices provides the vertices
+     * @param edges    provides the edges, called once the vertices have been read
+     * @return source of the streams provided by the suppliers
+     */
+    static GraphSource of(Supplier<Stream<?>> vertices, Supplier<Stream<?>> edges) {
+        return new GraphSource() {
+            @Override
+            public Stream<?> getVertices() {
+                return vertices.get();
+            }
+
+            @Override
+            public Stream<?> getEdges() {
+                return edges.get();
+            }
+        };
+    }
+}
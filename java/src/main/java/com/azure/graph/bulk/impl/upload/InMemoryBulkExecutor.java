@@ -0,0 +1,128 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Executor keeping the documents in a map instead of Cosmos DB, keyed like a container by partition key and id, so a
+ * load can be run and looked at without an account. Creates of a document that exists fail with a 409, replaces and
+ * deletes of a document that doesn't with a 404, like they would in Cosmos DB. Reads and patches aren't supported and
+ * fail with a 400. No operation is charged.
+ */
+public class InMemoryBulkExecutor implements BulkOperationExecutor {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final int OK = 200;
+    private static final int CREATED = 201;
+    private static final int NO_CONTENT = 204;
+    private static final int BAD_REQUEST = 400;
+    private static final int NOT_FOUND = 404;
+    private static final int CONFLICT = 409;
+
+    private final Map<DocumentKey, ObjectNode> documents = new ConcurrentHashMap<>();
+
+    @Override
+    public Flux<CosmosBulkOperationResponse<Object>> execute(
+            Flux<CosmosItemOperation> operations, CosmosBulkExecutionOptions options) {
+        return operations.map(operation -> BulkResponses.response(operation, apply(operation), 0, Duration.ZERO));
+    }
+
+    /**
+     * @return status code of the operation
+     */
+    private int apply(CosmosItemOperation operation) {
+        switch (operation.getOperationType()) {
+            case CREATE:
+                return documents.putIfAbsent(getKey(operation), getDocument(operation)) == null ? CREATED : CONFLICT;
+            case UPSERT:
+                return documents.put(getKey(operation), getDocument(operation)) == null ? CREATED : OK;
+            case REPLACE:
+                return documents.replace(getKey(operation), getDocument(operation)) == null ? NOT_FOUND : OK;
+            case DELETE:
+                return documents.remove(getKey(operation)) == null ? NOT_FOUND : NO_CONTENT;
+            default:
+                return BAD_REQUEST;
+        }
+    }
+
+    /**
+     * @param partitionKey partition key of the document
+     * @param id           id of the document
+     * @return the document, or null when there is none
+     */
+    public ObjectNode get(PartitionKey partitionKey, String id) {
+        return documents.get(new DocumentKey(GremlinDocumentOperationCreator.partitionKeyOf(partitionKey), id));
+    }
+
+    /**
+     * @return view of the documents stored, in no particular order
+     */
+    public Collection<ObjectNode> getDocuments() {
+        return Collections.unmodifiableCollection(documents.values());
+    }
+
+    /**
+     * @return number of documents stored
+     */
+    public int size() {
+        return documents.size();
+    }
+
+    private static DocumentKey getKey(CosmosItemOperation operation) {
+        String id = GremlinDocumentOperationCreator.getId(operation);
+        // Items that aren't a JsonSerializable carry their id in their Json form
+        if (id == null && operation.getItem() != null) id = getDocument(operation).path("id").asText(null);
+        if (id == null) throw new IllegalArgumentException("Document without an id");
+        return new DocumentKey(GremlinDocumentOperationCreator.partitionKeyOf(operation), id);
+    }
+
+    private static ObjectNode getDocument(CosmosItemOperation operation) {
+        Object item = operation.getItem();
+        return item instanceof JsonSerializable
+                ? ((JsonSerializable) item).getPropertyBag()
+                : mapper.valueToTree(item);
+    }
+
+    private static final class DocumentKey {
+        private final String partitionKey;
+        private final String id;
+
+        /**
+         * @param partitionKey partition key as provided by GremlinDocumentOperationCreator.partitionKeyOf
+         */
+        private DocumentKey(String partitionKey, String id) {
+            this.partitionKey = partitionKey;
+            this.id = id;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (o == this) return true;
+            if (!(o instanceof DocumentKey)) return false;
+            DocumentKey that = (DocumentKey) o;
+            return Objects.equals(partitionKey, that.partitionKey) && id.equals(that.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(partitionKey, id);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import reactor.core.publisher.Flux;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Executor writing one line of Json per operation to a file instead of Cosmos DB, for a dry run or to keep a copy of
+ * the documents of a load. The lines are those of a JsonlDeadLetterSink without the response, JsonlDeadLetterSink.read
+ * turns the file back into the operations, so a dry run can be loaded into Cosmos DB later.
+ * <p>
+ * Every operation gets a successful response without charge once its line is written. The lines are buffered, the
+ * file is only complete once the executor is closed.
+ */
+public class JsonlBulkExecutor implements BulkOperationExecutor, Closeable {
+    private final BufferedWriter writer;
+
+    private JsonlBulkExecutor(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param file file the operations are written to, replaced when it exists
+     * @return the executor
+     * @throws IOException when the file can't be opened
+     */
+    public static JsonlBulkExecutor open(Path file) throws IOException {
+        return new JsonlBulkExecutor(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public Flux<CosmosBulkOperationResponse<Object>> execute(
+            Flux<CosmosItemOperation> operations, CosmosBulkExecutionOptions options) {
+        return operations.map(operation -> {
+            write(operation);
+            return BulkResponses.success(operation, 0);
+        });
+    }
+
+    private void write(CosmosItemOperation operation) {
+        String line = JsonlDeadLetterSink.toLine(operation).toString();
+        synchronized (writer) {
+            try {
+                writer.write(line);
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the operation", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex.ContentHash;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Dead letter sink appending one line of Json per failed operation to a file. A line holds the operation type, the
+ * partition key, the status code, sub status code and request charge of the response, or the message of the
+ * exception, and the document itself, so read can turn the file back into operations that write only the failed
+ * documents again.
+ * <p>
+ * Lines are flushed as they are written, a crash loses at most the line being written.
+ */
+public class JsonlDeadLetterSink implements DeadLetterSink {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static final String OPERATION_TYPE = "operationType";
+    private static final String PARTITION_KEY = "partitionKey";
+    private static final String STATUS_CODE = "statusCode";
+    private static final String SUB_STATUS_CODE = "subStatusCode";
+    private static final String REQUEST_CHARGE = "requestCharge";
+    private static final String EXCEPTION = "exception";
+    private static final String KEY_HASH = "keyHash";
+    private static final String CONTENT_HASH = "contentHash";
+    private static final String DOCUMENT = "document";
+
+    private final BufferedWriter writer;
+
+    private JsonlDeadLetterSink(BufferedWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * @param file file the failed operations are appended to, created when it doesn't exist
+     * @return the sink
+     * @throws IOException when the file can't be opened
+     */
+    public static JsonlDeadLetterSink open(Path file) throws IOException {
+        return new JsonlDeadLetterSink(Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE));
+    }
+
+    @Override
+    public void accept(CosmosBulkOperationResponse<?> response) {
+        String line = toLine(response).toString();
+        synchronized (writer) {
+            try {
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write the dead letter", e);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (writer) {
+            writer.close();
+        }
+    }
+
+    /**
+     * Reads the operations back from a file written by a JsonlDeadLetterSink or a JsonlBulkExecutor. The operations
+     * carry the content hash of the document when the original operation did, see ContentHashIndex.markWritten.
+     *
+     * @param file file written by a JsonlDeadLetterSink or a JsonlBulkExecutor
+     * @return Stream of the operations, to be closed once read
+     * @throws IOException when the file can't be opened
+     */
+    public static Stream<CosmosItemOperation> read(Path file) throws IOException {
+        return Files.lines(file, StandardCharsets.UTF_8)
+                .filter(line -> !line.isBlank())
+                .map(JsonlDeadLetterSink::toOperation);
+    }
+
+    private static ObjectNode toLine(CosmosBulkOperationResponse<?> response) {
+        ObjectNode line = toLine(response.getOperation());
+        if (response.getResponse() != null) {
+            line.put(STATUS_CODE, response.getResponse().getStatusCode());
+            line.put(SUB_STATUS_CODE, response.getResponse().getSubStatusCode());
+            line.put(REQUEST_CHARGE, response.getResponse().getRequestCharge());
+        } else if (response.getException() instanceof CosmosException) {
+            CosmosException exception = (CosmosException) response.getException();
+            line.put(STATUS_CODE, exception.getStatusCode());
+            line.put(SUB_STATUS_CODE, exception.getSubStatusCode());
+            line.put(REQUEST_CHARGE, exception.getRequestCharge());
+        }
+        if (response.getException() != null) {
+            line.put(EXCEPTION, response.getException().toString());
+        }
+        return line;
+    }
+
+    /**
+     * The line of an operation without its response, as a JsonlBulkExecutor writes it
+     */
+    static ObjectNode toLine(CosmosItemOperation operation) {
+        ObjectNode line = mapper.createObjectNode();
+        line.put(OPERATION_TYPE, operation.getOperationType().name());
+        line.set(PARTITION_KEY, readTree(operation.getPartitionKeyValue().toString()));
+
+        Object context = operation.getContext();
+        if (context instanceof ContentHash) {
+            line.put(KEY_HASH, ((ContentHash) context).getKeyHash());
+            line.put(CONTENT_HASH, ((ContentHash) context).getContentHash());
+        }
+
+        Object item = operation.getItem();
+        line.set(DOCUMENT, item instanceof JsonSerializable
+                ? ((JsonSerializable) item).getPropertyBag()
+                : mapper.valueToTree(item));
+        return line;
+    }
+
+    private static CosmosItemOperation toOperation(String text) {
+        JsonNode line = readTree(text);
+        JsonSerializable document = new JsonSerializable((ObjectNode) line.get(DOCUMENT));
+        // PartitionKey is written as a Json array holding the value
+        PartitionKey partitionKey = new PartitionKey(
+                mapper.convertValue(line.get(PARTITION_KEY).get(0), Object.class));
+        ContentHash contentHash = line.has(KEY_HASH)
+                ? new ContentHash(line.get(KEY_HASH).asLong(), line.get(CONTENT_HASH).asLong())
+                : null;
+
+        CosmosItemOperationType type = CosmosItemOperationType.valueOf(line.get(OPERATION_TYPE).asText());
+        switch (type) {
+            case CREATE:
+                return CosmosBulkOperations.getCreateItemOperation(document, partitionKey, contentHash);
+            case UPSERT:
+                return CosmosBulkOperations.getUpsertItemOperation(document, partitionKey, contentHash);
+            default:
+                throw new IllegalArgumentException("Unable to replay " + type + " operations");
+        }
+    }
+
+    private static JsonNode readTree(String text) {
+        try {
+            return mapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid dead letter " + text, e);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.graph.bulk.impl.model.DocumentSerializationException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Operators;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stage in front of the bulk executor that holds the documents of the operations waiting for it off the heap. The
+ * Json tree of a document is encoded into a ring buffer allocated outside the heap and emptied, and parsed back into
+ * the same tree when the bulk executor asks for the operation. The operations and their documents keep their
+ * identity, only the content of the documents leaves the heap, so the garbage collector doesn't have to go through
+ * every document of a large window of operations.
+ * <p>
+ * Each subscription has a ring of capacity bytes. Operations are only requested from upstream while the ring has room,
+ * so a full ring holds back the conversion. Documents larger than the ring, and items that aren't a JsonSerializable,
+ * wait on the heap, at most prefetch of them at once.
+ * <p>
+ * The operations are emitted in the order they were received, a failure of the upstream is reported once the
+ * operations received before it have been emitted.
+ */
+public class OffHeapStagingBuffer {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final int capacity;
+    private final int prefetch;
+
+    public OffHeapStagingBuffer(OffHeapStagingBufferBuilder builder) {
+        if (builder.capacity < 1) throw new IllegalArgumentException("capacity must be at least 1");
+        if (builder.prefetch < 1) throw new IllegalArgumentException("prefetch must be at least 1");
+
+        this.capacity = builder.capacity;
+        this.prefetch = builder.prefetch;
+    }
+
+    public static OffHeapStagingBufferBuilder builder() {
+        return new OffHeapStagingBufferBuilder();
+    }
+
+    /**
+     * @param operations the operations to stage
+     * @return the same operations, emitted as the subscriber requests them
+     */
+    public Flux<CosmosItemOperation> stage(Flux<CosmosItemOperation> operations) {
+        return Flux.from(subscriber -> operations.subscribe(new Stager(subscriber)));
+    }
+
+    /**
+     * Variable length records written one after the other, wrapping around to the start of the buffer, and released
+     * in the order they were written. A record never wraps, the end of the buffer it doesn't fit in is skipped.
+     */
+    private static final class Ring {
+        private final ByteBuffer buffer;
+        // Next write position, and start of the oldest record still held
+        private int head;
+        private int tail;
+        // Bytes from tail to head, the records and the skipped ends of the buffer
+        private int used;
+
+        private Ring(int capacity) {
+            this.buffer = ByteBuffer.allocateDirect(capacity);
+        }
+
+        private boolean hasRoom() {
+            return used < buffer.capacity();
+        }
+
+        /**
+         * @return the record, null when the ring doesn't have room for it
+         */
+        private Record write(byte[] bytes, int length) {
+            int capacity = buffer.capacity();
+            if (used == capacity) return null;
+            if (used == 0) {
+                head = 0;
+                tail = 0;
+            }
+
+            int offset;
+            int skipped = 0;
+            if (head >= tail) {
+                if (capacity - head >= length) {
+                    offset = head;
+                } else if (tail >= length) {
+                    skipped = capacity - head;
+                    offset = 0;
+                } else {
+                    return null;
+                }
+            } else if (tail - head >= length) {
+                offset = head;
+            } else {
+                return null;
+            }
+
+            buffer.duplicate().position(offset).put(bytes, 0, length);
+            head = offset + length;
+            used += skipped + length;
+            return new Record(offset, length, skipped);
+        }
+
+        private ByteBuffer read(Record record) {
+            return buffer.duplicate().position(record.offset).limit(record.offset + record.length);
+        }
+
+        private void release(Record record) {
+            used -= record.skipped + record.length;
+            tail = record.offset + record.length;
+        }
+
+        private void clear() {
+            used = 0;
+        }
+    }
+
+    private static final class Record {
+        private final int offset;
+        private final int length;
+        private final int skipped;
+
+        private Record(int offset, int length, int skipped) {
+            this.offset = offset;
+            this.length = length;
+            this.skipped = skipped;
+        }
+    }
+
+    private static final class Staged {
+        private final CosmosItemOperation operation;
+        // Null when the document waits on the heap
+        private final Record record;
+
+        private Staged(CosmosItemOperation operation, Record record) {
+            this.operation = operation;
+            this.record = record;
+        }
+    }
+
+    /**
+     * Reusable encoding buffer, gives access to its array rather than copying it
+     */
+    private static final class EncodingBuffer extends ByteArrayOutputStream {
+        private byte[] getBytes() {
+            return buf;
+        }
+    }
+
+    /**
+     * One subscription to the stage. The signals only enqueue and call drain, which does all the work one thread at a
+     * time.
+     */
+    private final class Stager implements CoreSubscriber<CosmosItemOperation>, Subscription {
+        private final Subscriber<? super CosmosItemOperation> actual;
+        private final Queue<CosmosItemOperation> received = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger();
+        private final AtomicLong requested = new AtomicLong();
+        // Operations requested from upstream and not received yet
+        private final AtomicLong expected = new AtomicLong();
+        private Subscription upstream;
+        private volatile boolean done;
+        private volatile Throwable error;
+        private volatile boolean cancelled;
+
+        // Only used by drain
+        private final ArrayDeque<Staged> staged = new ArrayDeque<>();
+        private final EncodingBuffer encodingBuffer = new EncodingBuffer();
+        private Ring ring;
+        private int onHeap;
+        private boolean terminated;
+
+        private Stager(Subscriber<? super CosmosItemOperation> actual) {
+            this.actual = actual;
+        }
+
+        @Override
+        public void onSubscribe(Subscription subscription) {
+            if (Operators.validate(upstream, subscription)) {
+                upstream = subscription;
+                actual.onSubscribe(this);
+                drain();
+            }
+        }
+
+        @Override
+        public void onNext(CosmosItemOperation operation) {
+            received.offer(operation);
+            expected.decrementAndGet();
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            done = true;
+            drain();
+        }
+
+        @Override
+        public void request(long n) {
+            if (Operators.validate(n)) {
+                requested.getAndUpdate(current -> Operators.addCap(current, n));
+                drain();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            upstream.cancel();
+            drain();
+        }
+
+        private void drain() {
+            if (wip.getAndIncrement() != 0) return;
+
+            int missed = 1;
+            do {
+                if (!terminated) {
+                    try {
+                        drainLoop();
+                    } catch (RuntimeException e) {
+                        terminated = true;
+                        upstream.cancel();
+                        clear();
+                        actual.onError(e);
+                    }
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void drainLoop() {
+            if (ring == null) ring = new Ring(capacity);
+
+            boolean progress = true;
+            while (progress) {
+                if (cancelled) {
+                    terminated = true;
+                    clear();
+                    return;
+                }
+                progress = false;
+
+                CosmosItemOperation next;
+                while ((next = received.peek()) != null && stage(next)) {
+                    received.poll();
+                    progress = true;
+                }
+
+                long emitted = 0;
+                long demand = requested.get();
+                while (emitted < demand && !staged.isEmpty() && !cancelled) {
+                    actual.onNext(restore(staged.poll()));
+                    emitted++;
+                }
+                if (emitted > 0) {
+                    requested.addAndGet(-emitted);
+                    progress = true;
+                }
+            }
+
+            if (done && received.isEmpty() && staged.isEmpty()) {
+                terminated = true;
+                if (error != null) {
+                    actual.onError(error);
+                } else {
+                    actual.onComplete();
+                }
+                return;
+            }
+
+            if (!done && expected.get() == 0 && received.isEmpty() && ring.hasRoom() && onHeap < prefetch) {
+                expected.set(prefetch);
+                upstream.request(prefetch);
+            }
+        }
+
+        /**
+         * @return false when there is no room for the operation yet
+         */
+        private boolean stage(CosmosItemOperation operation) {
+            if (!(operation.getItem() instanceof JsonSerializable)) {
+                return stageOnHeap(operation);
+            }
+
+            ObjectNode document = ((JsonSerializable) operation.getItem()).getPropertyBag();
+            encodingBuffer.reset();
+            try {
+                mapper.writeValue(encodingBuffer, document);
+            } catch (IOException e) {
+                throw new DocumentSerializationException(e);
+            }
+            if (encodingBuffer.size() > capacity) {
+                return stageOnHeap(operation);
+            }
+
+            Record record = ring.write(encodingBuffer.getBytes(), encodingBuffer.size());
+            if (record == null) return false;
+
+            document.removeAll();
+            staged.add(new Staged(operation, record));
+            return true;
+        }
+
+        private boolean stageOnHeap(CosmosItemOperation operation) {
+            if (onHeap >= prefetch) return false;
+
+            onHeap++;
+            staged.add(new Staged(operation, null));
+            return true;
+        }
+
+        private CosmosItemOperation restore(Staged staged) {
+            if (staged.record == null) {
+                onHeap--;
+                return staged.operation;
+            }
+
+            try {
+                ObjectNode content = (ObjectNode) mapper.readTree(
+                        new ByteBufferBackedInputStream(ring.read(staged.record)));
+                ((JsonSerializable) staged.operation.getItem()).getPropertyBag().setAll(content);
+            } catch (IOException e) {
+                throw new DocumentSerializationException(e);
+            } finally {
+                ring.release(staged.record);
+            }
+            return staged.operation;
+        }
+
+        private void clear() {
+            staged.clear();
+            received.clear();
+            if (ring != null) ring.clear();
+            onHeap = 0;
+        }
+    }
+
+    public static class OffHeapStagingBufferBuilder {
+        OffHeapStagingBufferBuilder() {
+
+        }
+
+        private int capacity = 64 * 1024 * 1024;
+        private int prefetch = 32;
+
+        /**
+         * @param capacity bytes of encoded documents held off the heap per staged Flux, defaults to 64MB
+         * @return the builder
+         */
+        public OffHeapStagingBufferBuilder capacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        /**
+         * @param prefetch number of operations requested from upstream at once, and most operations waiting on the
+         *                 heap, defaults to 32
+         * @return the builder
+         */
+        public OffHeapStagingBufferBuilder prefetch(int prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        public OffHeapStagingBuffer build() {
+            return new OffHeapStagingBuffer(this);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stage in front of the bulk executor that regroups the operations by partition key. The operations of a partition
+ * are buffered into a micro batch that is emitted as one dense run once it holds maxBatchSize operations, once its
+ * first operation has waited maxWait, or once the stage holds maxBufferedOperations operations in total, in which
+ * case the oldest batch goes first. The bulk executor then fills its per partition requests from a few consecutive
+ * operations instead of picking them out of input sorted by id.
+ * <p>
+ * The partition key of an operation is the PartitionKey created from GremlinPartitionKey.getValue() by the
+ * GremlinDocumentOperationCreator. The order of the operations within a partition is kept.
+ */
+public class PartitionKeyGrouping {
+    private static final Object TICK = new Object();
+
+    private final int maxBatchSize;
+    private final int maxBufferedOperations;
+    private final Duration maxWait;
+    private final Scheduler scheduler;
+
+    public PartitionKeyGrouping(PartitionKeyGroupingBuilder builder) {
+        if (builder.maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        if (builder.maxBufferedOperations < builder.maxBatchSize) {
+            throw new IllegalArgumentException("maxBufferedOperations must be at least maxBatchSize");
+        }
+        if (builder.maxWait.isNegative() || builder.maxWait.isZero()) {
+            throw new IllegalArgumentException("maxWait must be positive");
+        }
+
+        this.maxBatchSize = builder.maxBatchSize;
+        this.maxBufferedOperations = builder.maxBufferedOperations;
+        this.maxWait = builder.maxWait;
+        this.scheduler = builder.scheduler;
+    }
+
+    public static PartitionKeyGroupingBuilder builder() {
+        return new PartitionKeyGroupingBuilder();
+    }
+
+    /**
+     * @param operations the operations to regroup
+     * @return the same operations, grouped into runs sharing a partition key
+     */
+    public Flux<CosmosItemOperation> group(Flux<CosmosItemOperation> operations) {
+        return Flux.defer(() -> {
+            Batches batches = new Batches();
+            // The ticks flush the batches that waited too long, they stop with the operations
+            return operations.publish(shared -> Flux.merge(
+                            shared,
+                            Flux.interval(maxWait.dividedBy(2), scheduler)
+                                    .onBackpressureDrop()
+                                    .takeUntilOther(shared.ignoreElements())
+                                    .map(tick -> TICK)))
+                    .concatMapIterable(batches::onNext)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(batches.flushAll())));
+        });
+    }
+
+    /**
+     * Batches of one subscription, only called by one signal at a time
+     */
+    private final class Batches {
+        // Iterated in the order the batches were started, the first batch is the oldest
+        private final LinkedHashMap<String, Batch> batches = new LinkedHashMap<>();
+        private int bufferedOperations;
+
+        private List<CosmosItemOperation> onNext(Object next) {
+            if (next == TICK) return flushExpired(scheduler.now(TimeUnit.NANOSECONDS));
+
+            CosmosItemOperation operation = (CosmosItemOperation) next;
+            String partitionKey = GremlinDocumentOperationCreator.partitionKeyOf(operation);
+            Batch batch = batches.computeIfAbsent(partitionKey, key -> new Batch(scheduler.now(TimeUnit.NANOSECONDS)));
+            batch.operations.add(operation);
+            bufferedOperations++;
+
+            if (batch.operations.size() >= maxBatchSize) {
+                return remove(partitionKey);
+            }
+            if (bufferedOperations > maxBufferedOperations) {
+                return remove(batches.keySet().iterator().next());
+            }
+            return Collections.emptyList();
+        }
+
+        private List<CosmosItemOperation> flushExpired(long now) {
+            List<CosmosItemOperation> flushed = new ArrayList<>();
+            Iterator<Map.Entry<String, Batch>> iterator = batches.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Batch batch = iterator.next().getValue();
+                if (now - batch.started < maxWait.toNanos()) break;
+
+                flushed.addAll(batch.operations);
+                bufferedOperations -= batch.operations.size();
+                iterator.remove();
+            }
+            return flushed;
+        }
+
+        private List<CosmosItemOperation> flushAll() {
+            List<CosmosItemOperation> flushed = new ArrayList<>(bufferedOperations);
+            batches.values().forEach(batch -> flushed.addAll(batch.operations));
+            batches.clear();
+            bufferedOperations = 0;
+            return flushed;
+        }
+
+        private List<CosmosItemOperation> remove(String partitionKey) {
+            List<CosmosItemOperation> flushed = batches.remove(partitionKey).operations;
+            bufferedOperations -= flushed.size();
+            return flushed;
+        }
+    }
+
+    private static final class Batch {
+        private final long started;
+        private final List<CosmosItemOperation> operations = new ArrayList<>();
+
+        private Batch(long started) {
+            this.started = started;
+        }
+    }
+
+    public static class PartitionKeyGroupingBuilder {
+        PartitionKeyGroupingBuilder() {
+
+        }
+
+        private int maxBatchSize = 100;
+        private int maxBufferedOperations = 10_000;
+        private Duration maxWait = Duration.ofMillis(100);
+        private Scheduler scheduler = Schedulers.parallel();
+
+        /**
+         * @param maxBatchSize number of operations of a partition emitted together, defaults to 100, the number of
+         *                     operations the bulk executor sends in one request
+         * @return the builder
+         */
+        public PartitionKeyGroupingBuilder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param maxBufferedOperations number of operations held across all partitions, defaults to 10000
+         * @return the builder
+         */
+        public PartitionKeyGroupingBuilder maxBufferedOperations(int maxBufferedOperations) {
+            this.maxBufferedOperations = maxBufferedOperations;
+            return this;
+        }
+
+        /**
+         * @param maxWait time the first operation of a batch waits before the batch is emitted, defaults to 100ms
+         * @return the builder
+         */
+        public PartitionKeyGroupingBuilder maxWait(Duration maxWait) {
+            this.maxWait = maxWait;
+            return this;
+        }
+
+        /**
+         * @param scheduler provides the clock and the timer of maxWait, defaults to Schedulers.parallel()
+         * @return the builder
+         */
+        public PartitionKeyGroupingBuilder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public PartitionKeyGrouping build() {
+            return new PartitionKeyGrouping(this);
+        }
+    }
+}
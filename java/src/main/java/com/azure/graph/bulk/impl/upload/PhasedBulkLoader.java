@@ -0,0 +1,231 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads the vertices and the edges in two phases, each with its own bulk execution, concurrency and request unit
+ * budget. A single bulk execution may write an edge before the vertices it connects, the edge phase only starts
+ * once the vertex phase is done with edgeOverlapThreshold of the vertices.
+ * <p>
+ * With the default threshold of 1 the phases don't overlap. A lower threshold lets the edges start while the last
+ * vertices are still being written, which keeps the throughput up during the tail of the vertex phase. The share is
+ * taken of the vertices read from the source, so the edge phase can't start before the source of the vertices is
+ * exhausted. A vertex is done once its response, successful or not, has been received.
+ * <p>
+ * Each phase with requestUnitsPerSecond set gets its own RequestUnitBudget, charged with the responses of the phase.
+ * The optional global budget is the parent of the phase budgets, and the budget of the phases without their own.
+ * <p>
+ * With a RetryPolicy the operations failing with a transient failure are written again within their phase. The
+ * retries go through the budget of the phase like the first attempts, and a vertex is only done once its final
+ * response has been received.
+ */
+public class PhasedBulkLoader {
+    private static final Logger log = LoggerFactory.getLogger(PhasedBulkLoader.class);
+
+    private final BulkOperationExecutor executor;
+    private final UploadPhase vertexPhase;
+    private final UploadPhase edgePhase;
+    private final double edgeOverlapThreshold;
+    private final RequestUnitBudget globalBudget;
+    private final RetryPolicy retryPolicy;
+    private final Scheduler scheduler;
+
+    public PhasedBulkLoader(PhasedBulkLoaderBuilder builder) {
+        if (builder.executor == null) throw new IllegalArgumentException("executor is required");
+        if (builder.edgeOverlapThreshold < 0 || builder.edgeOverlapThreshold > 1) {
+            throw new IllegalArgumentException("edgeOverlapThreshold must be between 0 and 1");
+        }
+
+        this.executor = builder.executor;
+        this.vertexPhase = builder.vertexPhase;
+        this.edgePhase = builder.edgePhase;
+        this.edgeOverlapThreshold = builder.edgeOverlapThreshold;
+        this.globalBudget = builder.globalBudget;
+        this.retryPolicy = builder.retryPolicy;
+        this.scheduler = builder.scheduler;
+    }
+
+    public static PhasedBulkLoaderBuilder builder() {
+        return new PhasedBulkLoaderBuilder();
+    }
+
+    /**
+     * @param vertices operations of the vertices
+     * @param edges    operations of the edges, only subscribed to once the edge phase starts
+     * @return Flux of the responses of both phases
+     */
+    public Flux<CosmosBulkOperationResponse<Object>> load(
+            Flux<CosmosItemOperation> vertices, Flux<CosmosItemOperation> edges) {
+        return Flux.defer(() -> {
+            EdgeGate gate = new EdgeGate();
+
+            Flux<CosmosBulkOperationResponse<Object>> vertexResponses = execute(vertexPhase, vertices
+                    .doOnNext(operation -> gate.submitted.incrementAndGet())
+                    .doOnComplete(gate::sourceComplete))
+                    .doOnNext(response -> gate.done())
+                    .doOnComplete(gate::open);
+
+            Flux<CosmosBulkOperationResponse<Object>> edgeResponses = gate.opened.asMono()
+                    .thenMany(Flux.defer(() -> execute(edgePhase, edges)));
+
+            return Flux.merge(vertexResponses, edgeResponses);
+        });
+    }
+
+    private Flux<CosmosBulkOperationResponse<Object>> execute(UploadPhase phase, Flux<CosmosItemOperation> operations) {
+        log.info("Starting the {} phase", phase.getName());
+
+        CosmosBulkExecutionOptions options = new CosmosBulkExecutionOptions()
+                .setMaxMicroBatchConcurrency(phase.getConcurrency());
+        RequestUnitBudget budget = getBudget(phase);
+        BulkOperationExecutor phaseExecutor = budget == null ? executor : throttle(budget);
+        if (retryPolicy != null) phaseExecutor = retryPolicy.apply(phaseExecutor);
+
+        return phaseExecutor.execute(operations, options);
+    }
+
+    private BulkOperationExecutor throttle(RequestUnitBudget budget) {
+        return (operations, options) -> executor.execute(budget.throttle(operations), options)
+                .doOnNext(budget::record);
+    }
+
+    private RequestUnitBudget getBudget(UploadPhase phase) {
+        if (phase.getRequestUnitsPerSecond() == 0) return globalBudget;
+
+        return RequestUnitBudget.builder()
+                .requestUnitsPerSecond(phase.getRequestUnitsPerSecond())
+                .parent(globalBudget)
+                .scheduler(scheduler)
+                .build();
+    }
+
+    /**
+     * Opens once enough of the vertices are done, shared by the vertex responses and the source of the vertices
+     */
+    private final class EdgeGate {
+        private final Sinks.Empty<Void> opened = Sinks.empty();
+        private final AtomicBoolean isOpen = new AtomicBoolean();
+        private final AtomicLong submitted = new AtomicLong();
+        private final AtomicLong done = new AtomicLong();
+        private volatile boolean sourceComplete;
+
+        private void sourceComplete() {
+            sourceComplete = true;
+            openIfThresholdReached();
+        }
+
+        private void done() {
+            done.incrementAndGet();
+            openIfThresholdReached();
+        }
+
+        private void openIfThresholdReached() {
+            if (sourceComplete && done.get() >= Math.ceil(submitted.get() * edgeOverlapThreshold)) open();
+        }
+
+        private void open() {
+            if (isOpen.compareAndSet(false, true)) {
+                log.info("{} of {} vertices done, starting the edges", done.get(), submitted.get());
+                opened.tryEmitEmpty();
+            }
+        }
+    }
+
+    public static class PhasedBulkLoaderBuilder {
+        PhasedBulkLoaderBuilder() {
+
+        }
+
+        private BulkOperationExecutor executor;
+        private UploadPhase vertexPhase = UploadPhase.builder().name("vertex").build();
+        private UploadPhase edgePhase = UploadPhase.builder().name("edge").build();
+        private double edgeOverlapThreshold = 1;
+        private RequestUnitBudget globalBudget;
+        private RetryPolicy retryPolicy;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        /**
+         * @param executor runs the bulk operations, see BulkOperationExecutor.of(CosmosAsyncContainer)
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder executor(BulkOperationExecutor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param vertexPhase settings of the vertex phase
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder vertexPhase(UploadPhase vertexPhase) {
+            this.vertexPhase = vertexPhase;
+            return this;
+        }
+
+        /**
+         * @param edgePhase settings of the edge phase
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder edgePhase(UploadPhase edgePhase) {
+            this.edgePhase = edgePhase;
+            return this;
+        }
+
+        /**
+         * @param edgeOverlapThreshold share of the vertices, between 0 and 1, that must be done before the edge phase
+         *                             starts, defaults to 1
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder edgeOverlapThreshold(double edgeOverlapThreshold) {
+            this.edgeOverlapThreshold = edgeOverlapThreshold;
+            return this;
+        }
+
+        /**
+         * @param globalBudget request unit budget shared by both phases, the budgets of the phases are charged to it
+         *                     as well
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder globalBudget(RequestUnitBudget globalBudget) {
+            this.globalBudget = globalBudget;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy when provided, writes the operations failing with a transient failure again
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param scheduler provides the clock and the timer of the request unit budgets, defaults to
+         *                  Schedulers.parallel()
+         * @return the builder
+         */
+        public PhasedBulkLoaderBuilder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public PhasedBulkLoader build() {
+            return new PhasedBulkLoader(this);
+        }
+    }
+}
@@ -0,0 +1,260 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket of request units holding at most one second worth of request units. The request charge of every
+ * response is taken out of the bucket, and operations are held back while the bucket is in debt, so the writes settle
+ * at the budget instead of running into throttling by Cosmos DB.
+ * <p>
+ * The bucket is refilled at a rate that adapts to the throttling, additive increase, multiplicative decrease. A
+ * response with status code 429 multiplies the rate by decreaseFactor, at most once per second since one overloaded
+ * partition usually throttles a whole batch of responses, down to minRequestUnitsPerSecond. The rate then grows back
+ * by increasePerSecond every second without throttling, up to requestUnitsPerSecond.
+ * <p>
+ * A budget can have a parent, for example a global budget shared by per phase budgets. The request charges and the
+ * throttling are recorded in both, and operations wait for both.
+ * <p>
+ * The charge of an operation is only known once it has been written, the bucket can go into debt by the operations
+ * in flight. The operations then wait until the debt has been paid back.
+ */
+public class RequestUnitBudget {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double maxRequestUnitsPerSecond;
+    private final double minRequestUnitsPerSecond;
+    private final double decreaseFactor;
+    private final double increasePerSecond;
+    private final RequestUnitBudget parent;
+    private final Scheduler scheduler;
+
+    private double requestUnitsPerSecond;
+    private double available;
+    private long refilledAt;
+    private long decreasedAt;
+
+    public RequestUnitBudget(RequestUnitBudgetBuilder builder) {
+        if (builder.requestUnitsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestUnitsPerSecond must be positive");
+        }
+        double minimum = builder.minRequestUnitsPerSecond == null
+                ? builder.requestUnitsPerSecond / 10
+                : builder.minRequestUnitsPerSecond;
+        if (minimum <= 0 || minimum > builder.requestUnitsPerSecond) {
+            throw new IllegalArgumentException(
+                    "minRequestUnitsPerSecond must be positive and at most requestUnitsPerSecond");
+        }
+        if (builder.decreaseFactor <= 0 || builder.decreaseFactor >= 1) {
+            throw new IllegalArgumentException("decreaseFactor must be between 0 and 1");
+        }
+
+        this.maxRequestUnitsPerSecond = builder.requestUnitsPerSecond;
+        this.minRequestUnitsPerSecond = minimum;
+        this.decreaseFactor = builder.decreaseFactor;
+        this.increasePerSecond = builder.increasePerSecond == null
+                ? builder.requestUnitsPerSecond / 20
+                : builder.increasePerSecond;
+        this.parent = builder.parent;
+        this.scheduler = builder.scheduler;
+
+        this.requestUnitsPerSecond = maxRequestUnitsPerSecond;
+        this.available = maxRequestUnitsPerSecond;
+        this.refilledAt = scheduler.now(TimeUnit.NANOSECONDS);
+        this.decreasedAt = refilledAt - NANOS_PER_SECOND;
+    }
+
+    public static RequestUnitBudgetBuilder builder() {
+        return new RequestUnitBudgetBuilder();
+    }
+
+    /**
+     * Records the request charge of a response, and the throttling when its status code is 429
+     *
+     * @param response response of a bulk operation
+     */
+    public void record(CosmosBulkOperationResponse<?> response) {
+        if (response.getResponse() != null) {
+            consume(response.getResponse().getRequestCharge());
+            if (response.getResponse().getStatusCode() == TOO_MANY_REQUESTS) throttled();
+        } else if (response.getException() instanceof CosmosException) {
+            CosmosException exception = (CosmosException) response.getException();
+            consume(exception.getRequestCharge());
+            if (exception.getStatusCode() == TOO_MANY_REQUESTS) throttled();
+        }
+    }
+
+    /**
+     * Takes the request charge of a written operation out of the bucket
+     *
+     * @param requestCharge request units used by the operation
+     */
+    public void consume(double requestCharge) {
+        synchronized (this) {
+            refill();
+            available -= requestCharge;
+        }
+        if (parent != null) parent.consume(requestCharge);
+    }
+
+    /**
+     * Lowers the rate of the bucket after Cosmos DB throttled a request
+     */
+    public void throttled() {
+        synchronized (this) {
+            refill();
+            long now = scheduler.now(TimeUnit.NANOSECONDS);
+            if (now - decreasedAt >= NANOS_PER_SECOND) {
+                requestUnitsPerSecond = Math.max(minRequestUnitsPerSecond, requestUnitsPerSecond * decreaseFactor);
+                available = Math.min(available, requestUnitsPerSecond);
+                decreasedAt = now;
+            }
+        }
+        if (parent != null) parent.throttled();
+    }
+
+    /**
+     * @return request units left in the bucket, negative while in debt
+     */
+    public synchronized double getAvailable() {
+        refill();
+        return available;
+    }
+
+    /**
+     * @return the rate the bucket is currently refilled at
+     */
+    public synchronized double getRequestUnitsPerSecond() {
+        refill();
+        return requestUnitsPerSecond;
+    }
+
+    /**
+     * @return time until the bucket, and its parent, are out of debt, zero when they aren't in debt
+     */
+    public Duration getWaitTime() {
+        Duration wait;
+        synchronized (this) {
+            refill();
+            wait = available >= 0
+                    ? Duration.ZERO
+                    : Duration.ofNanos((long) (-available / requestUnitsPerSecond * NANOS_PER_SECOND));
+        }
+        if (parent == null) return wait;
+
+        Duration parentWait = parent.getWaitTime();
+        return parentWait.compareTo(wait) > 0 ? parentWait : wait;
+    }
+
+    /**
+     * @param operations the operations to hold back
+     * @return the same operations, each released once the bucket isn't in debt
+     */
+    public Flux<CosmosItemOperation> throttle(Flux<CosmosItemOperation> operations) {
+        return operations.concatMap(operation -> {
+            Duration wait = getWaitTime();
+            return wait.isZero()
+                    ? Mono.just(operation)
+                    : Mono.delay(wait, scheduler).thenReturn(operation);
+        });
+    }
+
+    private void refill() {
+        long now = scheduler.now(TimeUnit.NANOSECONDS);
+        double elapsedSeconds = (double) (now - refilledAt) / NANOS_PER_SECOND;
+        // The rate doesn't grow in the second following a decrease
+        long increasingSince = Math.max(refilledAt, decreasedAt + NANOS_PER_SECOND);
+        if (now > increasingSince) {
+            requestUnitsPerSecond = Math.min(maxRequestUnitsPerSecond,
+                    requestUnitsPerSecond + increasePerSecond * (now - increasingSince) / NANOS_PER_SECOND);
+        }
+        available = Math.min(requestUnitsPerSecond, available + elapsedSeconds * requestUnitsPerSecond);
+        refilledAt = now;
+    }
+
+    public static class RequestUnitBudgetBuilder {
+        RequestUnitBudgetBuilder() {
+
+        }
+
+        private double requestUnitsPerSecond;
+        private Double minRequestUnitsPerSecond;
+        private double decreaseFactor = 0.7;
+        private Double increasePerSecond;
+        private RequestUnitBudget parent;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        /**
+         * @param requestUnitsPerSecond highest rate of the bucket, the rate it starts at
+         * @return the builder
+         */
+        public RequestUnitBudgetBuilder requestUnitsPerSecond(double requestUnitsPerSecond) {
+            this.requestUnitsPerSecond = requestUnitsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param minRequestUnitsPerSecond lowest rate the throttling can bring the bucket to, defaults to a tenth of
+         *                                 requestUnitsPerSecond
+         * @return the builder
+         */
+        public RequestUnitBudgetBuilder minRequestUnitsPerSecond(double minRequestUnitsPerSecond) {
+            this.minRequestUnitsPerSecond = minRequestUnitsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param decreaseFactor the rate is multiplied by it when a request is throttled, defaults to 0.7
+         * @return the builder
+         */
+        public RequestUnitBudgetBuilder decreaseFactor(double decreaseFactor) {
+            this.decreaseFactor = decreaseFactor;
+            return this;
+        }
+
+        /**
+         * @param increasePerSecond the rate grows by it every second without throttling, defaults to a twentieth of
+         *                          requestUnitsPerSecond
+         * @return the builder
+         */
+        public RequestUnitBudgetBuilder increasePerSecond(double increasePerSecond) {
+            this.increasePerSecond = increasePerSecond;
+            return this;
+        }
+
+        /**
+         * @param parent budget that is charged, and waited for, along with this one
+         * @return the builder
+         */
+        public RequestUnitBudgetBuilder parent(RequestUnitBudget parent) {
+            this.parent = parent;
+            return this;
+        }
+
+        /**
+         * @param scheduler provides the clock and the timer holding back the operations, defaults to
+         *                  Schedulers.parallel()
+         * @return the builder
+         */
+        public RequestUnitBudgetBuilder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public RequestUnitBudget build() {
+            return new RequestUnitBudget(this);
+        }
+    }
+}
@@ -0,0 +1,342 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.CosmosException;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Classifies the responses of the bulk operations by status code and writes the operations with a transient failure
+ * again, after a backoff, until they succeed or run out of attempts.
+ * <p>
+ * Throttling (429), an unavailable service (503), a timeout (408), a write conflict on the server (449) and a gone
+ * partition (410) are retried. A 404 is retried for the edges, with the edges overlapping the vertices it usually means
+ * the vertex hasn't been written yet. A 413 is never retried, the bulk executor already splits the requests by size so
+ * the document alone is over the size limit. Every other failure is handed back as it is.
+ * <p>
+ * A 409 on a create means the document already exists. With upsertOnConflict the document is written again right away
+ * by an upsert of the same document, a load can create the documents, which costs fewer request units than upserting
+ * them, and still overwrite the documents an earlier load left behind. The response handed back is the response of
+ * the upsert, it holds the upsert operation, carrying the document and context of the create.
+ * <p>
+ * The backoff doubles with every attempt from baseDelay up to maxDelay, with equal jitter, a random delay between half
+ * and the whole backoff, so the operations throttled together don't come back together. It is never shorter than the
+ * retry after duration Cosmos DB returned.
+ */
+public class RetryPolicy {
+    private static final Logger log = LoggerFactory.getLogger(RetryPolicy.class);
+
+    private static final int REQUEST_TIMEOUT = 408;
+    private static final int NOT_FOUND = 404;
+    private static final int CONFLICT = 409;
+    private static final int GONE = 410;
+    private static final int REQUEST_ENTITY_TOO_LARGE = 413;
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final int RETRY_WITH = 449;
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    /**
+     * How a response is handled
+     */
+    public enum Outcome {
+        /**
+         * The operation succeeded
+         */
+        SUCCESS,
+        /**
+         * The operation failed with a transient failure and is written again
+         */
+        RETRY,
+        /**
+         * The operation failed and isn't written again
+         */
+        FAIL
+    }
+
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final DoubleSupplier random;
+    private final boolean upsertOnConflict;
+    private final Scheduler scheduler;
+
+    public RetryPolicy(RetryPolicyBuilder builder) {
+        if (builder.maxAttempts < 1) throw new IllegalArgumentException("maxAttempts must be at least 1");
+        if (builder.baseDelay.isNegative() || builder.maxDelay.compareTo(builder.baseDelay) < 0) {
+            throw new IllegalArgumentException("baseDelay can't be negative or longer than maxDelay");
+        }
+
+        this.maxAttempts = builder.maxAttempts;
+        this.baseDelay = builder.baseDelay;
+        this.maxDelay = builder.maxDelay;
+        this.random = builder.random;
+        this.upsertOnConflict = builder.upsertOnConflict;
+        this.scheduler = builder.scheduler;
+    }
+
+    public static RetryPolicyBuilder builder() {
+        return new RetryPolicyBuilder();
+    }
+
+    /**
+     * @param response response of an operation
+     * @param attempt  number of times the operation has been written, starting at 1
+     * @return how the response is handled
+     */
+    public Outcome classify(CosmosBulkOperationResponse<?> response, int attempt) {
+        int statusCode = getStatusCode(response);
+        if (statusCode >= 200 && statusCode < 300) return Outcome.SUCCESS;
+        if (!isRetryable(response.getOperation(), statusCode)) {
+            if (statusCode == REQUEST_ENTITY_TOO_LARGE) {
+                log.error("Document {} is over the size limit of Cosmos DB",
+                        GremlinDocumentOperationCreator.getId(response.getOperation()));
+            }
+            return Outcome.FAIL;
+        }
+        // The upsert doesn't count against the attempts, it isn't written again because of a transient failure
+        if (statusCode == CONFLICT) return Outcome.RETRY;
+        return attempt < maxAttempts ? Outcome.RETRY : Outcome.FAIL;
+    }
+
+    /**
+     * @param response response of an operation to write again
+     * @param attempt  number of times the operation has been written, starting at 1
+     * @return the time to wait before writing the operation again
+     */
+    public Duration getDelay(CosmosBulkOperationResponse<?> response, int attempt) {
+        long backoff = Math.min(maxDelay.toNanos(), baseDelay.toNanos() << Math.min(attempt - 1, 30));
+        long jittered = backoff / 2 + (long) (random.getAsDouble() * (backoff - backoff / 2));
+        Duration delay = Duration.ofNanos(Math.min(jittered, maxDelay.toNanos()));
+
+        Duration retryAfter = getRetryAfter(response);
+        return retryAfter != null && retryAfter.compareTo(delay) > 0 ? retryAfter : delay;
+    }
+
+    /**
+     * Wraps an executor so the operations failing with a transient failure are written again through it. The retries
+     * are fed back into the operations handed to the executor, the executor, and whatever throttling it applies, sees
+     * every attempt. Only the final response of each operation is returned.
+     *
+     * @param executor runs the bulk operations
+     * @return executor retrying the operations as the policy says
+     */
+    public BulkOperationExecutor apply(BulkOperationExecutor executor) {
+        return (operations, options) -> Flux.defer(() -> {
+            Retries retries = new Retries();
+            Flux<CosmosItemOperation> input = Flux.merge(
+                    operations
+                            .doOnNext(operation -> retries.submitted())
+                            .doOnComplete(retries::sourceComplete),
+                    retries.delayed.asFlux()
+                            .flatMap(retry -> retry.delay.isZero()
+                                    ? Mono.just(retry.operation)
+                                    : Mono.delay(retry.delay, scheduler).thenReturn(retry.operation)));
+
+            return executor.execute(input, options)
+                    .filter(retries::isFinal)
+                    .doOnNext(response -> retries.done());
+        });
+    }
+
+    private boolean isRetryable(CosmosItemOperation operation, int statusCode) {
+        switch (statusCode) {
+            case TOO_MANY_REQUESTS:
+            case SERVICE_UNAVAILABLE:
+            case REQUEST_TIMEOUT:
+            case RETRY_WITH:
+            case GONE:
+                return true;
+            case NOT_FOUND:
+                return GremlinDocumentOperationCreator.isEdge(operation);
+            case CONFLICT:
+                return upsertOnConflict && operation.getOperationType() == CosmosItemOperationType.CREATE;
+            case REQUEST_ENTITY_TOO_LARGE:
+            default:
+                return false;
+        }
+    }
+
+    private static int getStatusCode(CosmosBulkOperationResponse<?> response) {
+        if (response.getResponse() != null) return response.getResponse().getStatusCode();
+        if (response.getException() instanceof CosmosException) {
+            return ((CosmosException) response.getException()).getStatusCode();
+        }
+        // Not a response from Cosmos DB, for example a failed serialization, writing it again won't help
+        return 0;
+    }
+
+    private static Duration getRetryAfter(CosmosBulkOperationResponse<?> response) {
+        if (response.getResponse() != null) return response.getResponse().getRetryAfterDuration();
+        if (response.getException() instanceof CosmosException) {
+            return ((CosmosException) response.getException()).getRetryAfterDuration();
+        }
+        return null;
+    }
+
+    /**
+     * Retries of one bulk execution. The input of the executor completes once the source has completed and every
+     * operation has its final response.
+     */
+    private final class Retries {
+        private final Sinks.Many<Retry> delayed = Sinks.many().unicast().onBackpressureBuffer();
+        // The operations don't override equals, this is keyed by the identity of the operations retried, the upsert
+        // written after a conflict takes over the attempts of its create
+        private final Map<CosmosItemOperation, Integer> attempts = new ConcurrentHashMap<>();
+        private final AtomicLong pending = new AtomicLong();
+        private final AtomicBoolean isComplete = new AtomicBoolean();
+        private volatile boolean sourceComplete;
+
+        private void submitted() {
+            pending.incrementAndGet();
+        }
+
+        private void sourceComplete() {
+            sourceComplete = true;
+            completeIfDone();
+        }
+
+        private boolean isFinal(CosmosBulkOperationResponse<Object> response) {
+            CosmosItemOperation operation = response.getOperation();
+            int attempt = attempts.getOrDefault(operation, 1);
+            if (classify(response, attempt) != Outcome.RETRY) {
+                attempts.remove(operation);
+                return true;
+            }
+
+            Retry retry;
+            if (getStatusCode(response) == CONFLICT) {
+                attempts.remove(operation);
+                retry = new Retry(CosmosBulkOperations.getUpsertItemOperation(
+                        operation.getItem(), operation.getPartitionKeyValue(), operation.getContext()), Duration.ZERO);
+                attempts.put(retry.operation, attempt);
+                log.debug("Upserting {} after a conflict", GremlinDocumentOperationCreator.getId(operation));
+            } else {
+                retry = new Retry(operation, getDelay(response, attempt));
+                attempts.put(operation, attempt + 1);
+                log.debug("Writing {} again in {} after status code {}, attempt {} of {}",
+                        GremlinDocumentOperationCreator.getId(operation), retry.delay, getStatusCode(response),
+                        attempt + 1, maxAttempts);
+            }
+            synchronized (delayed) {
+                delayed.emitNext(retry, Sinks.EmitFailureHandler.FAIL_FAST);
+            }
+            return false;
+        }
+
+        private void done() {
+            pending.decrementAndGet();
+            completeIfDone();
+        }
+
+        private void completeIfDone() {
+            if (sourceComplete && pending.get() == 0 && isComplete.compareAndSet(false, true)) {
+                synchronized (delayed) {
+                    delayed.emitComplete(Sinks.EmitFailureHandler.FAIL_FAST);
+                }
+            }
+        }
+    }
+
+    private static final class Retry {
+        private final CosmosItemOperation operation;
+        private final Duration delay;
+
+        private Retry(CosmosItemOperation operation, Duration delay) {
+            this.operation = operation;
+            this.delay = delay;
+        }
+    }
+
+    public static class RetryPolicyBuilder {
+        RetryPolicyBuilder() {
+
+        }
+
+        private int maxAttempts = 5;
+        private Duration baseDelay = Duration.ofMillis(100);
+        private Duration maxDelay = Duration.ofSeconds(10);
+        private DoubleSupplier random = () -> ThreadLocalRandom.current().nextDouble();
+        private boolean upsertOnConflict;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        /**
+         * @param maxAttempts number of times an operation is written before its failure is final, 1 disables the
+         *                    retries, defaults to 5
+         * @return the builder
+         */
+        public RetryPolicyBuilder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * @param baseDelay backoff after the first attempt, defaults to 100 milliseconds
+         * @return the builder
+         */
+        public RetryPolicyBuilder baseDelay(Duration baseDelay) {
+            this.baseDelay = baseDelay;
+            return this;
+        }
+
+        /**
+         * @param maxDelay longest backoff, defaults to 10 seconds
+         * @return the builder
+         */
+        public RetryPolicyBuilder maxDelay(Duration maxDelay) {
+            this.maxDelay = maxDelay;
+            return this;
+        }
+
+        /**
+         * @param random provides the jitter, values between 0 and 1, defaults to ThreadLocalRandom
+         * @return the builder
+         */
+        public RetryPolicyBuilder random(DoubleSupplier random) {
+            this.random = random;
+            return this;
+        }
+
+        /**
+         * @param upsertOnConflict when true, a create failing because the document already exists is followed by an
+         *                         upsert of the document, defaults to false
+         * @return the builder
+         */
+        public RetryPolicyBuilder upsertOnConflict(boolean upsertOnConflict) {
+            this.upsertOnConflict = upsertOnConflict;
+            return this;
+        }
+
+        /**
+         * @param scheduler provides the timer of the backoff, defaults to Schedulers.parallel()
+         * @return the builder
+         */
+        public RetryPolicyBuilder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+/**
+ * Tracks the sequence numbers acknowledged out of order and keeps the watermark, the first sequence number not
+ * acknowledged yet. Every sequence number below the watermark has been acknowledged.
+ * <p>
+ * The acknowledgements above the watermark are kept as bits of a ring of longs indexed by the sequence number, so the
+ * memory used is one bit per sequence number between the watermark and the highest acknowledged one, rather than an
+ * entry per operation. The ring doubles when an acknowledgement is further ahead of the watermark than it can hold.
+ * While every operation is acknowledged that is about the number of operations in flight, a sequence number that
+ * is never acknowledged holds the watermark back for good and the ring then grows with every later
+ * acknowledgement.
+ */
+public class SequenceWatermark {
+    private static final int MIN_WORDS = 16;
+
+    private long[] words = new long[MIN_WORDS];
+    private long watermark;
+
+    /**
+     * @param start the first sequence number, every sequence number below it counts as acknowledged
+     */
+    public SequenceWatermark(long start) {
+        if (start < 0) throw new IllegalArgumentException("start can't be negative");
+        this.watermark = start;
+    }
+
+    /**
+     * @param sequence sequence number to acknowledge, acknowledging a sequence number more than once has no effect
+     */
+    public synchronized void acknowledge(long sequence) {
+        if (sequence < watermark) return;
+
+        while (sequence - watermark >= capacity()) {
+            grow();
+        }
+        set(sequence);
+        while (isSet(watermark)) {
+            clear(watermark);
+            watermark++;
+        }
+    }
+
+    /**
+     * @return the first sequence number that hasn't been acknowledged
+     */
+    public synchronized long get() {
+        return watermark;
+    }
+
+    private long capacity() {
+        return (long) words.length * Long.SIZE;
+    }
+
+    private void grow() {
+        long[] previous = words;
+        long previousCapacity = capacity();
+        words = new long[previous.length * 2];
+        for (long sequence = watermark; sequence < watermark + previousCapacity; sequence++) {
+            int word = (int) ((sequence & (previousCapacity - 1)) >>> 6);
+            if ((previous[word] & (1L << sequence)) != 0) set(sequence);
+        }
+    }
+
+    private void set(long sequence) {
+        words[wordIndex(sequence)] |= 1L << sequence;
+    }
+
+    private void clear(long sequence) {
+        words[wordIndex(sequence)] &= ~(1L << sequence);
+    }
+
+    private boolean isSet(long sequence) {
+        return (words[wordIndex(sequence)] & (1L << sequence)) != 0;
+    }
+
+    /**
+     * The capacity is a power of two, a multiple of 64, so the bit of a sequence number within its word is the
+     * sequence number modulo 64, which is what the shifts of a long use
+     */
+    private int wordIndex(long sequence) {
+        return (int) ((sequence & (capacity() - 1)) >>> 6);
+    }
+}
@@ -0,0 +1,236 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In process stand-in for the bulk support of a container, so the whole upload pipeline can be run and measured
+ * without a Cosmos DB account. Nothing is stored, every operation gets a response shaped like those of Cosmos DB.
+ * <p>
+ * The partition keys are spread over partitionCount partitions by the hash of their JSON form, each partition with its
+ * own bucket of requestUnitsPerSecond holding at most one second worth of request units. An operation costs
+ * requestCharge, an operation arriving at a partition whose bucket can't cover it gets a 429 response with the time
+ * until the bucket can as retry after, without charge.
+ * <p>
+ * Every response is delayed by a latency drawn from a log-normal distribution around medianLatency. Like the micro
+ * batches of the bulk executor, a partition has at most maxMicroBatchConcurrency times maxBatchSize operations in
+ * flight. The latencies are drawn from a Random per partition seeded by seed, the same operations submitted in the
+ * same order get the same latencies.
+ */
+public class SimulatedBulkExecutor implements BulkOperationExecutor {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int partitionCount;
+    private final double requestUnitsPerSecond;
+    private final double requestCharge;
+    private final int maxBatchSize;
+    private final Duration medianLatency;
+    private final double latencySpread;
+    private final long seed;
+    private final Scheduler scheduler;
+
+    public SimulatedBulkExecutor(SimulatedBulkExecutorBuilder builder) {
+        if (builder.partitionCount < 1) throw new IllegalArgumentException("partitionCount must be at least 1");
+        if (builder.requestUnitsPerSecond <= 0) {
+            throw new IllegalArgumentException("requestUnitsPerSecond must be positive");
+        }
+        if (builder.requestCharge < 0) throw new IllegalArgumentException("requestCharge must not be negative");
+        if (builder.requestCharge > builder.requestUnitsPerSecond) {
+            throw new IllegalArgumentException("requestCharge must be at most requestUnitsPerSecond");
+        }
+        if (builder.maxBatchSize < 1) throw new IllegalArgumentException("maxBatchSize must be at least 1");
+        if (builder.medianLatency.isNegative()) {
+            throw new IllegalArgumentException("medianLatency must not be negative");
+        }
+        if (builder.latencySpread < 0) throw new IllegalArgumentException("latencySpread must not be negative");
+
+        this.partitionCount = builder.partitionCount;
+        this.requestUnitsPerSecond = builder.requestUnitsPerSecond;
+        this.requestCharge = builder.requestCharge;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.medianLatency = builder.medianLatency;
+        this.latencySpread = builder.latencySpread;
+        this.seed = builder.seed;
+        this.scheduler = builder.scheduler;
+    }
+
+    public static SimulatedBulkExecutorBuilder builder() {
+        return new SimulatedBulkExecutorBuilder();
+    }
+
+    /**
+     * Each call starts from full buckets, the partitions of one call aren't shared with another
+     */
+    @Override
+    public Flux<CosmosBulkOperationResponse<Object>> execute(
+            Flux<CosmosItemOperation> operations, CosmosBulkExecutionOptions options) {
+        int concurrency = options == null ? 1 : options.getMaxMicroBatchConcurrency();
+        return Flux.defer(() -> {
+            Partition[] partitions = new Partition[partitionCount];
+            for (int i = 0; i < partitionCount; i++) {
+                partitions[i] = new Partition(i);
+            }
+
+            return operations
+                    .groupBy(this::getPartition)
+                    .flatMap(group -> group.flatMap(operation -> partitions[group.key()].execute(operation),
+                            concurrency * maxBatchSize), partitionCount);
+        });
+    }
+
+    private int getPartition(CosmosItemOperation operation) {
+        String partitionKey = GremlinDocumentOperationCreator.partitionKeyOf(operation);
+        return partitionKey == null ? 0 : Math.floorMod(partitionKey.hashCode(), partitionCount);
+    }
+
+    private final class Partition {
+        private final Random random;
+        private double available = requestUnitsPerSecond;
+        private long refilledAt = scheduler.now(TimeUnit.NANOSECONDS);
+
+        private Partition(int index) {
+            this.random = new Random(seed * 31 + index);
+        }
+
+        private Mono<CosmosBulkOperationResponse<Object>> execute(CosmosItemOperation operation) {
+            CosmosBulkOperationResponse<Object> response;
+            Duration latency;
+            synchronized (this) {
+                refill();
+                if (available >= requestCharge) {
+                    available -= requestCharge;
+                    response = BulkResponses.success(operation, requestCharge);
+                } else {
+                    double seconds = (requestCharge - available) / requestUnitsPerSecond;
+                    Duration retryAfter = Duration.ofNanos((long) Math.ceil(seconds * NANOS_PER_SECOND));
+                    response = BulkResponses.response(operation, TOO_MANY_REQUESTS, 0, retryAfter);
+                }
+                latency = nextLatency();
+            }
+
+            return latency.isZero()
+                    ? Mono.just(response)
+                    : Mono.delay(latency, scheduler).thenReturn(response);
+        }
+
+        private void refill() {
+            long now = scheduler.now(TimeUnit.NANOSECONDS);
+            available = Math.min(requestUnitsPerSecond,
+                    available + requestUnitsPerSecond * (now - refilledAt) / NANOS_PER_SECOND);
+            refilledAt = now;
+        }
+
+        private Duration nextLatency() {
+            if (medianLatency.isZero()) return Duration.ZERO;
+            return Duration.ofNanos((long) (medianLatency.toNanos() * Math.exp(latencySpread * random.nextGaussian())));
+        }
+    }
+
+    public static class SimulatedBulkExecutorBuilder {
+        SimulatedBulkExecutorBuilder() {
+
+        }
+
+        private int partitionCount = 4;
+        private double requestUnitsPerSecond = 10_000;
+        private double requestCharge = 10;
+        private int maxBatchSize = 100;
+        private Duration medianLatency = Duration.ofMillis(5);
+        private double latencySpread = 0.5;
+        private long seed;
+        private Scheduler scheduler = Schedulers.parallel();
+
+        /**
+         * @param partitionCount number of physical partitions the partition keys are spread over, defaults to 4
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder partitionCount(int partitionCount) {
+            this.partitionCount = partitionCount;
+            return this;
+        }
+
+        /**
+         * @param requestUnitsPerSecond throughput of each partition, defaults to 10000, the most a physical
+         *                              partition of Cosmos DB serves
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder requestUnitsPerSecond(double requestUnitsPerSecond) {
+            this.requestUnitsPerSecond = requestUnitsPerSecond;
+            return this;
+        }
+
+        /**
+         * @param requestCharge request units charged for every operation written, defaults to 10
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder requestCharge(double requestCharge) {
+            this.requestCharge = requestCharge;
+            return this;
+        }
+
+        /**
+         * @param maxBatchSize operations per micro batch, defaults to 100 like the bulk executor
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder maxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * @param medianLatency median of the latency of the responses, zero responds at once, defaults to 5ms
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder medianLatency(Duration medianLatency) {
+            this.medianLatency = medianLatency;
+            return this;
+        }
+
+        /**
+         * @param latencySpread standard deviation of the logarithm of the latency, 0 gives every response the median
+         *                      latency, defaults to 0.5
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder latencySpread(double latencySpread) {
+            this.latencySpread = latencySpread;
+            return this;
+        }
+
+        /**
+         * @param seed seed of the latencies, defaults to 0
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * @param scheduler provides the clock of the buckets and the timer of the latencies, defaults to
+         *                  Schedulers.parallel()
+         * @return the builder
+         */
+        public SimulatedBulkExecutorBuilder scheduler(Scheduler scheduler) {
+            this.scheduler = scheduler;
+            return this;
+        }
+
+        public SimulatedBulkExecutor build() {
+            return new SimulatedBulkExecutor(this);
+        }
+    }
+}
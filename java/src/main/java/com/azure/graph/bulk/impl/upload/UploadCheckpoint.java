@@ -0,0 +1,210 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Records how far an upload got, so a restarted upload skips the objects already written. The objects of each phase,
+ * for example the vertices and the edges, are numbered in the order of their source. The checkpoint holds a
+ * SequenceWatermark per phase, the number of leading objects of the source whose operations have been written
+ * successfully, or that didn't need to be written.
+ * <p>
+ * The file only holds the watermark of each phase, it is replaced atomically by save. A restart reads the watermarks
+ * back, and resume skips that many objects of the source, which only gives the right result when the source provides
+ * the same objects in the same order as before.
+ * <p>
+ * A failed operation isn't acknowledged, so the watermark of its phase stops at it, and a restart writes it again
+ * along with everything that followed it, unless it is marked done once it has been handed to a DeadLetterSink.
+ * Until the phase ends, its SequenceWatermark then holds a bit for every object acknowledged after the failed one.
+ */
+public class UploadCheckpoint implements Closeable {
+    private final Path file;
+    private final Map<String, Long> saved;
+    private final Map<String, SequenceWatermark> watermarks = new ConcurrentHashMap<>();
+    // Keyed by the identity of the documents in flight rather than of their operations, an operation written again as
+    // another operation, for example an upsert after a conflict, carries the same document
+    private final Map<Object, Pending> inFlight = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    private UploadCheckpoint(Path file, Map<String, Long> saved) {
+        this.file = file;
+        this.saved = saved;
+    }
+
+    /**
+     * Opens the checkpoint stored in the file provided, a new checkpoint starts every phase at 0 when the file
+     * doesn't exist
+     *
+     * @param file location of the checkpoint
+     * @return the opened checkpoint
+     * @throws IOException when the file can't be read
+     */
+    public static UploadCheckpoint open(Path file) throws IOException {
+        Map<String, Long> saved = new ConcurrentHashMap<>();
+        if (Files.exists(file)) {
+            Properties properties = new Properties();
+            try (InputStream input = Files.newInputStream(file)) {
+                properties.load(input);
+            }
+            try {
+                properties.stringPropertyNames()
+                        .forEach(phase -> saved.put(phase, Long.parseLong(properties.getProperty(phase))));
+            } catch (NumberFormatException e) {
+                throw new IOException(file + " is not an upload checkpoint", e);
+            }
+        }
+        return new UploadCheckpoint(file, saved);
+    }
+
+    /**
+     * @param phase name of the phase
+     * @return the number of leading objects of the phase that are done
+     */
+    public long getCompleted(String phase) {
+        return watermark(phase).get();
+    }
+
+    /**
+     * Skips the objects of the source that are done and numbers the others. The source must be sequential.
+     *
+     * @param phase  name of the phase
+     * @param source all the objects of the phase, in the same order as in the earlier runs
+     * @param <T>    type of the objects
+     * @return the objects that aren't done, with their sequence number
+     */
+    public <T> Stream<Sequenced<T>> resume(String phase, Stream<T> source) {
+        long completed = getCompleted(phase);
+        AtomicLong next = new AtomicLong(completed);
+        return source.skip(completed).map(item -> new Sequenced<>(next.getAndIncrement(), item));
+    }
+
+    /**
+     * Wraps a converter so the operations it creates are tracked until their response is acknowledged. An object the
+     * converter skips, returning null, is done right away.
+     *
+     * @param phase     name of the phase
+     * @param converter converts an object into its operation
+     * @param <T>       type of the objects
+     * @return converter of the numbered objects provided by resume
+     */
+    public <T> Function<Sequenced<T>, CosmosItemOperation> track(
+            String phase, Function<? super T, CosmosItemOperation> converter) {
+        SequenceWatermark watermark = watermark(phase);
+        return sequenced -> {
+            CosmosItemOperation operation = converter.apply(sequenced.getItem());
+            if (operation == null) {
+                watermark.acknowledge(sequenced.getSequence());
+            } else {
+                inFlight.put(operation.getItem(), new Pending(watermark, sequenced.getSequence()));
+            }
+            return operation;
+        };
+    }
+
+    /**
+     * Marks the object of a successful operation as done. Failed operations, and operations that aren't tracked, are
+     * ignored.
+     *
+     * @param response response of an operation created by a converter provided by track
+     * @return false when the operation is tracked and failed, the watermark of its phase stays below its object
+     */
+    public boolean acknowledge(CosmosBulkOperationResponse<?> response) {
+        if (DeadLetterSink.isFailure(response)) {
+            return inFlight.remove(response.getOperation().getItem()) == null;
+        }
+        done(response.getOperation());
+        return true;
+    }
+
+    /**
+     * Marks the object of an operation as done whatever its response, for failed operations that are kept
+     * elsewhere, for example by a DeadLetterSink. Operations that aren't tracked are ignored.
+     *
+     * @param operation operation created by a converter provided by track, or an operation carrying its document
+     */
+    public void done(CosmosItemOperation operation) {
+        Pending pending = inFlight.remove(operation.getItem());
+        if (pending != null) {
+            pending.watermark.acknowledge(pending.sequence);
+        }
+    }
+
+    /**
+     * Writes the watermarks to a temporary file that then replaces the checkpoint file, a crash leaves either the
+     * previous or the new checkpoint
+     *
+     * @throws IOException when the file can't be written
+     */
+    public synchronized void save() throws IOException {
+        Properties properties = new Properties();
+        saved.forEach((phase, completed) -> properties.setProperty(phase, Long.toString(completed)));
+        watermarks.forEach((phase, watermark) -> properties.setProperty(phase, Long.toString(watermark.get())));
+
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileOutputStream output = new FileOutputStream(temporary.toFile())) {
+            properties.store(output, "Upload checkpoint, number of objects done per phase");
+            output.getFD().sync();
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    @Override
+    public void close() throws IOException {
+        save();
+    }
+
+    private SequenceWatermark watermark(String phase) {
+        return watermarks.computeIfAbsent(phase, key -> new SequenceWatermark(saved.getOrDefault(key, 0L)));
+    }
+
+    private static final class Pending {
+        private final SequenceWatermark watermark;
+        private final long sequence;
+
+        private Pending(SequenceWatermark watermark, long sequence) {
+            this.watermark = watermark;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * An object of the source with its sequence number within its phase
+     *
+     * @param <T> type of the object
+     */
+    public static final class Sequenced<T> {
+        private final long sequence;
+        private final T item;
+
+        public Sequenced(long sequence, T item) {
+            this.sequence = sequence;
+            this.item = item;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public T getItem() {
+            return item;
+        }
+    }
+}
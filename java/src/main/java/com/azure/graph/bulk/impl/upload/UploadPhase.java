@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+/**
+ * Settings of one phase of the PhasedBulkLoader
+ */
+public class UploadPhase {
+    private static final int MAX_CONCURRENCY = 5;
+
+    private final String name;
+    private final int concurrency;
+    private final double requestUnitsPerSecond;
+
+    public UploadPhase(UploadPhaseBuilder builder) {
+        if (builder.concurrency < 1 || builder.concurrency > MAX_CONCURRENCY) {
+            throw new IllegalArgumentException("concurrency must be between 1 and " + MAX_CONCURRENCY);
+        }
+        if (builder.requestUnitsPerSecond < 0) {
+            throw new IllegalArgumentException("requestUnitsPerSecond can't be negative");
+        }
+
+        this.name = builder.name;
+        this.concurrency = builder.concurrency;
+        this.requestUnitsPerSecond = builder.requestUnitsPerSecond;
+    }
+
+    public static UploadPhaseBuilder builder() {
+        return new UploadPhaseBuilder();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getRequestUnitsPerSecond() {
+        return requestUnitsPerSecond;
+    }
+
+    public static class UploadPhaseBuilder {
+        UploadPhaseBuilder() {
+
+        }
+
+        private String name = "upload";
+        private int concurrency = 1;
+        private double requestUnitsPerSecond;
+
+        /**
+         * @param name name of the phase, used in the logs
+         * @return the builder
+         */
+        public UploadPhaseBuilder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        /**
+         * @param concurrency number of requests the bulk executor runs at once per physical partition, between 1 and
+         *                    5, defaults to 1
+         * @return the builder
+         */
+        public UploadPhaseBuilder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * @param requestUnitsPerSecond request units the phase can use every second, 0, the default, leaves the phase
+         *                              unlimited
+         * @return the builder
+         */
+        public UploadPhaseBuilder requestUnitsPerSecond(double requestUnitsPerSecond) {
+            this.requestUnitsPerSecond = requestUnitsPerSecond;
+            return this;
+        }
+
+        public UploadPhase build() {
+            return new UploadPhase(this);
+        }
+    }
+}
@@ -8,4 +8,25 @@ public final class ArgNames {
     public static final String EDGE_MAX = "edgemax";
     public static final String DOMAIN_SAMPLE = "domainSample";
     public static final String CREATE_DOCS = "createDocuments";
+    public static final String CREATE_FIRST = "createFirst";
+    public static final String DETERMINISTIC_PROPERTY_IDS = "deterministicPropertyIds";
+    public static final String HASH_INDEX = "hashIndex";
+    public static final String CONVERSION_WORKERS = "conversionWorkers";
+    public static final String STRICT_ORDER = "strictOrder";
+    public static final String GROUP_BY_PARTITION = "groupByPartition";
+    public static final String VERTEX_CONCURRENCY = "vertexConcurrency";
+    public static final String EDGE_CONCURRENCY = "edgeConcurrency";
+    public static final String VERTEX_REQUEST_UNITS = "vertexRequestUnits";
+    public static final String EDGE_REQUEST_UNITS = "edgeRequestUnits";
+    public static final String EDGE_OVERLAP = "edgeOverlap";
+    public static final String REQUEST_UNITS = "requestUnits";
+    public static final String CHECKPOINT = "checkpoint";
+    public static final String CHECKPOINT_INTERVAL = "checkpointInterval";
+    public static final String DEAD_LETTER = "deadLetter";
+    public static final String REPLAY = "replay";
+    public static final String MAX_ATTEMPTS = "maxAttempts";
+    public static final String STAGING_BUFFER = "stagingBuffer";
+    public static final String SINK = "sink";
+    public static final String TEE = "tee";
+    public static final String SEED = "seed";
 }
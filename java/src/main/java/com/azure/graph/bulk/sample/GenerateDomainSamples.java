@@ -4,19 +4,18 @@
 package com.azure.graph.bulk.sample;
 
 import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
 import com.azure.graph.bulk.sample.model.DataGenerationException;
 import com.azure.graph.bulk.sample.model.PersonVertex;
 import com.azure.graph.bulk.sample.model.RelationshipEdge;
 
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.azure.graph.bulk.sample.SeedGenerationValues.*;
 
@@ -25,59 +24,96 @@ public class GenerateDomainSamples {
         throw new IllegalStateException("Utility class, should not be constructed");
     }
 
-    public static List<PersonVertex> getVertices(int volume) {
-        try {
-            SecureRandom random = SecureRandom.getInstanceStrong();
+    /**
+     * @param volume    number of vertices to generate
+     * @param directory records the id, label and partition key of every vertex generated, for getEdges
+     * @return Stream generating the vertices as they are read
+     */
+    public static Stream<PersonVertex> getVertices(int volume, VertexDirectory directory) {
+        return getVertices(volume, directory, getRandom());
+    }
 
-            return IntStream.range(1, volume + 1).mapToObj(
-                            i -> generatePerson(random))
-                    .collect(Collectors.toCollection(ArrayList::new));
-        } catch (NoSuchAlgorithmException e) {
-            throw new DataGenerationException(e);
-        }
+    /**
+     * @param volume    number of vertices to generate
+     * @param directory records the id, label and partition key of every vertex generated, for getEdges
+     * @param seed      seed of the generation, the same seed generates the same vertices, ids included
+     * @return Stream generating the vertices as they are read
+     */
+    public static Stream<PersonVertex> getVertices(int volume, VertexDirectory directory, long seed) {
+        return getVertices(volume, directory, new Random(seed));
+    }
+
+    private static Stream<PersonVertex> getVertices(int volume, VertexDirectory directory, Random random) {
+        return IntStream.range(0, volume).mapToObj(i -> generatePerson(random, directory));
     }
 
-    public static List<RelationshipEdge> getEdges(List<PersonVertex> vertices, int factor) {
-        ArrayList<RelationshipEdge> edges = new ArrayList<>();
+    /**
+     * @param directory the vertices the edges connect, filled by reading the Stream returned by getVertices
+     * @param factor    maximum number of edges per vertex
+     * @return Stream generating the edges as they are read
+     */
+    public static Stream<RelationshipEdge> getEdges(VertexDirectory directory, int factor) {
+        return getEdges(directory, factor, getRandom());
+    }
+
+    /**
+     * @param directory the vertices the edges connect, filled by reading the Stream returned by getVertices
+     * @param factor    maximum number of edges per vertex
+     * @param seed      seed of the generation, the same seed and vertices generate the same edges
+     * @return Stream generating the edges as they are read
+     */
+    public static Stream<RelationshipEdge> getEdges(VertexDirectory directory, int factor, long seed) {
+        return getEdges(directory, factor, new Random(seed));
+    }
+
+    private static Stream<RelationshipEdge> getEdges(VertexDirectory directory, int factor, Random random) {
+        return IntStream.range(0, directory.size()).boxed().flatMap(source -> {
+            GremlinEdgeVertexInfo sourceVertexInfo = directory.getVertexInfo(source);
+            int volume = random.nextInt(factor) + 1;
+            return IntStream.rangeClosed(1, volume).mapToObj(i -> RelationshipEdge.builder()
+                    .sourceVertexInfo(sourceVertexInfo)
+                    .destinationVertexInfo(getRandomVertex(random, source, directory))
+                    .relationshipType(SeedGenerationValues.RelationshipTypes[
+                            random.nextInt(SeedGenerationValues.RelationshipTypes.length - 1)]).build());
+        });
+    }
+
+    private static Random getRandom() {
         try {
-            SecureRandom random = SecureRandom.getInstanceStrong();
-
-            for (PersonVertex vertex : vertices) {
-                int volume = random.nextInt(factor) + 1;
-                for (int i = 1; i <= volume; i++) {
-
-                    edges.add(RelationshipEdge.builder()
-                            .sourceVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(vertex))
-                            .destinationVertexInfo(getRandomVertex(random, vertex.id, vertices))
-                            .relationshipType(SeedGenerationValues.RelationshipTypes[
-                                    random.nextInt(SeedGenerationValues.RelationshipTypes.length - 1)]).build());
-                }
-            }
+            return SecureRandom.getInstanceStrong();
         } catch (NoSuchAlgorithmException e) {
             throw new DataGenerationException(e);
         }
-        return edges;
     }
 
-    private static GremlinEdgeVertexInfo getRandomVertex(Random random, String sourceId, List<PersonVertex> vertices) {
-        GremlinEdgeVertexInfo vertex = null;
-        while (vertex == null) {
-            PersonVertex potentialVertex = vertices.get(random.nextInt(vertices.size() - 1));
-            if (!Objects.equals(potentialVertex.id, sourceId)) {
-                vertex = GremlinEdgeVertexInfo.fromGremlinVertex(potentialVertex);
-            }
+    /**
+     * Version 4 UUID drawn from the random of the generation, rather than UUID.randomUUID, so a seed fixes the ids
+     */
+    private static String randomId(Random random) {
+        long mostSigBits = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    private static GremlinEdgeVertexInfo getRandomVertex(Random random, int source, VertexDirectory directory) {
+        int destination = source;
+        while (destination == source) {
+            destination = random.nextInt(directory.size() - 1);
         }
-        return vertex;
+        return directory.getVertexInfo(destination);
     }
 
-    private static PersonVertex generatePerson(Random random) {
+    private static PersonVertex generatePerson(Random random, VertexDirectory directory) {
         String firstName = firstNames[random.nextInt(firstNames.length - 1)];
         String lastName = lastNames[random.nextInt(lastNames.length - 1)];
         String country = countries[random.nextInt(countries.length - 1)];
         String emailProvider = emailProviders[random.nextInt(emailProviders.length - 1)];
 
+        String id = randomId(random);
+        directory.add(id, PERSON_LABEL,
+                GremlinPartitionKey.builder().fieldName(PARTITION_KEY_FIELD).value(country).build());
         return PersonVertex.builder()
-                .id(UUID.randomUUID().toString())
+                .id(id)
                 .isSpecial(false)
                 .firstName(firstName)
                 .lastName(lastName)
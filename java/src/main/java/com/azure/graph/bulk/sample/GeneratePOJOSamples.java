@@ -5,20 +5,18 @@ package com.azure.graph.bulk.sample;
 
 import com.azure.graph.bulk.impl.model.GremlinEdge;
 import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
 import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
 import com.azure.graph.bulk.impl.model.GremlinVertex;
 import com.azure.graph.bulk.sample.model.DataGenerationException;
 
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.List;
-import java.util.Objects;
 import java.util.Random;
 import java.util.UUID;
-import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static com.azure.graph.bulk.sample.SeedGenerationValues.*;
 
@@ -27,71 +25,105 @@ public class GeneratePOJOSamples {
         throw new IllegalStateException("Utility class, should not be constructed");
     }
 
-    public static List<GremlinVertex> getVertices(int volume) {
-        try {
-            SecureRandom random = SecureRandom.getInstanceStrong();
+    /**
+     * @param volume    number of vertices to generate
+     * @param directory records the id, label and partition key of every vertex generated, for getEdges
+     * @return Stream generating the vertices as they are read
+     */
+    public static Stream<GremlinVertex> getVertices(int volume, VertexDirectory directory) {
+        return getVertices(volume, directory, getRandom());
+    }
 
-            return IntStream.range(1, volume + 1).mapToObj(
-                            i -> generateVertex(random))
-                    .collect(Collectors.toCollection(ArrayList::new));
-        } catch (NoSuchAlgorithmException e) {
-            throw new DataGenerationException(e);
-        }
+    /**
+     * @param volume    number of vertices to generate
+     * @param directory records the id, label and partition key of every vertex generated, for getEdges
+     * @param seed      seed of the generation, the same seed generates the same vertices, ids included
+     * @return Stream generating the vertices as they are read
+     */
+    public static Stream<GremlinVertex> getVertices(int volume, VertexDirectory directory, long seed) {
+        return getVertices(volume, directory, new Random(seed));
+    }
+
+    private static Stream<GremlinVertex> getVertices(int volume, VertexDirectory directory, Random random) {
+        return IntStream.range(0, volume).mapToObj(i -> generateVertex(random, directory));
     }
 
-    public static List<GremlinEdge> getEdges(List<GremlinVertex> vertices, int factor) {
-        ArrayList<GremlinEdge> edges = new ArrayList<>();
+    /**
+     * @param directory the vertices the edges connect, filled by reading the Stream returned by getVertices
+     * @param factor    maximum number of edges per vertex
+     * @return Stream generating the edges as they are read
+     */
+    public static Stream<GremlinEdge> getEdges(VertexDirectory directory, int factor) {
+        return getEdges(directory, factor, getRandom());
+    }
 
+    /**
+     * @param directory the vertices the edges connect, filled by reading the Stream returned by getVertices
+     * @param factor    maximum number of edges per vertex
+     * @param seed      seed of the generation, the same seed and vertices generate the same edges
+     * @return Stream generating the edges as they are read
+     */
+    public static Stream<GremlinEdge> getEdges(VertexDirectory directory, int factor, long seed) {
+        return getEdges(directory, factor, new Random(seed));
+    }
+
+    private static Stream<GremlinEdge> getEdges(VertexDirectory directory, int factor, Random random) {
+        return IntStream.range(0, directory.size()).boxed().flatMap(source -> {
+            GremlinEdgeVertexInfo sourceVertexInfo = directory.getVertexInfo(source);
+            int volume = random.nextInt(factor) + 1;
+            return IntStream.rangeClosed(1, volume).mapToObj(i -> {
+                String randomRelationshipType = RelationshipTypes[
+                        random.nextInt(RelationshipTypes.length - 1)];
+
+                return GremlinEdge.builder()
+                        .id(randomId(random))
+                        .sourceVertexInfo(sourceVertexInfo)
+                        .destinationVertexInfo(getRandomVertex(random, source, directory))
+                        .partitionKey(sourceVertexInfo.getPartitionKey())
+                        .label(randomRelationshipType)
+                        .properties(new HashMap<>())
+                        .build();
+            });
+        });
+    }
+
+    private static Random getRandom() {
         try {
-            SecureRandom random = SecureRandom.getInstanceStrong();
-
-            for (GremlinVertex vertex : vertices) {
-                int volume = random.nextInt(factor) + 1;
-
-                for (int i = 1; i <= volume; i++) {
-                    String randomRelationshipType = RelationshipTypes[
-                            random.nextInt(RelationshipTypes.length - 1)];
-
-                    GremlinEdge edge = GremlinEdge.builder()
-                            .id(UUID.randomUUID().toString())
-                            .sourceVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(vertex))
-                            .destinationVertexInfo(getRandomVertex(random, vertex.getId(), vertices))
-                            .partitionKey(vertex.getPartitionKey())
-                            .label(randomRelationshipType)
-                            .properties(new HashMap<>())
-                            .build();
-                    edges.add(edge);
-                }
-            }
+            return SecureRandom.getInstanceStrong();
         } catch (NoSuchAlgorithmException e) {
             throw new DataGenerationException(e);
         }
-        return edges;
     }
 
-    private static GremlinEdgeVertexInfo getRandomVertex(Random random, String ignoreId, List<GremlinVertex> vertices) {
-        GremlinEdgeVertexInfo vertex = null;
-        while (vertex == null) {
-            GremlinVertex potentialVertex = vertices.get(random.nextInt(vertices.size() - 1));
-            if (!Objects.equals(potentialVertex.getId(), ignoreId)) {
-                vertex = GremlinEdgeVertexInfo.fromGremlinVertex(potentialVertex);
-            }
+    /**
+     * Version 4 UUID drawn from the random of the generation, rather than UUID.randomUUID, so a seed fixes the ids
+     */
+    private static String randomId(Random random) {
+        long mostSigBits = (random.nextLong() & 0xffffffffffff0fffL) | 0x0000000000004000L;
+        long leastSigBits = (random.nextLong() & 0x3fffffffffffffffL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits).toString();
+    }
+
+    private static GremlinEdgeVertexInfo getRandomVertex(Random random, int source, VertexDirectory directory) {
+        int destination = source;
+        while (destination == source) {
+            destination = random.nextInt(directory.size() - 1);
         }
-        return vertex;
+        return directory.getVertexInfo(destination);
     }
 
-    private static GremlinVertex generateVertex(Random random) {
+    private static GremlinVertex generateVertex(Random random, VertexDirectory directory) {
         String firstName = firstNames[random.nextInt(firstNames.length - 1)];
         String lastName = lastNames[random.nextInt(lastNames.length - 1)];
         String country = countries[random.nextInt(countries.length - 1)];
         String emailProvider = emailProviders[random.nextInt(emailProviders.length - 1)];
 
         GremlinVertex vertex = GremlinVertex.builder()
-                .id(UUID.randomUUID().toString())
-                .label("PERSON")
-                .properties(new HashMap<>())
-                .partitionKey(GremlinPartitionKey.builder().fieldName("country").value(country).build())
+                .id(randomId(random))
+                .label(PERSON_LABEL)
+                .partitionKey(GremlinPartitionKey.builder().fieldName(PARTITION_KEY_FIELD).value(country).build())
                 .build();
+        directory.add(vertex.getId(), vertex.getLabel(), vertex.getPartitionKey());
 
         vertex.addProperty("firstName", firstName);
         vertex.addProperty("lastName", lastName);
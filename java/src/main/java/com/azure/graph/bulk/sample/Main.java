@@ -3,29 +3,51 @@
 
 package com.azure.graph.bulk.sample;
 
-import com.azure.graph.bulk.impl.model.GremlinEdge;
-import com.azure.graph.bulk.impl.model.GremlinVertex;
-import com.azure.graph.bulk.sample.model.PersonVertex;
+import com.azure.graph.bulk.impl.PropertyIdGenerator;
+import com.azure.graph.bulk.impl.PropertyIdGenerators;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
+import com.azure.graph.bulk.impl.upload.BulkOperationExecutor;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex;
+import com.azure.graph.bulk.impl.upload.ConversionPipeline;
+import com.azure.graph.bulk.impl.upload.ConversionPipeline.Ordering;
+import com.azure.graph.bulk.impl.upload.GraphSource;
+import com.azure.graph.bulk.impl.upload.InMemoryBulkExecutor;
+import com.azure.graph.bulk.impl.upload.JsonlBulkExecutor;
+import com.azure.graph.bulk.impl.upload.JsonlDeadLetterSink;
+import com.azure.graph.bulk.impl.upload.OffHeapStagingBuffer;
+import com.azure.graph.bulk.impl.upload.PartitionKeyGrouping;
+import com.azure.graph.bulk.impl.upload.RequestUnitBudget;
+import com.azure.graph.bulk.impl.upload.RetryPolicy;
+import com.azure.graph.bulk.impl.upload.UploadCheckpoint;
+import com.azure.graph.bulk.impl.upload.UploadPhase;
 import com.azure.graph.bulk.sample.model.ProcessingResults;
-import com.azure.graph.bulk.sample.model.RelationshipEdge;
 import org.apache.commons.cli.CommandLine;
 import org.apache.commons.cli.CommandLineParser;
 import org.apache.commons.cli.DefaultParser;
 import org.apache.commons.cli.Options;
 
-import java.util.List;
-import java.util.stream.Stream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 
 public class Main {
     private static final ProcessingResults results = new ProcessingResults();
 
+    private static final String COSMOS_SINK = "cosmos";
+    private static final String DISCARD_SINK = "discard";
+    private static final String MEMORY_SINK = "memory";
+
     public static void main(String[] args) {
         try {
             Options options = getOptions();
             CommandLineParser parser = new DefaultParser();
             CommandLine cmd = parser.parse(options, args);
 
-            if (cmd.hasOption(ArgNames.DOMAIN_SAMPLE)) {
+            if (cmd.hasOption(ArgNames.REPLAY)) {
+                runReplay(cmd);
+            } else if (cmd.hasOption(ArgNames.DOMAIN_SAMPLE)) {
                 runDomainSample(cmd);
             } else {
                 runPOJOSample(cmd);
@@ -39,34 +61,63 @@ public class Main {
         }
     }
 
-    private static void runDomainSample(CommandLine cmd) {
-        results.transitionState("Build sample vertices");
-        List<PersonVertex> vertices = GenerateDomainSamples.getVertices(
-                Integer.parseInt(cmd.getOptionValue(ArgNames.VERTEX_COUNT)));
-        results.transitionState("Build sample edges");
-
-        List<RelationshipEdge> edges = GenerateDomainSamples.getEdges(
-                vertices,
-                Integer.parseInt(cmd.getOptionValue(ArgNames.EDGE_MAX)));
-
-        results.setCounts(vertices.size(), edges.size());
+    private static void runDomainSample(CommandLine cmd) throws IOException {
+        int vertexCount = Integer.parseInt(cmd.getOptionValue(ArgNames.VERTEX_COUNT));
+        int edgeMax = Integer.parseInt(cmd.getOptionValue(ArgNames.EDGE_MAX));
+        Long seed = getSeed(cmd);
+        // The vertices and edges are generated as they are written, only their ids, labels and partition keys are kept
+        VertexDirectory directory = new VertexDirectory();
 
-        executeWithDomain(vertices.stream(), edges.stream(), cmd.hasOption(ArgNames.CREATE_DOCS));
+        upload(GraphSource.of(
+                () -> seed == null
+                        ? GenerateDomainSamples.getVertices(vertexCount, directory)
+                        : GenerateDomainSamples.getVertices(vertexCount, directory, seed),
+                () -> seed == null
+                        ? GenerateDomainSamples.getEdges(directory, edgeMax)
+                        : GenerateDomainSamples.getEdges(directory, edgeMax, seed)), cmd);
     }
 
-    private static void runPOJOSample(CommandLine cmd) {
-        results.transitionState("Build sample vertices");
-        List<GremlinVertex> vertices = GeneratePOJOSamples.getVertices(
-                Integer.parseInt(cmd.getOptionValue(ArgNames.VERTEX_COUNT)));
-        results.transitionState("Build sample edges");
+    private static void runReplay(CommandLine cmd) throws IOException {
+        Path deadLetters = Path.of(cmd.getOptionValue(ArgNames.REPLAY)).toAbsolutePath();
+        if (cmd.hasOption(ArgNames.DEAD_LETTER) &&
+                Path.of(cmd.getOptionValue(ArgNames.DEAD_LETTER)).toAbsolutePath().equals(deadLetters)) {
+            throw new IllegalArgumentException("The replayed file can't be the dead letter file");
+        }
+        upload(cmd, loader -> loader.replay(deadLetters));
+    }
 
-        List<GremlinEdge> edges = GeneratePOJOSamples.getEdges(
-                vertices,
-                Integer.parseInt(cmd.getOptionValue(ArgNames.EDGE_MAX)));
+    private static void runPOJOSample(CommandLine cmd) throws IOException {
+        int vertexCount = Integer.parseInt(cmd.getOptionValue(ArgNames.VERTEX_COUNT));
+        int edgeMax = Integer.parseInt(cmd.getOptionValue(ArgNames.EDGE_MAX));
+        Long seed = getSeed(cmd);
+        VertexDirectory directory = new VertexDirectory();
 
-        results.setCounts(vertices.size(), edges.size());
+        upload(GraphSource.of(
+                () -> seed == null
+                        ? GeneratePOJOSamples.getVertices(vertexCount, directory)
+                        : GeneratePOJOSamples.getVertices(vertexCount, directory, seed),
+                () -> seed == null
+                        ? GeneratePOJOSamples.getEdges(directory, edgeMax)
+                        : GeneratePOJOSamples.getEdges(directory, edgeMax, seed)), cmd);
+    }
 
-        executeWithPOJO(vertices.stream(), edges.stream(), cmd.hasOption(ArgNames.CREATE_DOCS));
+    /**
+     * A checkpoint skips the documents a previous run got through, which is only right when the sample generates the
+     * same documents in the same order again. A content hash index only skips the documents of a previous run when
+     * the sample generates the same ids again. Both require the generation to be seeded.
+     *
+     * @return seed of the sample, null when the sample is random
+     */
+    private static Long getSeed(CommandLine cmd) {
+        if (cmd.hasOption(ArgNames.SEED)) return Long.parseLong(cmd.getOptionValue(ArgNames.SEED));
+        if (cmd.hasOption(ArgNames.CHECKPOINT)) {
+            throw new IllegalArgumentException("A checkpoint requires a seed, a random sample can't be resumed");
+        }
+        if (cmd.hasOption(ArgNames.HASH_INDEX)) {
+            throw new IllegalArgumentException(
+                    "A content hash index requires a seed, a random sample never repeats a document");
+        }
+        return null;
     }
 
     private static Options getOptions() {
@@ -92,24 +143,238 @@ public class Main {
                 ArgNames.CREATE_DOCS,
                 false,
                 "Indicates if the bulk executor sample should run the sample using create item operations. If not preset, the sample will use upsert item operations instead.");
+        options.addOption(
+                "x",
+                ArgNames.CREATE_FIRST,
+                false,
+                "Indicates if the bulk executor sample should create the documents, and upsert those that already exist. Creates use fewer request units than upserts, this is the cheapest way to load a graph that may be partially loaded already. Implies createDocuments.");
+        options.addOption(
+                "p",
+                ArgNames.DETERMINISTIC_PROPERTY_IDS,
+                false,
+                "Indicates if the property ids of the vertices should be derived from the vertex id, property name and value index. If not present, random property ids are generated.");
+        options.addOption(
+                "i",
+                ArgNames.HASH_INDEX,
+                true,
+                "Path of the content hash index file. Documents that haven't changed since they were written by a previous run are skipped. Implies deterministic property ids.");
+        options.addOption(
+                "w",
+                ArgNames.CONVERSION_WORKERS,
+                true,
+                "Number of threads converting the objects into documents. If not present, the conversion runs on the parallel Reactor scheduler.");
+        options.addOption(
+                "s",
+                ArgNames.STRICT_ORDER,
+                false,
+                "Indicates if the documents converted by the conversion threads should be written in the order they were generated. If not present, they are written in the order they are converted.");
+        options.addOption(
+                "g",
+                ArgNames.GROUP_BY_PARTITION,
+                false,
+                "Indicates if the documents should be grouped by partition key before they are handed to the bulk executor. If not present, they are written in the order they are converted.");
+        options.addOption(
+                "m",
+                ArgNames.VERTEX_CONCURRENCY,
+                true,
+                "Number of requests, between 1 and 5, the bulk executor runs at once per partition while writing the vertices. Defaults to 1.");
+        options.addOption(
+                "n",
+                ArgNames.EDGE_CONCURRENCY,
+                true,
+                "Number of requests, between 1 and 5, the bulk executor runs at once per partition while writing the edges. Defaults to 5.");
+        options.addOption(
+                "r",
+                ArgNames.VERTEX_REQUEST_UNITS,
+                true,
+                "Request units per second the vertices can use. If not present, the vertices aren't limited.");
+        options.addOption(
+                "u",
+                ArgNames.EDGE_REQUEST_UNITS,
+                true,
+                "Request units per second the edges can use. If not present, the edges aren't limited.");
+        options.addOption(
+                "o",
+                ArgNames.EDGE_OVERLAP,
+                true,
+                "Share of the vertices, between 0 and 1, that must be written before the edges start. Defaults to 1.");
+        options.addOption(
+                "t",
+                ArgNames.REQUEST_UNITS,
+                true,
+                "Request units per second the whole upload can use, lowered while Cosmos DB throttles the requests. 0 disables the limit. Defaults to the throughput of the container.");
+        options.addOption(
+                "k",
+                ArgNames.CHECKPOINT,
+                true,
+                "Path of the checkpoint file. The documents a previous run got through, as recorded in the file, are skipped and the progress of this run is recorded in it. A generated sample requires a seed.");
+        options.addOption(
+                "l",
+                ArgNames.CHECKPOINT_INTERVAL,
+                true,
+                "Number of seconds between two saves of the checkpoint. Defaults to 30.");
+        options.addOption(
+                "f",
+                ArgNames.DEAD_LETTER,
+                true,
+                "Path of the dead letter file. The documents that fail are appended to it, one line of Json each, and counted as done by the checkpoint.");
+        options.addOption(
+                "y",
+                ArgNames.REPLAY,
+                true,
+                "Path of a dead letter file written by a previous run. Instead of generating the sample, only the documents it holds are written again, those failing again go to the dead letter file.");
+        options.addOption(
+                "a",
+                ArgNames.MAX_ATTEMPTS,
+                true,
+                "Number of times a document failing with a transient failure, such as throttling or an unavailable service, is written before the failure is final. 1 disables the retries. Defaults to 5.");
+        options.addOption(
+                "b",
+                ArgNames.STAGING_BUFFER,
+                true,
+                "Megabytes of memory outside the heap holding the documents waiting for the bulk executor, for each of the vertices and the edges. If not present, the documents wait on the heap.");
+        options.addOption(
+                "j",
+                ArgNames.SINK,
+                true,
+                "Where the documents are written: cosmos, discard to drop them, memory to keep them in memory, or the path of a Json lines file to write them to instead. Defaults to cosmos.");
+        options.addOption(
+                "q",
+                ArgNames.TEE,
+                true,
+                "Path of a Json lines file every document is also written to while it goes to the sink.");
+        options.addOption(
+                "z",
+                ArgNames.SEED,
+                true,
+                "Seed of the sample, the same seed generates the same vertices and edges. Required with a checkpoint or a content hash index, so a later run repeats the documents of this one. If not present, the sample is random.");
         return options;
     }
 
-    private static void executeWithDomain(Stream<PersonVertex> vertices,
-                                          Stream<RelationshipEdge> edges,
-                                          boolean createDocs) {
-        results.transitionState("Configure Database");
-        UploadWithBulkLoader loader = new UploadWithBulkLoader();
-        results.transitionState("Write Documents");
-        loader.uploadDocuments(vertices, edges, createDocs);
+    private static PropertyIdGenerator getPropertyIdGenerator(CommandLine cmd) {
+        return cmd.hasOption(ArgNames.DETERMINISTIC_PROPERTY_IDS) || cmd.hasOption(ArgNames.HASH_INDEX)
+                ? PropertyIdGenerators.deterministic()
+                : PropertyIdGenerators.threadLocalRandom();
+    }
+
+    private static ConversionPipeline getConversionPipeline(CommandLine cmd) {
+        if (!cmd.hasOption(ArgNames.CONVERSION_WORKERS)) return null;
+
+        return ConversionPipeline.builder()
+                .workers(Integer.parseInt(cmd.getOptionValue(ArgNames.CONVERSION_WORKERS)))
+                .ordering(cmd.hasOption(ArgNames.STRICT_ORDER) ? Ordering.STRICT : Ordering.RELAXED)
+                .build();
+    }
+
+    private static OffHeapStagingBuffer getStagingBuffer(CommandLine cmd) {
+        if (!cmd.hasOption(ArgNames.STAGING_BUFFER)) return null;
+
+        int megabytes = Integer.parseInt(cmd.getOptionValue(ArgNames.STAGING_BUFFER));
+        return OffHeapStagingBuffer.builder()
+                .capacity(Math.multiplyExact(megabytes, 1024 * 1024))
+                .build();
     }
 
-    private static void executeWithPOJO(Stream<GremlinVertex> vertices,
-                                        Stream<GremlinEdge> edges,
-                                        boolean createDocs) {
+    private static boolean isFileSink(CommandLine cmd) {
+        String sink = cmd.getOptionValue(ArgNames.SINK, COSMOS_SINK);
+        return !sink.equals(COSMOS_SINK) && !sink.equals(DISCARD_SINK) && !sink.equals(MEMORY_SINK);
+    }
+
+    /**
+     * @return executor of the sink, or null to have the loader write to Cosmos DB
+     */
+    private static BulkOperationExecutor getExecutor(CommandLine cmd, JsonlBulkExecutor fileSink) {
+        switch (cmd.getOptionValue(ArgNames.SINK, COSMOS_SINK)) {
+            case COSMOS_SINK:
+                return null;
+            case DISCARD_SINK:
+                return BulkOperationExecutor.discard();
+            case MEMORY_SINK:
+                return new InMemoryBulkExecutor();
+            default:
+                return fileSink;
+        }
+    }
+
+    private static UploadPhase getUploadPhase(
+            CommandLine cmd, String name, String concurrencyArg, int defaultConcurrency, String requestUnitsArg) {
+        return UploadPhase.builder()
+                .name(name)
+                .concurrency(Integer.parseInt(
+                        cmd.getOptionValue(concurrencyArg, Integer.toString(defaultConcurrency))))
+                .requestUnitsPerSecond(Double.parseDouble(cmd.getOptionValue(requestUnitsArg, "0")))
+                .build();
+    }
+
+    private static RequestUnitBudget getGlobalBudget(CommandLine cmd) {
+        double requestUnits = Double.parseDouble(
+                cmd.getOptionValue(ArgNames.REQUEST_UNITS, Integer.toString(DatabaseSettings.THROUGHPUT)));
+        if (requestUnits == 0) return null;
+
+        return RequestUnitBudget.builder().requestUnitsPerSecond(requestUnits).build();
+    }
+
+    private static RetryPolicy getRetryPolicy(CommandLine cmd) {
+        return RetryPolicy.builder()
+                .maxAttempts(Integer.parseInt(cmd.getOptionValue(ArgNames.MAX_ATTEMPTS, "5")))
+                .upsertOnConflict(cmd.hasOption(ArgNames.CREATE_FIRST))
+                .build();
+    }
+
+    private static void upload(GraphSource source, CommandLine cmd) throws IOException {
+        boolean createDocs = cmd.hasOption(ArgNames.CREATE_DOCS) || cmd.hasOption(ArgNames.CREATE_FIRST);
+        AtomicInteger vertexCount = new AtomicInteger();
+        AtomicInteger edgeCount = new AtomicInteger();
+        GraphSource counted = GraphSource.of(
+                () -> source.getVertices().peek(vertex -> vertexCount.incrementAndGet()),
+                () -> source.getEdges().peek(edge -> edgeCount.incrementAndGet()));
+        try {
+            upload(cmd, loader -> loader.uploadDocuments(counted, createDocs));
+        } finally {
+            results.setCounts(vertexCount.get(), edgeCount.get());
+        }
+    }
+
+    private static void upload(CommandLine cmd, Consumer<UploadWithBulkLoader> upload) throws IOException {
         results.transitionState("Configure Database");
-        UploadWithBulkLoader loader = new UploadWithBulkLoader();
-        results.transitionState("Write Documents");
-        loader.uploadDocuments(vertices, edges, createDocs);
+        try (ContentHashIndex contentHashIndex = cmd.hasOption(ArgNames.HASH_INDEX)
+                ? ContentHashIndex.open(Path.of(cmd.getOptionValue(ArgNames.HASH_INDEX)))
+                : null;
+             UploadCheckpoint checkpoint = cmd.hasOption(ArgNames.CHECKPOINT)
+                     ? UploadCheckpoint.open(Path.of(cmd.getOptionValue(ArgNames.CHECKPOINT)))
+                     : null;
+             JsonlDeadLetterSink deadLetterSink = cmd.hasOption(ArgNames.DEAD_LETTER)
+                     ? JsonlDeadLetterSink.open(Path.of(cmd.getOptionValue(ArgNames.DEAD_LETTER)))
+                     : null;
+             JsonlBulkExecutor fileSink = isFileSink(cmd)
+                     ? JsonlBulkExecutor.open(Path.of(cmd.getOptionValue(ArgNames.SINK)))
+                     : null;
+             JsonlBulkExecutor tee = cmd.hasOption(ArgNames.TEE)
+                     ? JsonlBulkExecutor.open(Path.of(cmd.getOptionValue(ArgNames.TEE)))
+                     : null) {
+            UploadWithBulkLoader loader = UploadWithBulkLoader.builder()
+                    .executor(getExecutor(cmd, fileSink))
+                    .tee(tee)
+                    .propertyIdGenerator(getPropertyIdGenerator(cmd))
+                    .contentHashIndex(contentHashIndex)
+                    .conversionPipeline(getConversionPipeline(cmd))
+                    .partitionKeyGrouping(cmd.hasOption(ArgNames.GROUP_BY_PARTITION)
+                            ? PartitionKeyGrouping.builder().build() : null)
+                    .stagingBuffer(getStagingBuffer(cmd))
+                    .vertexPhase(getUploadPhase(cmd, "vertex", ArgNames.VERTEX_CONCURRENCY, 1,
+                            ArgNames.VERTEX_REQUEST_UNITS))
+                    .edgePhase(getUploadPhase(cmd, "edge", ArgNames.EDGE_CONCURRENCY, 5,
+                            ArgNames.EDGE_REQUEST_UNITS))
+                    .edgeOverlapThreshold(Double.parseDouble(cmd.getOptionValue(ArgNames.EDGE_OVERLAP, "1")))
+                    .globalBudget(getGlobalBudget(cmd))
+                    .retryPolicy(getRetryPolicy(cmd))
+                    .checkpoint(checkpoint)
+                    .checkpointInterval(Duration.ofSeconds(
+                            Long.parseLong(cmd.getOptionValue(ArgNames.CHECKPOINT_INTERVAL, "30"))))
+                    .deadLetterSink(deadLetterSink)
+                    .build();
+            results.transitionState("Write Documents");
+            upload.accept(loader);
+        }
     }
 }
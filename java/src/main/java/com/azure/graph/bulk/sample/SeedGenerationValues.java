@@ -8,6 +8,9 @@ public class SeedGenerationValues {
         throw new IllegalStateException("Utility class, should not be constructed");
     }
 
+    protected static final String PERSON_LABEL = "PERSON";
+    protected static final String PARTITION_KEY_FIELD = "country";
+
     protected static final String[] firstNames = new String[]{
             "John", "Shawn", "Sean", "Shawna", "Jane", "Alexis", "Allan", "Sara", "Sarah", "Janet", "Selah",
             "Anastasia", "Juanita", "Jesus"
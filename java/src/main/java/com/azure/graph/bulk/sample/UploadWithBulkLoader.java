@@ -10,17 +10,41 @@ import com.azure.cosmos.CosmosAsyncDatabase;
 import com.azure.cosmos.CosmosClientBuilder;
 import com.azure.cosmos.models.CosmosContainerProperties;
 import com.azure.cosmos.models.CosmosContainerRequestOptions;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
 import com.azure.cosmos.models.CosmosContainerResponse;
 import com.azure.cosmos.models.CosmosDatabaseResponse;
 import com.azure.cosmos.models.CosmosItemOperation;
 import com.azure.cosmos.models.ThroughputProperties;
 import com.azure.graph.bulk.impl.BulkGremlinObjectMapper;
 import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import com.azure.graph.bulk.impl.PropertyIdGenerator;
+import com.azure.graph.bulk.impl.PropertyIdGenerators;
+import com.azure.graph.bulk.impl.upload.BulkOperationExecutor;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex;
+import com.azure.graph.bulk.impl.upload.ConversionPipeline;
+import com.azure.graph.bulk.impl.upload.DeadLetterSink;
+import com.azure.graph.bulk.impl.upload.GraphSource;
+import com.azure.graph.bulk.impl.upload.JsonlDeadLetterSink;
+import com.azure.graph.bulk.impl.upload.OffHeapStagingBuffer;
+import com.azure.graph.bulk.impl.upload.PartitionKeyGrouping;
+import com.azure.graph.bulk.impl.upload.PhasedBulkLoader;
+import com.azure.graph.bulk.impl.upload.RequestUnitBudget;
+import com.azure.graph.bulk.impl.upload.RetryPolicy;
+import com.azure.graph.bulk.impl.upload.UploadCheckpoint;
+import com.azure.graph.bulk.impl.upload.UploadPhase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Stream;
 
 
@@ -32,20 +56,63 @@ public class UploadWithBulkLoader {
     private CosmosAsyncContainer container;
 
     private final GremlinDocumentOperationCreator documentOperationCreator;
+    private final ContentHashIndex contentHashIndex;
+    private final ConversionPipeline conversionPipeline;
+    private final PartitionKeyGrouping partitionKeyGrouping;
+    private final OffHeapStagingBuffer stagingBuffer;
+    private final BulkOperationExecutor tee;
+    private final PhasedBulkLoader phasedBulkLoader;
+    private final UploadPhase vertexPhase;
+    private final UploadPhase edgePhase;
+    private final UploadCheckpoint checkpoint;
+    private final Duration checkpointInterval;
+    private final DeadLetterSink deadLetterSink;
+    private final AtomicBoolean checkpointStalled = new AtomicBoolean();
 
     public UploadWithBulkLoader() {
-        client = new CosmosClientBuilder()
-                .endpoint(DatabaseSettings.HOST)
-                .key(DatabaseSettings.MASTER_KEY)
-                .contentResponseOnWriteEnabled(true)
-                .consistencyLevel(ConsistencyLevel.SESSION)
-                .buildAsyncClient();
+        this(builder());
+    }
+
+    public UploadWithBulkLoader(UploadWithBulkLoaderBuilder builder) {
+        this.contentHashIndex = builder.contentHashIndex;
+        this.conversionPipeline = builder.conversionPipeline;
+        this.partitionKeyGrouping = builder.partitionKeyGrouping;
+        this.stagingBuffer = builder.stagingBuffer;
+        this.tee = builder.tee;
+        this.vertexPhase = builder.vertexPhase;
+        this.edgePhase = builder.edgePhase;
+        this.checkpoint = builder.checkpoint;
+        this.checkpointInterval = builder.checkpointInterval;
+        this.deadLetterSink = builder.deadLetterSink;
+
+        BulkOperationExecutor executor = builder.executor;
+        if (executor == null) {
+            client = new CosmosClientBuilder()
+                    .endpoint(DatabaseSettings.HOST)
+                    .key(DatabaseSettings.MASTER_KEY)
+                    .contentResponseOnWriteEnabled(true)
+                    .consistencyLevel(ConsistencyLevel.SESSION)
+                    .buildAsyncClient();
+
+            createDatabaseIfNotExists();
+            createContainerIfNotExists();
+            executor = BulkOperationExecutor.of(container);
+        } else {
+            client = null;
+        }
 
-        createDatabaseIfNotExists();
-        createContainerIfNotExists();
+        phasedBulkLoader = PhasedBulkLoader.builder()
+                .executor(executor)
+                .vertexPhase(builder.vertexPhase)
+                .edgePhase(builder.edgePhase)
+                .edgeOverlapThreshold(builder.edgeOverlapThreshold)
+                .globalBudget(builder.globalBudget)
+                .retryPolicy(builder.retryPolicy)
+                .build();
 
         documentOperationCreator = GremlinDocumentOperationCreator.builder()
-                .mapper(BulkGremlinObjectMapper.getBulkGremlinObjectMapper())
+                .mapper(BulkGremlinObjectMapper.getBulkGremlinObjectMapper(builder.propertyIdGenerator))
+                .contentHashIndex(contentHashIndex)
                 .build();
     }
 
@@ -101,25 +168,311 @@ public class UploadWithBulkLoader {
     @SuppressWarnings("rawtypes")
     public void uploadDocuments(
             Stream vertices, Stream edges, boolean createDocs) {
+        uploadDocuments(GraphSource.of(() -> vertices, () -> edges), createDocs);
+    }
 
-        Stream<CosmosItemOperation> operations;
-        if (createDocs) {
-            operations = documentOperationCreator.getVertexCreateOperations(vertices);
-            operations = Stream.concat(operations, documentOperationCreator.getEdgeCreateOperations(edges));
-        } else {
-            operations = documentOperationCreator.getVertexUpsertOperations(vertices);
-            operations = Stream.concat(operations, documentOperationCreator.getEdgeUpsertOperations(edges));
-        }
-
-        container.executeBulkOperations(Flux.fromStream(operations))
-                .filter(r -> r.getException() != null || r.getResponse().getStatusCode() > 299)
-                .doOnNext(r -> {
-                    if (r.getException() != null) {
-                        log.error("Failed with exception {0}", r.getException());
-                    } else {
-                        log.error("Failed with status code {}", r.getResponse().getStatusCode());
-                    }
-                })
+    /**
+     * Uploads the vertices and then the edges of the source, the edges are only asked for once the vertices have
+     * been read
+     *
+     * @param source     provides the vertices and the edges
+     * @param createDocs true to create the documents, false to upsert them
+     */
+    public void uploadDocuments(GraphSource source, boolean createDocs) {
+        Function<Object, CosmosItemOperation> vertexConverter = createDocs
+                ? documentOperationCreator::getVertexCreateOperation
+                : documentOperationCreator::getVertexUpsertOperation;
+        Function<Object, CosmosItemOperation> edgeConverter = createDocs
+                ? documentOperationCreator::getEdgeCreateOperation
+                : documentOperationCreator::getEdgeUpsertOperation;
+
+        Flux<CosmosItemOperation> vertexOperations = Flux.defer(() ->
+                convert(vertexPhase.getName(), source.getVertices(), vertexConverter));
+        Flux<CosmosItemOperation> edgeOperations = Flux.defer(() ->
+                convert(edgePhase.getName(), source.getEdges(), edgeConverter));
+
+        Disposable checkpointSaving = checkpoint == null
+                ? Disposables.disposed()
+                : Flux.interval(checkpointInterval).subscribe(tick -> saveCheckpoint());
+        try {
+            upload(vertexOperations, edgeOperations);
+        } finally {
+            checkpointSaving.dispose();
+            if (checkpoint != null) saveCheckpoint();
+        }
+    }
+
+    /**
+     * Writes again the operations a JsonlDeadLetterSink recorded, the vertices before the edges, with the same phases
+     * and request unit budgets as an upload. Operations failing again go to the dead letter sink of this loader.
+     *
+     * @param deadLetters file written by a JsonlDeadLetterSink, it must not be the file of the dead letter sink of
+     *                    this loader
+     */
+    public void replay(Path deadLetters) {
+        Flux<CosmosItemOperation> vertexOperations = readDeadLetters(deadLetters)
+                .filter(operation -> !GremlinDocumentOperationCreator.isEdge(operation));
+        Flux<CosmosItemOperation> edgeOperations = readDeadLetters(deadLetters)
+                .filter(GremlinDocumentOperationCreator::isEdge);
+
+        upload(vertexOperations, edgeOperations);
+    }
+
+    private static Flux<CosmosItemOperation> readDeadLetters(Path deadLetters) {
+        return Flux.using(() -> JsonlDeadLetterSink.read(deadLetters), Flux::fromStream, Stream::close);
+    }
+
+    private void upload(Flux<CosmosItemOperation> vertexOperations, Flux<CosmosItemOperation> edgeOperations) {
+        phasedBulkLoader.load(prepare(vertexOperations), prepare(edgeOperations))
+                .doOnNext(this::handleResponse)
                 .blockLast();
     }
+
+    /**
+     * Regroups the operations by partition key, stages them off the heap and hands them to the tee, when configured
+     */
+    private Flux<CosmosItemOperation> prepare(Flux<CosmosItemOperation> operations) {
+        if (partitionKeyGrouping != null) operations = partitionKeyGrouping.group(operations);
+        if (stagingBuffer != null) operations = stagingBuffer.stage(operations);
+        if (tee != null) operations = tee(operations);
+        return operations;
+    }
+
+    /**
+     * The tee gets each operation once, ahead of the retry policy, its responses are dropped
+     */
+    private Flux<CosmosItemOperation> tee(Flux<CosmosItemOperation> operations) {
+        return operations.publish(shared -> Flux.merge(shared,
+                tee.execute(shared, new CosmosBulkExecutionOptions()).thenMany(Flux.<CosmosItemOperation>empty())));
+    }
+
+    private void handleResponse(CosmosBulkOperationResponse<Object> r) {
+        if (!DeadLetterSink.isFailure(r)) {
+            if (checkpoint != null) checkpoint.acknowledge(r);
+            // Only record the content hash once the document is stored
+            if (contentHashIndex != null) contentHashIndex.markWritten(r.getOperation());
+            return;
+        }
+
+        if (r.getException() != null) {
+            log.error("Failed with exception", r.getException());
+        } else if (r.getResponse() == null) {
+            log.error("Failed without a response");
+        } else {
+            log.error("Failed with status code {}", r.getResponse().getStatusCode());
+        }
+
+        if (deadLetterSink == null) {
+            if (checkpoint != null && !checkpoint.acknowledge(r) && checkpointStalled.compareAndSet(false, true)) {
+                log.warn("Document {} failed without a dead letter sink, the checkpoint of its phase can't move past " +
+                                "it and tracks every later document until the phase ends. Further failures holding " +
+                                "the checkpoint back aren't reported.",
+                        GremlinDocumentOperationCreator.getId(r.getOperation()));
+            }
+        } else {
+            deadLetterSink.accept(r);
+            // The failed operation is kept by the dead letter sink, a restart doesn't need to write it again
+            if (checkpoint != null) checkpoint.done(r.getOperation());
+        }
+    }
+
+    /**
+     * Converts the objects the checkpoint doesn't show as done, or all the objects without a checkpoint
+     */
+    private Flux<CosmosItemOperation> convert(
+            String phase, Stream<?> source, Function<Object, CosmosItemOperation> converter) {
+        return checkpoint == null
+                ? convert(source, converter)
+                : convert(checkpoint.resume(phase, source), checkpoint.track(phase, converter));
+    }
+
+    /**
+     * Converts the objects on the ConversionPipeline when one is configured, otherwise on the scheduler of the
+     * GremlinDocumentOperationCreator
+     */
+    private <T> Flux<CosmosItemOperation> convert(
+            Stream<T> source, Function<? super T, CosmosItemOperation> converter) {
+        return conversionPipeline == null
+                ? documentOperationCreator.getOperations(Flux.fromStream(source), converter)
+                : conversionPipeline.convert(source, converter);
+    }
+
+    private void saveCheckpoint() {
+        try {
+            checkpoint.save();
+        } catch (IOException e) {
+            log.error("Unable to save the checkpoint", e);
+        }
+    }
+
+    public static UploadWithBulkLoaderBuilder builder() {
+        return new UploadWithBulkLoaderBuilder();
+    }
+
+    public static class UploadWithBulkLoaderBuilder {
+        UploadWithBulkLoaderBuilder() {
+
+        }
+
+        private BulkOperationExecutor executor;
+        private PropertyIdGenerator propertyIdGenerator = PropertyIdGenerators.threadLocalRandom();
+        private ContentHashIndex contentHashIndex;
+        private ConversionPipeline conversionPipeline;
+        private PartitionKeyGrouping partitionKeyGrouping;
+        private OffHeapStagingBuffer stagingBuffer;
+        private BulkOperationExecutor tee;
+        private UploadPhase vertexPhase = UploadPhase.builder().name("vertex").concurrency(1).build();
+        private UploadPhase edgePhase = UploadPhase.builder().name("edge").concurrency(5).build();
+        private double edgeOverlapThreshold = 1;
+        private RequestUnitBudget globalBudget;
+        private RetryPolicy retryPolicy = RetryPolicy.builder().build();
+        private UploadCheckpoint checkpoint;
+        private Duration checkpointInterval = Duration.ofSeconds(30);
+        private DeadLetterSink deadLetterSink;
+
+        /**
+         * @param executor runs the bulk operations, e.g. a JsonlBulkExecutor or a SimulatedBulkExecutor, no Cosmos DB
+         *                 client is created when provided, defaults to the container of the DatabaseSettings
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder executor(BulkOperationExecutor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * @param propertyIdGenerator generates the ids of the vertex properties
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder propertyIdGenerator(PropertyIdGenerator propertyIdGenerator) {
+            this.propertyIdGenerator = propertyIdGenerator;
+            return this;
+        }
+
+        /**
+         * @param contentHashIndex when provided, documents that haven't changed since the last load are skipped and
+         *                         the index is updated with every document written successfully
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder contentHashIndex(ContentHashIndex contentHashIndex) {
+            this.contentHashIndex = contentHashIndex;
+            return this;
+        }
+
+        /**
+         * @param conversionPipeline when provided, converts the objects on the worker threads of the pipeline
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder conversionPipeline(ConversionPipeline conversionPipeline) {
+            this.conversionPipeline = conversionPipeline;
+            return this;
+        }
+
+        /**
+         * @param partitionKeyGrouping when provided, regroups the operations by partition key before they are handed
+         *                             to the bulk executor
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder partitionKeyGrouping(PartitionKeyGrouping partitionKeyGrouping) {
+            this.partitionKeyGrouping = partitionKeyGrouping;
+            return this;
+        }
+
+        /**
+         * @param stagingBuffer when provided, holds the documents waiting for the bulk executor off the heap
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder stagingBuffer(OffHeapStagingBuffer stagingBuffer) {
+            this.stagingBuffer = stagingBuffer;
+            return this;
+        }
+
+        /**
+         * @param tee when provided, also gets every operation handed to the executor, e.g. a JsonlBulkExecutor keeping
+         *            a copy of the documents, the operations written again by the retry policy aren't handed twice
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder tee(BulkOperationExecutor tee) {
+            this.tee = tee;
+            return this;
+        }
+
+        /**
+         * @param vertexPhase concurrency and request unit budget of the vertices, defaults to a concurrency of 1
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder vertexPhase(UploadPhase vertexPhase) {
+            this.vertexPhase = vertexPhase;
+            return this;
+        }
+
+        /**
+         * @param edgePhase concurrency and request unit budget of the edges, defaults to a concurrency of 5
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder edgePhase(UploadPhase edgePhase) {
+            this.edgePhase = edgePhase;
+            return this;
+        }
+
+        /**
+         * @param edgeOverlapThreshold share of the vertices written before the edges start, defaults to 1
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder edgeOverlapThreshold(double edgeOverlapThreshold) {
+            this.edgeOverlapThreshold = edgeOverlapThreshold;
+            return this;
+        }
+
+        /**
+         * @param globalBudget request unit budget of the whole upload, adapted to the throttling by Cosmos DB
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder globalBudget(RequestUnitBudget globalBudget) {
+            this.globalBudget = globalBudget;
+            return this;
+        }
+
+        /**
+         * @param retryPolicy writes the operations failing with a transient failure again, null disables the retries,
+         *                    defaults to the default RetryPolicy
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * @param checkpoint when provided, skips the objects a previous upload got through and records the progress
+         *                   of this one
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder checkpoint(UploadCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * @param checkpointInterval how often the checkpoint is saved during the upload, defaults to 30 seconds
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder checkpointInterval(Duration checkpointInterval) {
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        /**
+         * @param deadLetterSink when provided, receives the operations that failed, see replay
+         * @return the builder
+         */
+        public UploadWithBulkLoaderBuilder deadLetterSink(DeadLetterSink deadLetterSink) {
+            this.deadLetterSink = deadLetterSink;
+            return this;
+        }
+
+        public UploadWithBulkLoader build() {
+            return new UploadWithBulkLoader(this);
+        }
+    }
 }
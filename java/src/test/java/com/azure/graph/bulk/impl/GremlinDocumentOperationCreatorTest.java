@@ -0,0 +1,211 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.model.GremlinEdge;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.TestInstance.Lifecycle;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestInstance(Lifecycle.PER_CLASS)
+class GremlinDocumentOperationCreatorTest {
+    private ObjectMapper mapper;
+    private GremlinDocumentOperationCreator creator;
+
+    @BeforeAll
+    void setup() {
+        mapper = BulkGremlinObjectMapper.getBulkGremlinObjectMapper();
+        creator = GremlinDocumentOperationCreator.builder().mapper(mapper).build();
+    }
+
+    @Test
+    void VertexOperationHoldsSerializedTreeTest() throws Exception {
+        GremlinVertex vertex = getGremlinVertex();
+        CosmosItemOperation operation = creator.getVertexCreateOperation(vertex);
+
+        assertEquals(CosmosItemOperationType.CREATE, operation.getOperationType());
+        ObjectNode document = getDocument(operation);
+        assertEquals("vertex-1", document.get("id").asText());
+        assertEquals("PERSON", document.get("label").asText());
+        assertEquals("Neverland", document.get("country").asText());
+        assertEquals("John", document.get("firstName").get(0).get("_value").asText());
+
+        // Same document, apart from the generated property ids, as the String based serialization
+        JsonNode expected = mapper.readTree(mapper.writeValueAsString(vertex));
+        assertEquals(expected.size(), document.size());
+        assertEquals(expected.get("firstName").get(0).get("_value"), document.get("firstName").get(0).get("_value"));
+    }
+
+    @Test
+    void EdgeOperationHoldsSerializedTreeTest() {
+        GremlinEdge edge = GremlinEdge.builder()
+                .id("edge-1")
+                .label("KNOWS")
+                .sourceVertexInfo(getVertexInfo("vertex-1"))
+                .destinationVertexInfo(getVertexInfo("vertex-2"))
+                .partitionKey(GremlinPartitionKey.builder().fieldName("country").value("Neverland").build())
+                .properties(new HashMap<>())
+                .build();
+        edge.addProperty("since", 2001);
+
+        CosmosItemOperation operation = creator.getEdgeUpsertOperation(edge);
+
+        assertEquals(CosmosItemOperationType.UPSERT, operation.getOperationType());
+        ObjectNode document = getDocument(operation);
+        assertEquals("edge-1", document.get("id").asText());
+        assertEquals("KNOWS", document.get("label").asText());
+        assertEquals(2001, document.get("since").asInt());
+        assertTrue(document.get("_isEdge").asBoolean());
+    }
+
+    @Test
+    void IdIsReadFromTheDocumentTest() {
+        CosmosItemOperation create = creator.getVertexCreateOperation(getGremlinVertex());
+        // The SDK leaves the id of the operations carrying a document null
+        assertNull(create.getId());
+        assertEquals("vertex-1", GremlinDocumentOperationCreator.getId(create));
+
+        assertEquals("vertex-2", GremlinDocumentOperationCreator.getId(
+                CosmosBulkOperations.getDeleteItemOperation("vertex-2", new PartitionKey("Neverland"))));
+        assertNull(GremlinDocumentOperationCreator.getId(
+                CosmosBulkOperations.getCreateItemOperation("not a document", new PartitionKey("Neverland"))));
+    }
+
+    @Test
+    void EqualPartitionKeysHaveEqualKeysTest() {
+        CosmosItemOperation first = creator.getVertexCreateOperation(getGremlinVertex());
+        CosmosItemOperation second = creator.getVertexCreateOperation(getGremlinVertex());
+        assertNotSame(first.getPartitionKeyValue(), second.getPartitionKeyValue());
+
+        String partitionKey = GremlinDocumentOperationCreator.partitionKeyOf(first);
+        assertEquals(partitionKey, GremlinDocumentOperationCreator.partitionKeyOf(second));
+        assertEquals(partitionKey.hashCode(), GremlinDocumentOperationCreator.partitionKeyOf(second).hashCode());
+        assertEquals(partitionKey, GremlinDocumentOperationCreator.partitionKeyOf(first.getPartitionKeyValue()));
+        assertNull(GremlinDocumentOperationCreator.partitionKeyOf((PartitionKey) null));
+    }
+
+    @Test
+    void ContentHashIndexSkipsUnchangedDocumentsTest(@TempDir Path directory) throws Exception {
+        try (ContentHashIndex index = ContentHashIndex.open(directory.resolve("hashes.idx"))) {
+            GremlinDocumentOperationCreator hashingCreator = GremlinDocumentOperationCreator.builder()
+                    .mapper(BulkGremlinObjectMapper.getBulkGremlinObjectMapper(PropertyIdGenerators.deterministic()))
+                    .contentHashIndex(index)
+                    .build();
+
+            CosmosItemOperation operation = hashingCreator.getVertexUpsertOperation(getGremlinVertex());
+            assertNotNull(operation);
+            // Not written yet, so the document is still considered changed
+            assertNotNull(hashingCreator.getVertexUpsertOperation(getGremlinVertex()));
+
+            index.markWritten(operation);
+            assertNull(hashingCreator.getVertexUpsertOperation(getGremlinVertex()));
+            assertEquals(0, hashingCreator.getVertexUpsertOperations(Stream.of(getGremlinVertex())).count());
+
+            GremlinVertex changed = getGremlinVertex();
+            changed.addProperty("age", 43);
+            assertNotNull(hashingCreator.getVertexUpsertOperation(changed));
+        }
+    }
+
+    @Test
+    void FluxConvertsInParallelTest() {
+        GremlinDocumentOperationCreator parallelCreator = GremlinDocumentOperationCreator.builder()
+                .mapper(mapper)
+                .parallelism(4)
+                .prefetch(16)
+                .build();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        Flux<Object> vertices = Flux.range(0, 1000).map(i -> getGremlinVertex("vertex-" + i));
+        List<CosmosItemOperation> operations = parallelCreator.getVertexUpsertOperations(vertices)
+                .doOnNext(operation -> threads.add(Thread.currentThread().getName()))
+                .collectList()
+                .block();
+
+        assertNotNull(operations);
+        assertEquals(1000, operations.stream().map(operation -> getDocument(operation).get("id").asText())
+                .distinct().count());
+        assertTrue(operations.stream()
+                .allMatch(operation -> operation.getOperationType() == CosmosItemOperationType.UPSERT));
+        assertFalse(threads.contains(Thread.currentThread().getName()));
+    }
+
+    @Test
+    void FluxKeepsBackpressureTest() {
+        GremlinDocumentOperationCreator parallelCreator = GremlinDocumentOperationCreator.builder()
+                .mapper(mapper)
+                .parallelism(2)
+                .prefetch(8)
+                .build();
+        AtomicInteger produced = new AtomicInteger();
+
+        Flux<Object> vertices = Flux.range(0, 100_000)
+                .doOnNext(i -> produced.incrementAndGet())
+                .map(i -> getGremlinVertex("vertex-" + i));
+
+        StepVerifier.create(parallelCreator.getVertexCreateOperations(vertices), 10)
+                .expectNextCount(10)
+                .thenCancel()
+                .verify();
+
+        // Only the prefetch of the parallel rails, and of the merge, is read ahead of the demand
+        assertTrue(produced.get() < 100, "produced " + produced.get());
+    }
+
+    private ObjectNode getDocument(CosmosItemOperation operation) {
+        Object item = operation.getItem();
+        assertTrue(item instanceof JsonSerializable);
+        return ((JsonSerializable) item).getPropertyBag();
+    }
+
+    private GremlinVertex getGremlinVertex() {
+        return getGremlinVertex("vertex-1");
+    }
+
+    private GremlinVertex getGremlinVertex(String id) {
+        GremlinVertex vertex = GremlinVertex.builder()
+                .id(id)
+                .label("PERSON")
+                .partitionKey(GremlinPartitionKey.builder().fieldName("country").value("Neverland").build())
+                .properties(new HashMap<>())
+                .build();
+        vertex.addProperty("firstName", "John");
+        vertex.addProperty("age", 42);
+        return vertex;
+    }
+
+    private GremlinEdgeVertexInfo getVertexInfo(String id) {
+        return GremlinEdgeVertexInfo.builder()
+                .id(id)
+                .label("PERSON")
+                .partitionKey(GremlinPartitionKey.builder().fieldName("country").value("Neverland").build())
+                .build();
+    }
+}
@@ -4,6 +4,8 @@
 package com.azure.graph.bulk.impl;
 
 import com.azure.graph.bulk.impl.model.GremlinVertex;
+import com.azure.graph.bulk.impl.model.VertexProperties;
+import com.azure.graph.bulk.impl.model.VertexSchema;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeAll;
@@ -14,6 +16,7 @@ import org.junit.jupiter.api.TestInstance.Lifecycle;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -39,6 +42,57 @@ class GremlinVertexSerializationTest {
         assertTrue(serializedContent.contains("\"label\":\"schema\","));
     }
 
+    @Test
+    void SlottedPropertiesSerializeLikeMapTest() throws JsonProcessingException {
+        PropertyIdGenerator ids = (vertexId, key, index) -> vertexId + "|" + key;
+        ObjectMapper deterministic = BulkGremlinObjectMapper.getBulkGremlinObjectMapper(ids);
+        GremlinVertex slotted = GremlinVertex.builder().id("1").label("slotted").build();
+        GremlinVertex mapped = GremlinVertex.builder().id("1").label("slotted").properties(new HashMap<>()).build();
+        for (GremlinVertex vertex : new GremlinVertex[]{slotted, mapped}) {
+            vertex.addProperty("country", "Neverland", true);
+            vertex.addProperty("name", "Peter");
+            vertex.addProperty("age", 12);
+            vertex.addProperty("height", 1.42);
+            vertex.addProperty("born", 1_000_000_000_000L);
+        }
+
+        assertEquals(slotted.getProperties(), mapped.getProperties());
+        assertEquals(deterministic.readTree(deterministic.writeValueAsString(mapped)),
+                deterministic.readTree(deterministic.writeValueAsString(slotted)));
+        assertTrue(deterministic.writeValueAsString(slotted).contains("\"age\":[{\"id\":\"1|age\",\"_value\":12}]"));
+    }
+
+    @Test
+    void DocumentDoesNotDependOnTheSlotsTest() throws JsonProcessingException {
+        PropertyIdGenerator ids = (vertexId, key, index) -> vertexId + "|" + key;
+        ObjectMapper deterministic = BulkGremlinObjectMapper.getBulkGremlinObjectMapper(ids);
+        // A schema of its own, so the slots don't depend on the vertices built by other tests
+        VertexSchema schema = new VertexSchema();
+        // Built before the schema has any slot, its properties are all in the overflow
+        GremlinVertex early = promotedVertex(schema, true);
+        for (int i = 0; i < 100; i++) promotedVertex(schema, false);
+        GremlinVertex late = promotedVertex(schema, true);
+
+        VertexProperties properties = (VertexProperties) late.getProperties();
+        assertEquals(Set.of("color"), properties.getOverflow().keySet());
+        assertEquals(deterministic.writeValueAsString(early), deterministic.writeValueAsString(late));
+    }
+
+    private static GremlinVertex promotedVertex(VertexSchema schema, boolean withColor) {
+        GremlinVertex vertex = GremlinVertex.builder()
+                .id("1")
+                .label("promoted")
+                .properties(new VertexProperties(schema))
+                .build();
+        vertex.addProperty("country", "Neverland", true);
+        vertex.addProperty("name", "Peter");
+        vertex.addProperty("age", 12);
+        vertex.addProperty("height", 1.42);
+        // Too rare to get a slot, sorts between the slotted names
+        if (withColor) vertex.addProperty("color", "green");
+        return vertex;
+    }
+
     private GremlinVertex getGremlinVertex() {
         SimpleDateFormat formatter = new SimpleDateFormat("yyyy-MM-dd 'at' HH:mm:ss z");
         Date date = new Date(System.currentTimeMillis());
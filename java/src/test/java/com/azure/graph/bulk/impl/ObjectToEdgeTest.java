@@ -3,11 +3,14 @@
 
 package com.azure.graph.bulk.impl;
 
+import com.azure.graph.bulk.impl.annotations.GremlinEdgeVertex;
+import com.azure.graph.bulk.impl.annotations.GremlinEdgeVertex.Direction;
 import com.azure.graph.bulk.impl.annotations.GremlinId;
 import com.azure.graph.bulk.impl.model.AnnotationValidationException;
 import com.azure.graph.bulk.impl.model.GremlinEdge;
 import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
 import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
+import com.azure.graph.bulk.sample.model.PersonVertex;
 import com.azure.graph.bulk.sample.model.RelationshipEdge;
 import org.junit.jupiter.api.Test;
 
@@ -65,4 +68,47 @@ class ObjectToEdgeTest {
         SoManyProblems problems = new SoManyProblems();
         assertThrows(AnnotationValidationException.class, () -> ObjectToEdge.toGremlinEdge(problems));
     }
+
+    @com.azure.graph.bulk.impl.annotations.GremlinEdge(label = "KNOWS", partitionKeyFieldName = "country")
+    static class KnowsEdge {
+        @GremlinId
+        public String id;
+        @GremlinEdgeVertex(direction = Direction.SOURCE)
+        public PersonVertex source;
+        @GremlinEdgeVertex(direction = Direction.DESTINATION)
+        public PersonVertex destination;
+        public Integer since;
+    }
+
+    @Test
+    void DomainVertexEndpointsAreConverted() {
+        KnowsEdge edge = new KnowsEdge();
+        edge.id = UUID.randomUUID().toString();
+        edge.source = PersonVertex.builder().id("source").country("Neverland").build();
+        edge.destination = PersonVertex.builder().id("destination").country("Wonderland").build();
+        edge.since = 2001;
+
+        GremlinEdge results = ObjectToEdge.toGremlinEdge(edge);
+
+        assertEquals(edge.id, results.getId());
+        assertEquals("KNOWS", results.getLabel());
+        assertEquals("source", results.getSourceVertexInfo().getId());
+        assertEquals("PERSON", results.getSourceVertexInfo().getLabel());
+        assertEquals("destination", results.getDestinationVertexInfo().getId());
+        assertEquals("Wonderland", results.getDestinationVertexInfo().getPartitionKey().getValue());
+        assertEquals("country", results.getPartitionKey().getFieldName());
+        assertEquals("Neverland", results.getPartitionKey().getValue());
+        assertEquals(2001, results.getProperties().get("since"));
+        assertEquals(1, results.getProperties().size());
+        assertDoesNotThrow(results::validate);
+    }
+
+    @Test
+    void MissingEdgeVertexThrowsException() {
+        KnowsEdge edge = new KnowsEdge();
+        edge.id = UUID.randomUUID().toString();
+        edge.source = PersonVertex.builder().id("source").country("Neverland").build();
+
+        assertThrows(IllegalArgumentException.class, () -> ObjectToEdge.toGremlinEdge(edge));
+    }
 }
@@ -6,12 +6,15 @@ package com.azure.graph.bulk.impl;
 import com.azure.graph.bulk.impl.annotations.GremlinId;
 import com.azure.graph.bulk.impl.annotations.GremlinLabel;
 import com.azure.graph.bulk.impl.annotations.GremlinLabelGetter;
+import com.azure.graph.bulk.impl.annotations.GremlinPropertyMap;
 import com.azure.graph.bulk.impl.model.AnnotationValidationException;
 import com.azure.graph.bulk.impl.model.GremlinPartitionKey;
 import com.azure.graph.bulk.impl.model.GremlinVertex;
 import com.azure.graph.bulk.sample.model.PersonVertex;
 import org.junit.jupiter.api.Test;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -79,4 +82,84 @@ class ObjectToVertexTest {
         SoManyProblems problems = new SoManyProblems();
         assertThrows(AnnotationValidationException.class, () -> ObjectToVertex.toGremlinVertex(problems));
     }
+
+    @com.azure.graph.bulk.impl.annotations.GremlinVertex
+    static class LabelFromGetter {
+        @GremlinId
+        public String id = "getter-id";
+        @com.azure.graph.bulk.impl.annotations.GremlinPartitionKey(fieldName = "pk")
+        public String partitionKey = "pk-value";
+        public String name = "value";
+
+        @GremlinLabelGetter
+        public String label() {
+            return "GetterLabel";
+        }
+    }
+
+    @Test
+    void LabelFromGetterIsUsedWhenClassLabelIsBlank() {
+        GremlinVertex converted = ObjectToVertex.toGremlinVertex(new LabelFromGetter());
+
+        assertEquals("GetterLabel", converted.getLabel());
+        assertEquals("getter-id", converted.getId());
+        assertEquals("pk", converted.getPartitionKey().getFieldName());
+        assertEquals("value", converted.getProperties().get("name"));
+        assertDoesNotThrow(converted::validate);
+    }
+
+    @com.azure.graph.bulk.impl.annotations.GremlinVertex
+    static class LabelFromField {
+        @GremlinId
+        public String id;
+        @com.azure.graph.bulk.impl.annotations.GremlinPartitionKey
+        public String partitionKey;
+        @GremlinLabel
+        public String label;
+        @GremlinPropertyMap
+        public Map<String, Object> extra = new HashMap<>();
+    }
+
+    @Test
+    void LabelFieldAndPropertyMapAreReadPerInstance() {
+        LabelFromField first = new LabelFromField();
+        first.id = "1";
+        first.partitionKey = "pk";
+        first.label = "first";
+        first.extra.put("color", "red");
+        first.extra.put("missing", null);
+
+        LabelFromField second = new LabelFromField();
+        second.id = "2";
+        second.partitionKey = "pk";
+        second.label = "second";
+
+        GremlinVertex firstConverted = ObjectToVertex.toGremlinVertex(first);
+        GremlinVertex secondConverted = ObjectToVertex.toGremlinVertex(second);
+
+        assertEquals("first", firstConverted.getLabel());
+        assertEquals("red", firstConverted.getProperties().get("color"));
+        assertFalse(firstConverted.getProperties().containsKey("missing"));
+        assertFalse(firstConverted.getProperties().containsKey("extra"));
+        assertFalse(firstConverted.getProperties().containsKey("label"));
+
+        assertEquals("second", secondConverted.getLabel());
+        assertEquals("2", secondConverted.getId());
+        assertTrue(secondConverted.getProperties().isEmpty());
+    }
+
+    @Test
+    void NullIdThrowsException() {
+        LabelFromField missingId = new LabelFromField();
+        missingId.partitionKey = "pk";
+        missingId.label = "label";
+
+        assertThrows(IllegalArgumentException.class, () -> ObjectToVertex.toGremlinVertex(missingId));
+    }
+
+    @Test
+    void MissingAnnotationThrowsException() {
+        Object notAVertex = new Object();
+        assertThrows(IllegalArgumentException.class, () -> ObjectToVertex.toGremlinVertex(notAVertex));
+    }
 }
@@ -8,6 +8,7 @@ import com.azure.cosmos.CosmosClient;
 import com.azure.cosmos.CosmosClientBuilder;
 import com.azure.cosmos.CosmosException;
 import com.azure.cosmos.models.CosmosDatabaseRequestOptions;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
 import com.azure.graph.bulk.impl.tinkerpop.CosmosDBGremlinExecutor;
 import com.azure.graph.bulk.impl.tinkerpop.GremlinCluster;
 import com.azure.graph.bulk.impl.tinkerpop.GremlinExecutionException;
@@ -24,6 +25,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -50,8 +52,9 @@ class UploadWithBulkLoaderIT {
     @Test
     void UploadWithBulkLoaderTest() throws GremlinExecutionException {
         // Generate vertices and edges for testing
-        List<PersonVertex> vertices = GenerateDomainSamples.getVertices(10);
-        List<RelationshipEdge> edges = GenerateDomainSamples.getEdges(vertices, 5);
+        VertexDirectory directory = new VertexDirectory();
+        List<PersonVertex> vertices = GenerateDomainSamples.getVertices(10, directory).collect(Collectors.toList());
+        List<RelationshipEdge> edges = GenerateDomainSamples.getEdges(directory, 5).collect(Collectors.toList());
 
         // Upload
         UploadWithBulkLoader loader = new UploadWithBulkLoader();
@@ -12,6 +12,8 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -270,4 +272,23 @@ class EdgeAnnotationValidatorTest {
 
         assertEquals(0, results.size());
     }
+
+    @Test
+    void ParallelValidationReturnsCachedResults() {
+        EdgeAnnotationValidator parallelValidator = new EdgeAnnotationValidator();
+        List<Class<?>> classes = List.of(RelationshipEdge.class, MissingLabel.class, HasPartitionKey.class,
+                ToManyIds.class, HasId.class);
+
+        List<List<String>> results = IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> parallelValidator.validate(classes.get(i % classes.size())))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < results.size(); i++) {
+            assertSame(parallelValidator.validate(classes.get(i % classes.size())), results.get(i));
+        }
+        assertEquals(0, parallelValidator.validate(HasId.class).size());
+        assertEquals(List.of(EdgeAnnotationValidator.GREMLIN_EDGE_ID), parallelValidator.validate(ToManyIds.class));
+        assertThrows(UnsupportedOperationException.class,
+                () -> parallelValidator.validate(ToManyIds.class).add("not cached"));
+    }
 }
@@ -10,6 +10,8 @@ import org.junit.jupiter.api.TestInstance;
 import org.junit.jupiter.api.TestInstance.Lifecycle;
 
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -209,4 +211,23 @@ class VertexAnnotationValidatorTest {
         assertEquals(1, results.size());
         assertEquals(VertexAnnotationValidator.GREMLIN_ID_INVALID, results.get(0));
     }
+
+    @Test
+    void ParallelValidationReturnsCachedResults() {
+        VertexAnnotationValidator parallelValidator = new VertexAnnotationValidator();
+        List<Class<?>> classes = List.of(PersonVertex.class, MissingLabel.class, FieldLevelLabel.class,
+                NoId.class, TooManyIds.class);
+
+        List<List<String>> results = IntStream.range(0, 10_000).parallel()
+                .mapToObj(i -> parallelValidator.validate(classes.get(i % classes.size())))
+                .collect(Collectors.toList());
+
+        for (int i = 0; i < results.size(); i++) {
+            assertSame(parallelValidator.validate(classes.get(i % classes.size())), results.get(i));
+        }
+        assertEquals(0, parallelValidator.validate(PersonVertex.class).size());
+        assertEquals(List.of(VertexAnnotationValidator.GREMLIN_ID_INVALID), parallelValidator.validate(NoId.class));
+        assertThrows(UnsupportedOperationException.class,
+                () -> parallelValidator.validate(NoId.class).add("not cached"));
+    }
 }
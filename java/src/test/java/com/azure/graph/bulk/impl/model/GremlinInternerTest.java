@@ -0,0 +1,94 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import com.azure.graph.bulk.impl.ObjectToEdge;
+import com.azure.graph.bulk.impl.ObjectToVertex;
+import com.azure.graph.bulk.sample.model.PersonVertex;
+import com.azure.graph.bulk.sample.model.RelationshipEdge;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GremlinInternerTest {
+    @Test
+    void LabelsArePooledTest() {
+        String label = GremlinInterner.label(new String("interned-label"));
+
+        assertSame(label, GremlinInterner.label(new String("interned-label")));
+        assertSame(label, GremlinVertex.builder().label(new String("interned-label")).build().getLabel());
+        assertNull(GremlinInterner.label(null));
+    }
+
+    @Test
+    void PartitionKeysAreCanonicalTest() {
+        GremlinPartitionKey partitionKey = GremlinInterner.partitionKey("country", new String("Neverland"));
+
+        assertSame(partitionKey, GremlinInterner.partitionKey("country", "Neverland"));
+        assertNotSame(partitionKey, GremlinInterner.partitionKey("region", "Neverland"));
+        assertNotEquals(GremlinInterner.partitionKey("age", 1), GremlinInterner.partitionKey("age", 1L));
+        assertEquals(GremlinPartitionKey.builder().fieldName("country").value("Neverland").build(), partitionKey);
+    }
+
+    @Test
+    void SharedPartitionKeysCannotBeModifiedTest() {
+        GremlinPartitionKey partitionKey = GremlinInterner.partitionKey("country", "Atlantis");
+
+        assertThrows(IllegalStateException.class, () -> partitionKey.setValue("Lemuria"));
+        assertThrows(IllegalStateException.class, () -> GremlinInterner.partitionKey("country", null));
+        assertThrows(IllegalStateException.class, () -> GremlinInterner.partitionKey("country", new Object()));
+    }
+
+    @Test
+    void ConvertedObjectsShareValuesTest() {
+        PersonVertex first = PersonVertex.builder().id("1").country("Neverland").build();
+        PersonVertex second = PersonVertex.builder().id("2").country(new String("Neverland")).build();
+
+        GremlinVertex firstVertex = ObjectToVertex.toGremlinVertex(first);
+        GremlinVertex secondVertex = ObjectToVertex.toGremlinVertex(second);
+        assertSame(firstVertex.getPartitionKey(), secondVertex.getPartitionKey());
+
+        GremlinEdge edge = ObjectToEdge.toGremlinEdge(RelationshipEdge.builder()
+                .sourceVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(first))
+                .destinationVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(second))
+                .relationshipType(new String("KNOWS"))
+                .build());
+        assertSame(GremlinInterner.label("KNOWS"), edge.getLabel());
+        assertSame(firstVertex.getPartitionKey(), edge.getSourceVertexInfo().getPartitionKey());
+        assertSame(edge.getPartitionKey(), ObjectToEdge.toGremlinEdge(RelationshipEdge.builder()
+                .sourceVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(first))
+                .destinationVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(second))
+                .relationshipType("KNOWS")
+                .build()).getPartitionKey());
+    }
+
+    @Test
+    void PartitionKeyValuesAreSetOnTheOwnerTest() {
+        GremlinVertex first = ObjectToVertex.toGremlinVertex(PersonVertex.builder().id("1").country("Avalon").build());
+        GremlinVertex second = ObjectToVertex.toGremlinVertex(PersonVertex.builder().id("2").country("Avalon").build());
+        GremlinEdge edge = ObjectToEdge.toGremlinEdge(RelationshipEdge.builder()
+                .sourceVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(first))
+                .destinationVertexInfo(GremlinEdgeVertexInfo.fromGremlinVertex(second))
+                .relationshipType("KNOWS")
+                .build());
+
+        first.setPartitionKeyValue("Lemuria");
+        edge.setPartitionKeyValue("Lemuria");
+        edge.getDestinationVertexInfo().setPartitionKeyValue("Lemuria");
+
+        assertSame(GremlinInterner.partitionKey("country", "Lemuria"), first.getPartitionKey());
+        assertEquals("Avalon", second.getPartitionKey().getValue());
+        assertEquals("Lemuria", edge.getPartitionKey().getValue());
+        assertEquals("Avalon", edge.getSourceVertexInfo().getPartitionKey().getValue());
+        assertEquals("Lemuria", edge.getDestinationVertexInfo().getPartitionKey().getValue());
+        assertEquals("Avalon", GremlinInterner.partitionKey("country", "Avalon").getValue());
+        assertThrows(IllegalStateException.class, () -> first.setPartitionKeyValue(new Object()));
+    }
+
+    @Test
+    void EncodedNamesArePooledTest() {
+        assertSame(GremlinInterner.encoded("firstName"), GremlinInterner.encoded(new String("firstName")));
+        assertEquals("\\\"quoted\\\"", new String(GremlinInterner.encoded("\"quoted\"").asQuotedChars()));
+    }
+}
@@ -0,0 +1,95 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import com.azure.graph.bulk.sample.model.PersonVertex;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexDirectoryTest {
+    @Test
+    void ReturnsWhatWasAddedTest() {
+        VertexDirectory directory = new VertexDirectory();
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, directory.add("vertex-é-" + i, "label" + (i % 3), partitionKey("pk" + (i % 5))));
+        }
+
+        assertEquals(100, directory.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("vertex-é-" + i, directory.getId(i));
+            assertEquals("label" + (i % 3), directory.getLabel(i));
+            assertEquals(partitionKey("pk" + (i % 5)), directory.getPartitionKey(i));
+        }
+    }
+
+    @Test
+    void SharesLabelsAndPartitionKeysTest() {
+        VertexDirectory directory = new VertexDirectory();
+        directory.add("1", new String("label"), partitionKey("pk"));
+        directory.add("2", new String("label"), partitionKey("pk"));
+
+        assertSame(directory.getLabel(0), directory.getLabel(1));
+        assertSame(directory.getPartitionKey(0), directory.getPartitionKey(1));
+    }
+
+    @Test
+    void FindsVerticesByIdTest() {
+        VertexDirectory directory = new VertexDirectory();
+        directory.add("0", "label", partitionKey("pk"));
+        assertEquals(0, directory.indexOf("0"));
+
+        // The lookup built by the first indexOf is kept up to date as vertices are added
+        for (int i = 1; i < 1000; i++) {
+            directory.add(Integer.toString(i), "label", partitionKey("pk"));
+        }
+        directory.add("10", "other", partitionKey("pk"));
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, directory.indexOf(Integer.toString(i)));
+        }
+        assertEquals(-1, directory.indexOf("1000"));
+        assertEquals(-1, directory.indexOf(""));
+    }
+
+    @Test
+    void ContainsMatchesIdLabelAndPartitionKeyTest() {
+        VertexDirectory directory = new VertexDirectory();
+        directory.add("1", "label", partitionKey("pk"));
+
+        assertTrue(directory.contains(directory.getVertexInfo(0)));
+        assertFalse(directory.contains(vertexInfo("2", "label", "pk")));
+        assertFalse(directory.contains(vertexInfo("1", "other", "pk")));
+        assertFalse(directory.contains(vertexInfo("1", "label", "other")));
+    }
+
+    @Test
+    void AddsAnnotatedVerticesTest() {
+        VertexDirectory directory = new VertexDirectory();
+        PersonVertex person = PersonVertex.builder().id("person").country("fr").build();
+
+        int index = directory.add(person);
+
+        assertEquals(GremlinEdgeVertexInfo.fromGremlinVertex(person), directory.getVertexInfo(index));
+    }
+
+    @Test
+    void RejectsInvalidArgumentsTest() {
+        VertexDirectory directory = new VertexDirectory();
+        directory.add("1", "label", partitionKey("pk"));
+
+        assertThrows(IllegalArgumentException.class, () -> directory.add(null, "label", partitionKey("pk")));
+        assertThrows(IllegalArgumentException.class, () -> directory.add("2", "label", null));
+        assertThrows(IndexOutOfBoundsException.class, () -> directory.getId(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> directory.getLabel(-1));
+    }
+
+    private static GremlinPartitionKey partitionKey(String value) {
+        return GremlinPartitionKey.builder().fieldName("country").value(value).build();
+    }
+
+    private static GremlinEdgeVertexInfo vertexInfo(String id, String label, String partitionKey) {
+        return GremlinEdgeVertexInfo.builder().id(id).label(label).partitionKey(partitionKey(partitionKey)).build();
+    }
+}
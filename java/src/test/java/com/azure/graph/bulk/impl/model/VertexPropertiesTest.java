@@ -0,0 +1,167 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.model;
+
+import com.azure.graph.bulk.impl.model.VertexSchema.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VertexPropertiesTest {
+    @AfterEach
+    void resetSchemas() {
+        VertexSchema.reset();
+    }
+
+    @Test
+    void BehavesLikeMapTest() {
+        VertexProperties properties = new VertexProperties(new VertexSchema());
+        Map<String, Object> expected = new HashMap<>();
+        for (Map<String, Object> map : List.of(properties, expected)) {
+            map.put("name", "Peter");
+            map.put("age", 12);
+            map.put("born", 1_000_000_000_000L);
+            map.put("height", 1.42);
+            map.put("age", 13);
+            map.remove("name");
+        }
+
+        assertEquals(expected, properties);
+        assertEquals(properties, expected);
+        assertEquals(expected.hashCode(), properties.hashCode());
+        assertEquals(3, properties.size());
+        assertEquals(13, properties.get("age"));
+        assertNull(properties.get("name"));
+        assertFalse(properties.containsKey("name"));
+        assertNull(properties.get(42));
+    }
+
+    @Test
+    void PrimitiveSlotsAreHeldUnboxedTest() {
+        VertexSchema schema = new VertexSchema(0);
+        VertexProperties first = new VertexProperties(schema);
+        first.put("age", 12);
+        first.put("height", 1.42);
+        first.put("name", "Peter");
+
+        VertexProperties second = new VertexProperties(schema);
+        second.put("age", "twelve");
+
+        int age = schema.indexOf("age");
+        int height = schema.indexOf("height");
+        assertEquals(Kind.INT, first.getStoredKind(age));
+        assertEquals(12, first.getLong(age));
+        assertEquals(Kind.DOUBLE, first.getStoredKind(height));
+        assertEquals(1.42, first.getDouble(height));
+        assertEquals(Kind.OBJECT, first.getStoredKind(schema.indexOf("name")));
+        assertEquals(Kind.OBJECT, second.getStoredKind(age));
+        assertEquals("twelve", second.get("age"));
+        assertNull(second.getStoredKind(height));
+    }
+
+    @Test
+    void VerticesOfOneLabelShareTheSchemaTest() {
+        VertexProperties first = null;
+        for (int i = 0; i < VertexSchema.MIN_VERTICES; i++) {
+            first = new VertexProperties(VertexSchema.forLabel("shared-schema"));
+            first.put("b", 1);
+            first.put("a", 2);
+        }
+        VertexProperties second = new VertexProperties(VertexSchema.forLabel("shared-schema"));
+
+        assertSame(first.getSchema(), second.getSchema());
+        assertEquals(2, second.getSlotCount());
+        assertArrayEquals(new int[]{1, 0}, first.getSchema().getNameOrder());
+    }
+
+    @Test
+    void ResetDropsTheSchemasOfTheLabelsTest() {
+        VertexSchema schema = VertexSchema.forLabel("reset-schema");
+        VertexProperties properties = new VertexProperties(schema);
+        properties.put("name", "Peter");
+
+        VertexSchema.reset();
+
+        assertNotSame(schema, VertexSchema.forLabel("reset-schema"));
+        assertSame(VertexSchema.forLabel("reset-schema"), VertexSchema.forLabel("reset-schema"));
+        assertEquals("Peter", properties.get("name"));
+    }
+
+    @Test
+    void PropertiesPastTheSchemaOverflowTest() {
+        VertexProperties properties = new VertexProperties(new VertexSchema(0));
+        for (int i = 0; i < VertexSchema.MAX_SLOTS + 10; i++) {
+            properties.put("p" + i, i);
+        }
+
+        assertEquals(VertexSchema.MAX_SLOTS + 10, properties.size());
+        assertEquals(10, properties.getOverflow().size());
+        assertEquals(VertexSchema.MAX_SLOTS + 5, properties.get("p" + (VertexSchema.MAX_SLOTS + 5)));
+        assertEquals(VertexSchema.MAX_SLOTS + 10, properties.entrySet().stream().count());
+    }
+
+    @Test
+    void SparseKeysStayInTheOverflowTest() {
+        VertexSchema schema = new VertexSchema();
+        List<VertexProperties> vertices = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            VertexProperties properties = new VertexProperties(schema);
+            properties.put("name", "v" + i);
+            properties.put("key" + i, i);
+            if (i % 10 == 0) properties.put("rare", i);
+            vertices.add(properties);
+        }
+
+        assertEquals(1, schema.size());
+        assertTrue(schema.indexOf("name") >= 0);
+        VertexProperties last = vertices.get(999);
+        assertEquals(1, last.getSlotCount());
+        assertEquals(Map.of("key999", 999), last.getOverflow());
+        assertEquals(Map.of("name", "v999", "key999", 999), last);
+        assertEquals(Map.of("name", "v0", "key0", 0, "rare", 0), vertices.get(0));
+    }
+
+    @Test
+    void KeysPutBeforeTheirSlotAreKeptTest() {
+        VertexSchema schema = new VertexSchema();
+        VertexProperties early = new VertexProperties(schema);
+        early.put("name", "early");
+        assertEquals(0, schema.size());
+
+        for (int i = 0; i < VertexSchema.MIN_VERTICES; i++) {
+            new VertexProperties(schema).put("name", "v" + i);
+        }
+        assertEquals(0, schema.indexOf("name"));
+
+        assertEquals("early", early.get("name"));
+        assertEquals("early", early.put("name", "moved"));
+        assertEquals(Map.of("name", "moved"), early);
+        assertTrue(early.getOverflow().isEmpty());
+        assertEquals("moved", early.remove("name"));
+        assertTrue(early.isEmpty());
+    }
+
+    @Test
+    void IteratorRemovesEntriesTest() {
+        VertexProperties properties = new VertexProperties(new VertexSchema(0));
+        properties.put("a", 1);
+        properties.put("b", 2L);
+        properties.put("c", null);
+
+        Iterator<Map.Entry<String, Object>> iterator = properties.entrySet().iterator();
+        assertEquals(Map.entry("a", 1), iterator.next());
+        iterator.remove();
+        assertEquals(Map.entry("b", 2L), iterator.next());
+        assertFalse(iterator.hasNext());
+
+        assertEquals(Map.of("b", 2L), properties);
+    }
+}
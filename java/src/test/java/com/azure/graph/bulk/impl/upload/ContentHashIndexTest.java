@@ -0,0 +1,132 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashIndexTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void DetectsChangedContentTest() throws IOException {
+        try (ContentHashIndex index = ContentHashIndex.open(directory.resolve("hashes.idx"))) {
+            long key = ContentHasher.hashKey("vertex-1", "Neverland");
+
+            assertFalse(index.isUnchanged(key, 42));
+            index.put(key, 42);
+            assertTrue(index.isUnchanged(key, 42));
+            assertFalse(index.isUnchanged(key, 43));
+
+            index.put(key, 43);
+            assertTrue(index.isUnchanged(key, 43));
+            assertEquals(1, index.size());
+        }
+    }
+
+    @Test
+    void PersistsAcrossReopenAndGrowthTest() throws IOException {
+        Path file = directory.resolve("hashes.idx");
+        int count = 10_000;
+
+        try (ContentHashIndex index = ContentHashIndex.open(file)) {
+            for (int i = 0; i < count; i++) {
+                index.put(ContentHasher.hashKey("vertex-" + i, "pk"), i);
+            }
+        }
+
+        try (ContentHashIndex index = ContentHashIndex.open(file)) {
+            assertEquals(count, index.size());
+            for (int i = 0; i < count; i++) {
+                assertTrue(index.isUnchanged(ContentHasher.hashKey("vertex-" + i, "pk"), i));
+            }
+            assertFalse(index.isUnchanged(ContentHasher.hashKey("vertex-" + count, "pk"), count));
+        }
+        assertFalse(Files.exists(directory.resolve("hashes.idx.resize")));
+    }
+
+    @Test
+    void ConcurrentPutsAcrossGrowthTest() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (ContentHashIndex index = ContentHashIndex.open(directory.resolve("hashes.idx"))) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        // Every thread puts the shared keys as well
+                        String id = i % 1000 == 0 ? "shared-" + i : "vertex-" + (thread * perThread + i);
+                        long key = ContentHasher.hashKey(id, "pk");
+                        index.put(key, i);
+                        assertTrue(index.isUnchanged(key, i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+
+            // The shared keys are only counted once
+            int shared = perThread / 1000;
+            assertEquals((long) threads * (perThread - shared) + shared, index.size());
+            for (int i = 0; i < perThread; i++) {
+                String id = i % 1000 == 0 ? "shared-" + i : "vertex-" + (3 * perThread + i);
+                assertTrue(index.isUnchanged(ContentHasher.hashKey(id, "pk"), i));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void FullIndexStopsRecordingNewDocumentsTest() throws IOException {
+        try (ContentHashIndex index = ContentHashIndex.open(directory.resolve("hashes.idx"), 0, 1024)) {
+            for (int i = 0; i < 1024; i++) {
+                index.put(ContentHasher.hashKey("vertex-" + i, "pk"), i);
+            }
+
+            assertEquals(768, index.size());
+            assertFalse(index.isUnchanged(ContentHasher.hashKey("vertex-1000", "pk"), 1000));
+            // The documents already held are still updated
+            index.put(ContentHasher.hashKey("vertex-0", "pk"), 42);
+            assertTrue(index.isUnchanged(ContentHasher.hashKey("vertex-0", "pk"), 42));
+        }
+    }
+
+    @Test
+    void RejectsMoreExpectedEntriesThanFitTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ContentHashIndex.open(directory.resolve("hashes.idx"), Long.MAX_VALUE));
+        assertFalse(Files.exists(directory.resolve("hashes.idx")));
+    }
+
+    @Test
+    void RejectsOtherFilesTest() throws IOException {
+        Path file = directory.resolve("other.txt");
+        Files.writeString(file, "not an index, just some text");
+
+        assertThrows(IOException.class, () -> ContentHashIndex.open(file));
+    }
+
+    @Test
+    void KeyIncludesPartitionKeyTest() {
+        assertNotEquals(ContentHasher.hashKey("vertex-1", "a"), ContentHasher.hashKey("vertex-1", "b"));
+        assertNotEquals(ContentHasher.hashKey("ab", "c"), ContentHasher.hashKey("a", "bc"));
+    }
+}
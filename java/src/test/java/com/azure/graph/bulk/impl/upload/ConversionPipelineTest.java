@@ -0,0 +1,149 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.upload.ConversionPipeline.Ordering;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConversionPipelineTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void RelaxedConvertsEverythingOnWorkersTest() {
+        ConversionPipeline pipeline = ConversionPipeline.builder().workers(4).queueCapacity(16).build();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        List<CosmosItemOperation> operations = pipeline.convert(IntStream.range(0, 10_000).boxed(), i -> {
+            threads.add(Thread.currentThread().getName());
+            return toOperation(i);
+        }).collectList().block(TIMEOUT);
+
+        assertNotNull(operations);
+        assertEquals(10_000, operations.stream().map(operation -> (String) operation.getItem()).distinct().count());
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("gremlin-conversion-")), threads.toString());
+    }
+
+    @Test
+    void StrictKeepsSourceOrderTest() {
+        ConversionPipeline pipeline = ConversionPipeline.builder()
+                .workers(4)
+                .queueCapacity(8)
+                .ordering(Ordering.STRICT)
+                .build();
+
+        List<String> ids = pipeline.convert(IntStream.range(0, 5_000).boxed(), i -> {
+            // Uneven conversion times so the workers finish out of order
+            if (ThreadLocalRandom.current().nextInt(50) == 0) sleep(1);
+            return toOperation(i);
+        }).map(operation -> (String) operation.getItem()).collectList().block(TIMEOUT);
+
+        assertEquals(IntStream.range(0, 5_000).mapToObj(Integer::toString).collect(Collectors.toList()), ids);
+    }
+
+    @Test
+    void NullResultsAreSkippedTest() {
+        for (Ordering ordering : Ordering.values()) {
+            ConversionPipeline pipeline = ConversionPipeline.builder()
+                    .workers(3)
+                    .queueCapacity(4)
+                    .ordering(ordering)
+                    .build();
+
+            List<CosmosItemOperation> operations = pipeline.convert(IntStream.range(0, 1_000).boxed(),
+                    i -> i % 2 == 0 ? toOperation(i) : null).collectList().block(TIMEOUT);
+
+            assertNotNull(operations);
+            assertEquals(500, operations.size(), ordering.name());
+        }
+    }
+
+    @Test
+    void ConverterExceptionFailsFluxTest() {
+        for (Ordering ordering : Ordering.values()) {
+            ConversionPipeline pipeline = ConversionPipeline.builder()
+                    .workers(4)
+                    .queueCapacity(4)
+                    .ordering(ordering)
+                    .build();
+
+            StepVerifier.create(pipeline.convert(IntStream.range(0, 100_000).boxed(), i -> {
+                        if (i == 500) throw new IllegalStateException("conversion failed");
+                        return toOperation(i);
+                    }).then())
+                    .expectErrorMessage("conversion failed")
+                    .verify(TIMEOUT);
+        }
+    }
+
+    @Test
+    void CancellingStopsWorkersTest() throws InterruptedException {
+        ConversionPipeline pipeline = ConversionPipeline.builder().workers(4).queueCapacity(16).build();
+        AtomicInteger converted = new AtomicInteger();
+
+        StepVerifier.create(pipeline.convert(Stream.iterate(0, i -> i + 1), i -> {
+                    converted.incrementAndGet();
+                    return toOperation(i);
+                }), 10)
+                .expectNextCount(10)
+                .thenCancel()
+                .verify(TIMEOUT);
+
+        Thread.sleep(200);
+        int afterCancel = converted.get();
+        Thread.sleep(200);
+        assertEquals(afterCancel, converted.get());
+    }
+
+    @Test
+    void SourceIsReadBoundedByQueueCapacityTest() {
+        for (Ordering ordering : Ordering.values()) {
+            ConversionPipeline pipeline = ConversionPipeline.builder()
+                    .workers(4)
+                    .queueCapacity(32)
+                    .ordering(ordering)
+                    .build();
+            AtomicInteger read = new AtomicInteger();
+
+            StepVerifier.create(pipeline.convert(
+                            Stream.iterate(0, i -> i + 1).peek(i -> read.incrementAndGet()),
+                            ConversionPipelineTest::toOperation), 10)
+                    .expectNextCount(10)
+                    .then(() -> sleep(200))
+                    .thenCancel()
+                    .verify(TIMEOUT);
+
+            // The queue, one object per worker and the demand of the subscriber
+            assertTrue(read.get() <= 32 + 4 + 10 + 1, ordering + " read " + read.get());
+        }
+    }
+
+    private static CosmosItemOperation toOperation(int i) {
+        String id = Integer.toString(i);
+        return CosmosBulkOperations.getCreateItemOperation(id, new PartitionKey(id));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
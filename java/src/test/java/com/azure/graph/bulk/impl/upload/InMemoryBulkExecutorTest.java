@@ -0,0 +1,83 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryBulkExecutorTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void OperationsBehaveLikeInAContainerTest() {
+        InMemoryBulkExecutor executor = new InMemoryBulkExecutor();
+
+        // Every operation gets its own PartitionKey, like those of the GremlinDocumentOperationCreator
+        List<Integer> statusCodes = execute(executor,
+                CosmosBulkOperations.getCreateItemOperation(document("1", "first"), new PartitionKey("p1")),
+                // Same id in another partition is another document
+                CosmosBulkOperations.getCreateItemOperation(document("1", "other"), new PartitionKey("p2")),
+                CosmosBulkOperations.getCreateItemOperation(document("1", "second"), new PartitionKey("p1")),
+                CosmosBulkOperations.getUpsertItemOperation(document("2", "first"), new PartitionKey("p1")),
+                CosmosBulkOperations.getUpsertItemOperation(document("2", "second"), new PartitionKey("p1")),
+                CosmosBulkOperations.getReplaceItemOperation("3", document("3", "first"), new PartitionKey("p1")),
+                CosmosBulkOperations.getDeleteItemOperation("4", new PartitionKey("p1")),
+                CosmosBulkOperations.getReadItemOperation("1", new PartitionKey("p1")));
+
+        assertEquals(List.of(201, 201, 409, 201, 200, 404, 404, 400), statusCodes);
+        assertEquals(3, executor.size());
+        assertEquals("first", executor.get(new PartitionKey("p1"), "1").get("name").asText());
+        assertEquals("other", executor.get(new PartitionKey("p2"), "1").get("name").asText());
+        assertEquals("second", executor.get(new PartitionKey("p1"), "2").get("name").asText());
+        assertNull(executor.get(new PartitionKey("p1"), "3"));
+
+        assertEquals(List.of(200, 204),
+                execute(executor,
+                        CosmosBulkOperations.getReplaceItemOperation(
+                                "1", document("1", "replaced"), new PartitionKey("p1")),
+                        CosmosBulkOperations.getDeleteItemOperation("2", new PartitionKey("p1"))));
+        assertEquals("replaced", executor.get(new PartitionKey("p1"), "1").get("name").asText());
+        assertEquals(2, executor.getDocuments().size());
+    }
+
+    @Test
+    void DiscardRespondsWithoutKeepingAnythingTest() {
+        List<Integer> statusCodes = BulkOperationExecutor.discard()
+                .execute(Flux.just(
+                        CosmosBulkOperations.getCreateItemOperation(document("1", "a"), new PartitionKey("p")),
+                        CosmosBulkOperations.getCreateItemOperation(document("1", "a"), new PartitionKey("p"))),
+                        new CosmosBulkExecutionOptions())
+                .map(response -> response.getResponse().getStatusCode())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(List.of(201, 201), statusCodes);
+    }
+
+    private static List<Integer> execute(InMemoryBulkExecutor executor, CosmosItemOperation... operations) {
+        return executor.execute(Flux.just(operations), new CosmosBulkExecutionOptions())
+                .map(response -> response.getResponse().getStatusCode())
+                .collectList()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private static JsonSerializable document(String id, String name) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", id);
+        node.put("name", name);
+        return new JsonSerializable(node);
+    }
+}
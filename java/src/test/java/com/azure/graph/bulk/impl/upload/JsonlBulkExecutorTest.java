@@ -0,0 +1,86 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex.ContentHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonlBulkExecutorTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void WrittenOperationsAreReadBackTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("documents.jsonl");
+        CosmosItemOperation create = CosmosBulkOperations.getCreateItemOperation(
+                document("1"), new PartitionKey("p1"), new ContentHash(11, 12));
+        CosmosItemOperation upsert = CosmosBulkOperations.getUpsertItemOperation(document("2"), new PartitionKey("p2"));
+
+        List<CosmosBulkOperationResponse<Object>> responses;
+        try (JsonlBulkExecutor executor = JsonlBulkExecutor.open(file)) {
+            responses = executor.execute(Flux.just(create, upsert), new CosmosBulkExecutionOptions())
+                    .collectList()
+                    .block(Duration.ofSeconds(10));
+        }
+
+        assertNotNull(responses);
+        assertEquals(2, responses.size());
+        assertSame(create, responses.get(0).getOperation());
+        assertTrue(responses.stream().noneMatch(DeadLetterSink::isFailure));
+        assertEquals(0, responses.get(0).getResponse().getRequestCharge());
+
+        List<CosmosItemOperation> operations;
+        try (Stream<CosmosItemOperation> read = JsonlDeadLetterSink.read(file)) {
+            operations = read.collect(Collectors.toList());
+        }
+        assertEquals(2, operations.size());
+        assertEquals(CosmosItemOperationType.CREATE, operations.get(0).getOperationType());
+        assertEquals(new PartitionKey("p1"), operations.get(0).getPartitionKeyValue());
+        assertEquals(12, operations.get(0).<ContentHash>getContext().getContentHash());
+        assertEquals(CosmosItemOperationType.UPSERT, operations.get(1).getOperationType());
+        assertEquals("2", ((JsonSerializable) operations.get(1).getItem()).getPropertyBag().get("id").asText());
+    }
+
+    @Test
+    void ReplacesExistingFileTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("documents.jsonl");
+        for (int i = 0; i < 3; i++) {
+            try (JsonlBulkExecutor executor = JsonlBulkExecutor.open(file)) {
+                executor.execute(Flux.just(CosmosBulkOperations.getCreateItemOperation(
+                                document(Integer.toString(i)), new PartitionKey("p"))), null)
+                        .blockLast(Duration.ofSeconds(10));
+            }
+        }
+
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertEquals("2", mapper.readTree(lines.get(0)).get("document").get("id").asText());
+    }
+
+    private static JsonSerializable document(String id) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", id);
+        return new JsonSerializable(node);
+    }
+}
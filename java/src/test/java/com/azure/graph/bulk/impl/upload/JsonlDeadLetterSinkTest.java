@@ -0,0 +1,142 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import com.azure.graph.bulk.impl.GremlinFieldNames;
+import com.azure.graph.bulk.impl.upload.ContentHashIndex.ContentHash;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonlDeadLetterSinkTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void ReadsBackFailedOperationsTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("dead-letters.jsonl");
+        CosmosItemOperation vertex = CosmosBulkOperations.getCreateItemOperation(
+                document("1", false), new PartitionKey("p1"), new ContentHash(11, 12));
+        CosmosItemOperation edge = CosmosBulkOperations.getUpsertItemOperation(
+                document("2", true), new PartitionKey("p2"));
+
+        try (JsonlDeadLetterSink sink = JsonlDeadLetterSink.open(file)) {
+            sink.accept(BulkResponses.response(vertex, 409, 1.5, Duration.ZERO));
+            sink.accept(BulkResponses.response(edge, 429, 0, Duration.ofMillis(10)));
+        }
+
+        List<JsonNode> lines = readLines(file);
+        assertEquals(2, lines.size());
+        assertEquals("CREATE", lines.get(0).get("operationType").asText());
+        assertEquals(409, lines.get(0).get("statusCode").asInt());
+        assertEquals(1.5, lines.get(0).get("requestCharge").asDouble());
+        assertEquals(429, lines.get(1).get("statusCode").asInt());
+
+        List<CosmosItemOperation> operations;
+        try (Stream<CosmosItemOperation> read = JsonlDeadLetterSink.read(file)) {
+            operations = read.collect(Collectors.toList());
+        }
+        assertEquals(2, operations.size());
+
+        CosmosItemOperation readVertex = operations.get(0);
+        assertEquals(CosmosItemOperationType.CREATE, readVertex.getOperationType());
+        assertEquals(new PartitionKey("p1"), readVertex.getPartitionKeyValue());
+        assertEquals("1", ((JsonSerializable) readVertex.getItem()).getPropertyBag().get("id").asText());
+        ContentHash contentHash = readVertex.getContext();
+        assertEquals(11, contentHash.getKeyHash());
+        assertEquals(12, contentHash.getContentHash());
+        assertFalse(GremlinDocumentOperationCreator.isEdge(readVertex));
+
+        CosmosItemOperation readEdge = operations.get(1);
+        assertEquals(CosmosItemOperationType.UPSERT, readEdge.getOperationType());
+        assertNull(readEdge.getContext());
+        assertTrue(GremlinDocumentOperationCreator.isEdge(readEdge));
+    }
+
+    @Test
+    void RecordsExceptionsTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("dead-letters.jsonl");
+        CosmosItemOperation operation = CosmosBulkOperations.getCreateItemOperation(
+                document("1", false), new PartitionKey("p1"));
+
+        try (JsonlDeadLetterSink sink = JsonlDeadLetterSink.open(file)) {
+            sink.accept(BulkResponses.failure(operation, new IllegalStateException("connection reset")));
+        }
+
+        JsonNode line = readLines(file).get(0);
+        assertFalse(line.has("statusCode"));
+        assertTrue(line.get("exception").asText().contains("connection reset"));
+    }
+
+    @Test
+    void RecordsOperationsWithoutResponseTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("dead-letters.jsonl");
+        CosmosBulkOperationResponse<Object> response = BulkResponses.failure(
+                CosmosBulkOperations.getCreateItemOperation(document("1", false), new PartitionKey("p1")), null);
+
+        assertTrue(DeadLetterSink.isFailure(response));
+        try (JsonlDeadLetterSink sink = JsonlDeadLetterSink.open(file)) {
+            sink.accept(response);
+        }
+
+        JsonNode line = readLines(file).get(0);
+        assertFalse(line.has("statusCode"));
+        assertFalse(line.has("exception"));
+        assertEquals("1", line.get("document").get("id").asText());
+    }
+
+    @Test
+    void AppendsToExistingFileTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("dead-letters.jsonl");
+        for (int i = 0; i < 3; i++) {
+            try (JsonlDeadLetterSink sink = JsonlDeadLetterSink.open(file)) {
+                sink.accept(BulkResponses.response(CosmosBulkOperations.getCreateItemOperation(
+                        document(Integer.toString(i), false), new PartitionKey("p")), 500, 1, null));
+            }
+        }
+
+        try (Stream<CosmosItemOperation> read = JsonlDeadLetterSink.read(file)) {
+            assertEquals(List.of("0", "1", "2"), read
+                    .map(operation -> ((JsonSerializable) operation.getItem()).getPropertyBag().get("id").asText())
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private static JsonSerializable document(String id, boolean isEdge) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", id);
+        if (isEdge) node.put(GremlinFieldNames.EDGE_IDENTICATOR, true);
+        return new JsonSerializable(node);
+    }
+
+    private static List<JsonNode> readLines(Path file) throws IOException {
+        return Files.readAllLines(file).stream()
+                .map(line -> {
+                    try {
+                        return mapper.readTree(line);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+}
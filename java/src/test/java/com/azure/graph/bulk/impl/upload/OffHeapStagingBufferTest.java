@@ -0,0 +1,157 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapStagingBufferTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void OperationsKeepTheirOrderIdentityAndContentTest() {
+        OffHeapStagingBuffer buffer = OffHeapStagingBuffer.builder().capacity(1024).prefetch(4).build();
+        List<CosmosItemOperation> operations = new ArrayList<>();
+        List<ObjectNode> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            CosmosItemOperation operation = toOperation(i, "name-" + i);
+            operations.add(operation);
+            expected.add(getDocument(operation).deepCopy());
+        }
+
+        List<CosmosItemOperation> staged = buffer.stage(Flux.fromIterable(operations))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(staged);
+        assertEquals(operations.size(), staged.size());
+        for (int i = 0; i < operations.size(); i++) {
+            assertSame(operations.get(i), staged.get(i));
+            assertEquals(expected.get(i), getDocument(staged.get(i)));
+        }
+    }
+
+    @Test
+    void DocumentsAreEmptiedWhileStagedTest() {
+        OffHeapStagingBuffer buffer = OffHeapStagingBuffer.builder().capacity(1024).prefetch(4).build();
+        List<CosmosItemOperation> operations = Flux.range(0, 4)
+                .map(i -> toOperation(i, "name-" + i))
+                .collectList()
+                .block(TIMEOUT);
+        assertNotNull(operations);
+
+        StepVerifier.create(buffer.stage(Flux.fromIterable(operations)), 0)
+                .then(() -> assertTrue(operations.stream().allMatch(operation -> getDocument(operation).isEmpty())))
+                .thenRequest(1)
+                .assertNext(operation -> assertEquals("0", getDocument(operation).get("id").asText()))
+                .then(() -> assertTrue(getDocument(operations.get(1)).isEmpty()))
+                .thenRequest(3)
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void FullBufferHoldsBackUpstreamTest() {
+        OffHeapStagingBuffer buffer = OffHeapStagingBuffer.builder().capacity(200).prefetch(2).build();
+        AtomicLong requested = new AtomicLong();
+        Flux<CosmosItemOperation> operations = Flux.range(0, 1000)
+                .map(i -> toOperation(i, "name-" + i))
+                .doOnRequest(requested::addAndGet);
+
+        StepVerifier.create(buffer.stage(operations), 0)
+                .thenAwait(Duration.ofMillis(10))
+                .then(() -> assertTrue(requested.get() < 20, "requested " + requested.get()))
+                .thenRequest(10)
+                .expectNextCount(10)
+                .then(() -> assertTrue(requested.get() < 40, "requested " + requested.get()))
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void DocumentsLargerThanTheBufferWaitOnTheHeapTest() {
+        OffHeapStagingBuffer buffer = OffHeapStagingBuffer.builder().capacity(64).prefetch(2).build();
+        CosmosItemOperation small = toOperation(1, "a");
+        CosmosItemOperation large = toOperation(2, "a".repeat(100));
+        CosmosItemOperation notSerializable = CosmosBulkOperations.getCreateItemOperation("3", new PartitionKey("3"));
+
+        List<CosmosItemOperation> staged = buffer.stage(Flux.just(small, large, notSerializable, small))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertEquals(List.of(small, large, notSerializable, small), staged);
+        assertEquals("a".repeat(100), getDocument(large).get("name").asText());
+    }
+
+    @Test
+    void ErrorFollowsTheStagedOperationsTest() {
+        OffHeapStagingBuffer buffer = OffHeapStagingBuffer.builder().capacity(1024).build();
+        Flux<CosmosItemOperation> operations = Flux.range(0, 3)
+                .map(i -> toOperation(i, "name-" + i))
+                .concatWith(Flux.error(new IllegalStateException("conversion failed")));
+
+        StepVerifier.create(buffer.stage(operations).map(operation -> getDocument(operation).get("id").asText()))
+                .expectNext("0", "1", "2")
+                .verifyErrorMessage("conversion failed");
+    }
+
+    @Test
+    void ConcurrentSubscriptionsUseTheirOwnBufferTest() {
+        OffHeapStagingBuffer buffer = OffHeapStagingBuffer.builder().capacity(512).prefetch(8).build();
+
+        List<List<String>> subscriptions = Flux.range(0, 4)
+                .flatMap(subscription -> buffer.stage(Flux.range(0, 500)
+                                .map(i -> toOperation(i, "name-" + subscription + "-" + i)))
+                        .map(operation -> getDocument(operation).get("name").asText())
+                        .collectList())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(subscriptions);
+        for (List<String> names : subscriptions) {
+            assertEquals(500, names.size());
+            String prefix = names.get(0).substring(0, names.get(0).lastIndexOf('-') + 1);
+            assertEquals(IntStream.range(0, 500).mapToObj(i -> prefix + i).collect(Collectors.toList()), names);
+        }
+    }
+
+    @Test
+    void InvalidArgumentsAreRejectedTest() {
+        OffHeapStagingBuffer.OffHeapStagingBufferBuilder capacity = OffHeapStagingBuffer.builder().capacity(0);
+        OffHeapStagingBuffer.OffHeapStagingBufferBuilder prefetch = OffHeapStagingBuffer.builder().prefetch(0);
+
+        assertThrows(IllegalArgumentException.class, capacity::build);
+        assertThrows(IllegalArgumentException.class, prefetch::build);
+    }
+
+    private static CosmosItemOperation toOperation(int i, String name) {
+        ObjectNode node = mapper.createObjectNode();
+        node.put("id", Integer.toString(i));
+        node.put("name", name);
+        node.put("age", i);
+        node.putArray("tags").add("tag-" + i).add(i * 1.5);
+        return CosmosBulkOperations.getCreateItemOperation(new JsonSerializable(node), new PartitionKey(name));
+    }
+
+    private static ObjectNode getDocument(CosmosItemOperation operation) {
+        return ((JsonSerializable) operation.getItem()).getPropertyBag();
+    }
+}
@@ -0,0 +1,122 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PartitionKeyGroupingTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void FullBatchesAreEmittedTogetherTest() {
+        PartitionKeyGrouping grouping = PartitionKeyGrouping.builder()
+                .maxBatchSize(3)
+                .maxWait(Duration.ofMinutes(1))
+                .build();
+
+        List<String> items = grouping.group(Flux.range(0, 9).map(i -> toOperation(i, "pk-" + i % 3)))
+                .map(operation -> (String) operation.getItem())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertEquals(List.of("0", "3", "6", "1", "4", "7", "2", "5", "8"), items);
+    }
+
+    @Test
+    void RemainingBatchesAreEmittedOnCompletionTest() {
+        PartitionKeyGrouping grouping = PartitionKeyGrouping.builder()
+                .maxBatchSize(100)
+                .maxWait(Duration.ofMinutes(1))
+                .build();
+
+        List<String> partitionKeys = grouping.group(Flux.range(0, 10).map(i -> toOperation(i, "pk-" + i % 2)))
+                .map(operation -> operation.getPartitionKeyValue().toString())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(partitionKeys);
+        assertEquals(10, partitionKeys.size());
+        // One run per partition key
+        assertEquals(2, partitionKeys.stream().distinct().count());
+        assertEquals(partitionKeys.get(0), partitionKeys.get(4));
+        assertEquals(partitionKeys.get(5), partitionKeys.get(9));
+    }
+
+    @Test
+    void OldestBatchIsEmittedWhenBufferIsFullTest() {
+        PartitionKeyGrouping grouping = PartitionKeyGrouping.builder()
+                .maxBatchSize(10)
+                .maxBufferedOperations(10)
+                .maxWait(Duration.ofMinutes(1))
+                .build();
+
+        StepVerifier.create(grouping.group(Flux.range(0, 11).map(i -> toOperation(i, "pk-" + i % 5))
+                                .concatWith(Flux.never()))
+                        .map(operation -> (String) operation.getItem()))
+                .expectNext("0", "5", "10")
+                .thenCancel()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void BatchIsEmittedAfterMaxWaitTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        PartitionKeyGrouping grouping = PartitionKeyGrouping.builder()
+                .maxBatchSize(100)
+                .maxWait(Duration.ofMillis(100))
+                .scheduler(scheduler)
+                .build();
+        Sinks.Many<CosmosItemOperation> operations = Sinks.many().unicast().onBackpressureBuffer();
+
+        StepVerifier.withVirtualTime(() -> grouping.group(operations.asFlux())
+                        .map(operation -> (String) operation.getItem()), () -> scheduler, Long.MAX_VALUE)
+                .then(() -> operations.tryEmitNext(toOperation(1, "pk-1")))
+                .then(() -> operations.tryEmitNext(toOperation(2, "pk-2")))
+                .thenAwait(Duration.ofMillis(60))
+                .expectNoEvent(Duration.ofMillis(30))
+                .then(() -> operations.tryEmitNext(toOperation(3, "pk-1")))
+                .thenAwait(Duration.ofMillis(60))
+                .expectNext("1", "3", "2")
+                .then(operations::tryEmitComplete)
+                .verifyComplete();
+    }
+
+    @Test
+    void EveryOperationIsEmittedOnceTest() {
+        PartitionKeyGrouping grouping = PartitionKeyGrouping.builder()
+                .maxBatchSize(7)
+                .maxBufferedOperations(50)
+                .maxWait(Duration.ofMillis(1))
+                .build();
+
+        List<String> items = grouping.group(Flux.range(0, 10_000).map(i -> toOperation(i, "pk-" + i % 97)))
+                .map(operation -> (String) operation.getItem())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(items);
+        assertEquals(10_000, items.stream().distinct().count());
+        // Order within a partition is kept
+        List<Integer> partition = items.stream().map(Integer::parseInt).filter(i -> i % 97 == 5)
+                .collect(Collectors.toList());
+        assertEquals(partition.stream().sorted().collect(Collectors.toList()), partition);
+    }
+
+    private static CosmosItemOperation toOperation(int i, String partitionKey) {
+        return CosmosBulkOperations.getCreateItemOperation(Integer.toString(i), new PartitionKey(partitionKey));
+    }
+}
@@ -0,0 +1,154 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhasedBulkLoaderTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void EdgesStartOnceVerticesAreDoneTest() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        List<Integer> concurrency = Collections.synchronizedList(new ArrayList<>());
+        PhasedBulkLoader loader = PhasedBulkLoader.builder()
+                .executor((operations, options) -> {
+                    concurrency.add(options.getMaxMicroBatchConcurrency());
+                    return respondSlowly(operations, events);
+                })
+                .vertexPhase(UploadPhase.builder().name("vertex").concurrency(1).build())
+                .edgePhase(UploadPhase.builder().name("edge").concurrency(5).build())
+                .build();
+
+        List<CosmosBulkOperationResponse<Object>> responses = loader.load(
+                        operations("vertex", 20).doOnNext(operation -> events.add("submit " + operation.getItem())),
+                        operations("edge", 20).doOnNext(operation -> events.add("submit " + operation.getItem())))
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(responses);
+        assertEquals(40, responses.size());
+        assertEquals(List.of(1, 5), concurrency);
+        int firstEdge = events.indexOf("submit edge-0");
+        int lastVertex = events.indexOf("done vertex-19");
+        assertTrue(lastVertex < firstEdge, events.toString());
+    }
+
+    @Test
+    void EdgesOverlapTheLastVerticesTest() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        PhasedBulkLoader loader = PhasedBulkLoader.builder()
+                .executor((operations, options) -> respondSlowly(operations, events))
+                .edgeOverlapThreshold(0.5)
+                .build();
+
+        loader.load(operations("vertex", 20), operations("edge", 20)
+                        .doOnSubscribe(subscription -> events.add("edges started")))
+                .blockLast(TIMEOUT);
+
+        int edgesStarted = events.indexOf("edges started");
+        long verticesDone = events.subList(0, edgesStarted).stream().filter(e -> e.startsWith("done vertex")).count();
+        assertEquals(10, verticesDone, events.toString());
+    }
+
+    @Test
+    void EdgesStartWithoutVerticesTest() {
+        PhasedBulkLoader loader = PhasedBulkLoader.builder()
+                .executor((operations, options) -> respondSlowly(operations, new ArrayList<>()))
+                .build();
+
+        StepVerifier.create(loader.load(Flux.empty(), operations("edge", 3)))
+                .expectNextCount(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void VertexFailureSkipsEdgesTest() {
+        AtomicBoolean edgesSubscribed = new AtomicBoolean();
+        PhasedBulkLoader loader = PhasedBulkLoader.builder()
+                .executor((operations, options) -> operations
+                        .flatMap(operation -> Mono.error(new IllegalStateException("unavailable"))))
+                .build();
+
+        StepVerifier.create(loader.load(operations("vertex", 3),
+                        operations("edge", 3).doOnSubscribe(subscription -> edgesSubscribed.set(true))))
+                .expectErrorMessage("unavailable")
+                .verify(TIMEOUT);
+        assertFalse(edgesSubscribed.get());
+    }
+
+    @Test
+    void PhaseRequestUnitBudgetThrottlesTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        AtomicInteger submitted = new AtomicInteger();
+        PhasedBulkLoader loader = PhasedBulkLoader.builder()
+                .executor((operations, options) -> operations
+                        .doOnNext(operation -> submitted.incrementAndGet())
+                        .map(operation -> BulkResponses.success(operation, 10)))
+                .vertexPhase(UploadPhase.builder().requestUnitsPerSecond(10).build())
+                .scheduler(scheduler)
+                .build();
+
+        StepVerifier.withVirtualTime(() -> loader.load(operations("vertex", 6), Flux.empty()),
+                        () -> scheduler, Long.MAX_VALUE)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(900))
+                .thenAwait(Duration.ofMillis(100))
+                .expectNextCount(1)
+                .thenAwait(Duration.ofSeconds(3))
+                .expectNextCount(3)
+                .verifyComplete();
+        assertEquals(6, submitted.get());
+    }
+
+    @Test
+    void GlobalBudgetSlowsDownOnThrottlingTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        RequestUnitBudget globalBudget = RequestUnitBudget.builder()
+                .requestUnitsPerSecond(1000)
+                .scheduler(scheduler)
+                .build();
+        PhasedBulkLoader loader = PhasedBulkLoader.builder()
+                .executor((operations, options) -> operations
+                        .map(operation -> BulkResponses.response(operation, 429, 1, Duration.ofMillis(10))))
+                .globalBudget(globalBudget)
+                .scheduler(scheduler)
+                .build();
+
+        StepVerifier.withVirtualTime(() -> loader.load(operations("vertex", 1), operations("edge", 1)),
+                        () -> scheduler, Long.MAX_VALUE)
+                .expectNextCount(2)
+                .verifyComplete();
+        assertEquals(700, globalBudget.getRequestUnitsPerSecond(), 0.001);
+    }
+
+    private static Flux<CosmosBulkOperationResponse<Object>> respondSlowly(
+            Flux<CosmosItemOperation> operations, List<String> events) {
+        return operations.concatMap(operation -> Mono.delay(Duration.ofMillis(2))
+                .doOnNext(tick -> events.add("done " + operation.getItem()))
+                .thenReturn(BulkResponses.success(operation, 5)));
+    }
+
+    private static Flux<CosmosItemOperation> operations(String prefix, int count) {
+        return Flux.range(0, count)
+                .map(i -> CosmosBulkOperations.getCreateItemOperation(prefix + "-" + i, new PartitionKey("pk")));
+    }
+}
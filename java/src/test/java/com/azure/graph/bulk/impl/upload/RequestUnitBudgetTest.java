@@ -0,0 +1,136 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import org.junit.jupiter.api.Test;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestUnitBudgetTest {
+    private final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+
+    @Test
+    void StartsWithOneSecondOfRequestUnitsTest() {
+        RequestUnitBudget budget = getBudget(100);
+
+        assertEquals(100, budget.getAvailable(), 0.001);
+        assertEquals(Duration.ZERO, budget.getWaitTime());
+    }
+
+    @Test
+    void DebtIsPaidBackAtTheBudgetTest() {
+        RequestUnitBudget budget = getBudget(100);
+
+        budget.consume(150);
+        assertEquals(-50, budget.getAvailable(), 0.001);
+        Duration wait = budget.getWaitTime();
+        assertTrue(wait.toMillis() >= 499 && wait.toMillis() <= 501, wait.toString());
+
+        scheduler.advanceTimeBy(wait);
+        assertEquals(0, budget.getAvailable(), 0.001);
+        assertEquals(Duration.ZERO, budget.getWaitTime());
+    }
+
+    @Test
+    void RefillIsCappedAtOneSecondTest() {
+        RequestUnitBudget budget = getBudget(100);
+
+        budget.consume(50);
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+        assertEquals(100, budget.getAvailable(), 0.001);
+    }
+
+    @Test
+    void ThrottlingDecreasesRateOncePerSecondTest() {
+        RequestUnitBudget budget = getBudget(1000);
+        CosmosItemOperation operation = CosmosBulkOperations.getCreateItemOperation("1", new PartitionKey("pk"));
+
+        budget.record(BulkResponses.response(operation, 429, 1, Duration.ofMillis(10)));
+        budget.record(BulkResponses.response(operation, 429, 1, Duration.ofMillis(10)));
+        assertEquals(700, budget.getRequestUnitsPerSecond(), 0.001);
+
+        scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        budget.record(BulkResponses.response(operation, 429, 1, Duration.ofMillis(10)));
+        assertEquals(490, budget.getRequestUnitsPerSecond(), 0.001);
+    }
+
+    @Test
+    void RateNeverDropsBelowMinimumTest() {
+        RequestUnitBudget budget = RequestUnitBudget.builder()
+                .requestUnitsPerSecond(1000)
+                .minRequestUnitsPerSecond(400)
+                .scheduler(scheduler)
+                .build();
+
+        for (int i = 0; i < 10; i++) {
+            budget.throttled();
+            scheduler.advanceTimeBy(Duration.ofSeconds(1));
+        }
+        assertTrue(budget.getRequestUnitsPerSecond() < 500, Double.toString(budget.getRequestUnitsPerSecond()));
+        assertTrue(budget.getRequestUnitsPerSecond() >= 400, Double.toString(budget.getRequestUnitsPerSecond()));
+    }
+
+    @Test
+    void RateGrowsBackWithoutThrottlingTest() {
+        RequestUnitBudget budget = RequestUnitBudget.builder()
+                .requestUnitsPerSecond(1000)
+                .decreaseFactor(0.5)
+                .increasePerSecond(100)
+                .scheduler(scheduler)
+                .build();
+
+        budget.throttled();
+        assertEquals(500, budget.getRequestUnitsPerSecond(), 0.001);
+
+        // No increase in the second after the throttling
+        scheduler.advanceTimeBy(Duration.ofMillis(900));
+        assertEquals(500, budget.getRequestUnitsPerSecond(), 0.001);
+
+        scheduler.advanceTimeBy(Duration.ofMillis(2100));
+        assertEquals(700, budget.getRequestUnitsPerSecond(), 0.001);
+
+        scheduler.advanceTimeBy(Duration.ofMinutes(1));
+        assertEquals(1000, budget.getRequestUnitsPerSecond(), 0.001);
+    }
+
+    @Test
+    void ParentIsChargedAndWaitedForTest() {
+        RequestUnitBudget global = getBudget(100);
+        RequestUnitBudget phase = RequestUnitBudget.builder()
+                .requestUnitsPerSecond(1000)
+                .parent(global)
+                .scheduler(scheduler)
+                .build();
+
+        phase.consume(300);
+        assertEquals(700, phase.getAvailable(), 0.001);
+        assertEquals(-200, global.getAvailable(), 0.001);
+        assertEquals(Duration.ofSeconds(2), phase.getWaitTime());
+
+        phase.throttled();
+        assertEquals(70, global.getRequestUnitsPerSecond(), 0.001);
+    }
+
+    @Test
+    void RequiresPositiveBudgetTest() {
+        assertThrows(IllegalArgumentException.class, () -> getBudget(0));
+        assertThrows(IllegalArgumentException.class, () -> RequestUnitBudget.builder()
+                .requestUnitsPerSecond(100)
+                .decreaseFactor(1)
+                .build());
+    }
+
+    private RequestUnitBudget getBudget(double requestUnitsPerSecond) {
+        return RequestUnitBudget.builder()
+                .requestUnitsPerSecond(requestUnitsPerSecond)
+                .scheduler(scheduler)
+                .build();
+    }
+}
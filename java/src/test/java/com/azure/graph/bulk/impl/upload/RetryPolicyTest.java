@@ -0,0 +1,178 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.implementation.JsonSerializable;
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.CosmosItemOperationType;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.GremlinFieldNames;
+import com.azure.graph.bulk.impl.upload.RetryPolicy.Outcome;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void ClassifiesStatusCodesTest() {
+        RetryPolicy policy = RetryPolicy.builder().maxAttempts(3).build();
+        CosmosItemOperation vertex = operation("v", false);
+        CosmosItemOperation edge = operation("e", true);
+
+        assertEquals(Outcome.SUCCESS, policy.classify(BulkResponses.success(vertex, 1), 1));
+        assertEquals(Outcome.RETRY, policy.classify(BulkResponses.response(vertex, 429, 1, Duration.ZERO), 1));
+        assertEquals(Outcome.RETRY, policy.classify(BulkResponses.response(vertex, 503, 1, Duration.ZERO), 2));
+        assertEquals(Outcome.FAIL, policy.classify(BulkResponses.response(vertex, 429, 1, Duration.ZERO), 3));
+        assertEquals(Outcome.FAIL, policy.classify(BulkResponses.response(vertex, 409, 1, Duration.ZERO), 1));
+        assertEquals(Outcome.FAIL, policy.classify(BulkResponses.response(vertex, 413, 1, Duration.ZERO), 1));
+        assertEquals(Outcome.FAIL, policy.classify(BulkResponses.response(vertex, 404, 1, Duration.ZERO), 1));
+        assertEquals(Outcome.RETRY, policy.classify(BulkResponses.response(edge, 404, 1, Duration.ZERO), 1));
+        assertEquals(Outcome.FAIL, policy.classify(BulkResponses.failure(vertex, new IllegalStateException()), 1));
+    }
+
+    @Test
+    void BackoffDoublesWithJitterTest() {
+        CosmosBulkOperationResponse<Object> throttled =
+                BulkResponses.response(operation("v", false), 429, 1, Duration.ZERO);
+        RetryPolicy longest = RetryPolicy.builder().random(() -> 1).maxDelay(Duration.ofMillis(300)).build();
+        RetryPolicy shortest = RetryPolicy.builder().random(() -> 0).build();
+
+        assertEquals(Duration.ofMillis(100), longest.getDelay(throttled, 1));
+        assertEquals(Duration.ofMillis(200), longest.getDelay(throttled, 2));
+        assertEquals(Duration.ofMillis(300), longest.getDelay(throttled, 3));
+        assertEquals(Duration.ofMillis(50), shortest.getDelay(throttled, 1));
+        assertEquals(Duration.ofMillis(800), shortest.getDelay(throttled, 5));
+    }
+
+    @Test
+    void WaitsForRetryAfterTest() {
+        RetryPolicy policy = RetryPolicy.builder().random(() -> 1).build();
+
+        assertEquals(Duration.ofSeconds(2), policy.getDelay(
+                BulkResponses.response(operation("v", false), 429, 1, Duration.ofSeconds(2)), 1));
+    }
+
+    @Test
+    void RetriesUntilSuccessTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        Map<CosmosItemOperation, Integer> attempts = new ConcurrentHashMap<>();
+        BulkOperationExecutor executor = RetryPolicy.builder()
+                .random(() -> 0)
+                .scheduler(scheduler)
+                .build()
+                .apply((operations, options) -> operations.map(operation ->
+                        attempts.merge(operation, 1, Integer::sum) < 3
+                                ? BulkResponses.response(operation, 429, 1, Duration.ZERO)
+                                : BulkResponses.success(operation, 1)));
+
+        StepVerifier.withVirtualTime(() -> executor.execute(operations(5), new CosmosBulkExecutionOptions()),
+                        () -> scheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(149))
+                .thenAwait(Duration.ofMillis(1))
+                .expectNextCount(5)
+                .verifyComplete();
+        assertEquals(5, attempts.size());
+        attempts.values().forEach(attempt -> assertEquals(3, attempt));
+    }
+
+    @Test
+    void GivesUpAfterMaxAttemptsTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        Map<CosmosItemOperation, Integer> attempts = new ConcurrentHashMap<>();
+        BulkOperationExecutor executor = RetryPolicy.builder()
+                .maxAttempts(4)
+                .scheduler(scheduler)
+                .build()
+                .apply((operations, options) -> operations
+                        .doOnNext(operation -> attempts.merge(operation, 1, Integer::sum))
+                        .map(operation -> BulkResponses.response(operation, 503, 1, Duration.ZERO)));
+
+        StepVerifier.withVirtualTime(() -> executor.execute(operations(3), new CosmosBulkExecutionOptions()),
+                        () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofSeconds(10))
+                .expectNextMatches(response -> response.getResponse().getStatusCode() == 503)
+                .expectNextCount(2)
+                .verifyComplete();
+        attempts.values().forEach(attempt -> assertEquals(4, attempt));
+    }
+
+    @Test
+    void FailuresAreNotRetriedTest() {
+        Map<CosmosItemOperation, Integer> attempts = new ConcurrentHashMap<>();
+        BulkOperationExecutor executor = RetryPolicy.builder()
+                .build()
+                .apply((operations, options) -> operations
+                        .doOnNext(operation -> attempts.merge(operation, 1, Integer::sum))
+                        .map(operation -> BulkResponses.response(operation, 409, 1, Duration.ZERO)));
+
+        StepVerifier.create(executor.execute(operations(3), new CosmosBulkExecutionOptions()))
+                .expectNextCount(3)
+                .verifyComplete();
+        attempts.values().forEach(attempt -> assertEquals(1, attempt));
+    }
+
+    @Test
+    void ConflictFallsBackToUpsertTest() {
+        List<CosmosItemOperationType> written = Collections.synchronizedList(new ArrayList<>());
+        BulkOperationExecutor executor = RetryPolicy.builder()
+                .maxAttempts(1)
+                .upsertOnConflict(true)
+                .build()
+                .apply((operations, options) -> operations
+                        .doOnNext(operation -> written.add(operation.getOperationType()))
+                        .map(operation -> operation.getOperationType() == CosmosItemOperationType.CREATE
+                                ? BulkResponses.response(operation, 409, 1, Duration.ZERO)
+                                : BulkResponses.success(operation, 2)));
+
+        List<CosmosBulkOperationResponse<Object>> responses = executor
+                .execute(operations(3), new CosmosBulkExecutionOptions())
+                .collectList()
+                .block(Duration.ofSeconds(30));
+
+        assertNotNull(responses);
+        assertEquals(3, responses.size());
+        responses.forEach(response -> {
+            assertEquals(CosmosItemOperationType.UPSERT, response.getOperation().getOperationType());
+            assertTrue(response.getResponse().isSuccessStatusCode());
+        });
+        assertEquals(6, written.size());
+    }
+
+    @Test
+    void ConflictOnUpsertFailsTest() {
+        RetryPolicy policy = RetryPolicy.builder().upsertOnConflict(true).build();
+        CosmosItemOperation upsert = CosmosBulkOperations.getUpsertItemOperation("v", new PartitionKey("pk"));
+
+        assertEquals(Outcome.FAIL, policy.classify(BulkResponses.response(upsert, 409, 1, Duration.ZERO), 1));
+    }
+
+    private static Flux<CosmosItemOperation> operations(int count) {
+        return Flux.range(0, count).map(i -> operation(Integer.toString(i), false));
+    }
+
+    private static CosmosItemOperation operation(String id, boolean isEdge) {
+        ObjectNode document = mapper.createObjectNode();
+        document.put("id", id);
+        if (isEdge) document.put(GremlinFieldNames.EDGE_IDENTICATOR, true);
+        return CosmosBulkOperations.getCreateItemOperation(new JsonSerializable(document), new PartitionKey("pk"));
+    }
+}
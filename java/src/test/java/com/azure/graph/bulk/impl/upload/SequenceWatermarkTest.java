@@ -0,0 +1,70 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SequenceWatermarkTest {
+    @Test
+    void WatermarkStopsAtFirstGapTest() {
+        SequenceWatermark watermark = new SequenceWatermark(0);
+
+        watermark.acknowledge(1);
+        watermark.acknowledge(2);
+        assertEquals(0, watermark.get());
+
+        watermark.acknowledge(0);
+        assertEquals(3, watermark.get());
+
+        watermark.acknowledge(5);
+        assertEquals(3, watermark.get());
+        watermark.acknowledge(4);
+        watermark.acknowledge(3);
+        assertEquals(6, watermark.get());
+    }
+
+    @Test
+    void StartsAtOffsetTest() {
+        SequenceWatermark watermark = new SequenceWatermark(1000);
+
+        watermark.acknowledge(10);
+        assertEquals(1000, watermark.get());
+        watermark.acknowledge(1000);
+        assertEquals(1001, watermark.get());
+    }
+
+    @Test
+    void GrowsForAcknowledgementsFarAheadTest() {
+        SequenceWatermark watermark = new SequenceWatermark(0);
+
+        for (int i = 1; i < 100_000; i++) {
+            watermark.acknowledge(i);
+        }
+        assertEquals(0, watermark.get());
+        watermark.acknowledge(0);
+        assertEquals(100_000, watermark.get());
+    }
+
+    @Test
+    void ShuffledAcknowledgementsFromThreadsTest() {
+        List<Integer> sequences = new ArrayList<>();
+        IntStream.range(0, 200_000).forEach(sequences::add);
+        Collections.shuffle(sequences.subList(0, 100_000), new Random(42));
+        // Acknowledged twice
+        sequences.addAll(sequences.subList(0, 1000));
+        SequenceWatermark watermark = new SequenceWatermark(0);
+
+        sequences.parallelStream().forEach(watermark::acknowledge);
+
+        assertEquals(200_000, watermark.get());
+    }
+}
@@ -0,0 +1,211 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkExecutionOptions;
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SimulatedBulkExecutorTest {
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    @Test
+    void OperationsAreChargedTest() {
+        SimulatedBulkExecutor executor = SimulatedBulkExecutor.builder()
+                .requestCharge(7.5)
+                .medianLatency(Duration.ZERO)
+                .build();
+
+        List<CosmosBulkOperationResponse<Object>> responses = executor
+                .execute(operations(100, 10), new CosmosBulkExecutionOptions())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(responses);
+        assertEquals(100, responses.size());
+        for (CosmosBulkOperationResponse<Object> response : responses) {
+            assertFalse(DeadLetterSink.isFailure(response));
+            assertEquals(7.5, response.getResponse().getRequestCharge());
+        }
+        assertEquals(100, responses.stream().map(CosmosBulkOperationResponse::getOperation).distinct().count());
+    }
+
+    @Test
+    void PartitionOverItsThroughputIsThrottledTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        SimulatedBulkExecutor executor = SimulatedBulkExecutor.builder()
+                .partitionCount(1)
+                .requestUnitsPerSecond(100)
+                .requestCharge(10)
+                .medianLatency(Duration.ZERO)
+                .scheduler(scheduler)
+                .build();
+
+        List<CosmosBulkOperationResponse<Object>> responses = executor
+                .execute(operations(15, 1), new CosmosBulkExecutionOptions())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(responses);
+        List<Integer> statusCodes = responses.stream()
+                .map(response -> response.getResponse().getStatusCode())
+                .collect(Collectors.toList());
+        assertEquals(10, statusCodes.stream().filter(statusCode -> statusCode == 201).count());
+        assertEquals(5, statusCodes.stream().filter(statusCode -> statusCode == 429).count());
+        CosmosBulkOperationResponse<Object> throttled = responses.get(14);
+        assertEquals(0, throttled.getResponse().getRequestCharge());
+        assertEquals(Duration.ofMillis(100), throttled.getResponse().getRetryAfterDuration());
+    }
+
+    @Test
+    void EqualPartitionKeysShareTheirPartitionTest() {
+        SimulatedBulkExecutor executor = SimulatedBulkExecutor.builder()
+                .partitionCount(16)
+                .requestUnitsPerSecond(100)
+                .requestCharge(10)
+                .medianLatency(Duration.ZERO)
+                .scheduler(VirtualTimeScheduler.create())
+                .build();
+
+        // Every operation has its own, equal, PartitionKey instance
+        List<CosmosBulkOperationResponse<Object>> responses = executor
+                .execute(operations(15, 1), new CosmosBulkExecutionOptions())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(responses);
+        assertEquals(5, responses.stream()
+                .filter(response -> response.getResponse().getStatusCode() == 429)
+                .count());
+    }
+
+    @Test
+    void ThroughputRefillsOverTimeTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        SimulatedBulkExecutor executor = SimulatedBulkExecutor.builder()
+                .partitionCount(1)
+                .requestUnitsPerSecond(100)
+                .requestCharge(10)
+                .medianLatency(Duration.ZERO)
+                .scheduler(scheduler)
+                .build();
+        // Drains the bucket, which is full again a second later
+        Flux<CosmosItemOperation> operations = operations(10, 1)
+                .concatWith(Mono.delay(Duration.ofSeconds(1), scheduler).thenMany(operations(10, 1)));
+
+        StepVerifier.withVirtualTime(() -> executor.execute(operations, new CosmosBulkExecutionOptions())
+                                .map(response -> response.getResponse().getStatusCode()),
+                        () -> scheduler, Long.MAX_VALUE)
+                .expectNextSequence(Collections.nCopies(10, 201))
+                .thenAwait(Duration.ofSeconds(1))
+                .expectNextSequence(Collections.nCopies(10, 201))
+                .verifyComplete();
+    }
+
+    @Test
+    void ResponsesAreDelayedByTheLatencyTest() {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        SimulatedBulkExecutor executor = SimulatedBulkExecutor.builder()
+                .partitionCount(1)
+                .maxBatchSize(2)
+                .medianLatency(Duration.ofMillis(100))
+                .latencySpread(0)
+                .scheduler(scheduler)
+                .build();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(operations(4, 1),
+                                new CosmosBulkExecutionOptions().setMaxMicroBatchConcurrency(1)),
+                        () -> scheduler, Long.MAX_VALUE)
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(100))
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofMillis(100))
+                .expectNextCount(2)
+                .verifyComplete();
+    }
+
+    @Test
+    void LatenciesAreReproducibleTest() {
+        SimulatedBulkExecutor.SimulatedBulkExecutorBuilder builder = SimulatedBulkExecutor.builder()
+                .partitionCount(1)
+                .maxBatchSize(1)
+                .seed(42);
+
+        List<Long> completionTimes = completionTimes(builder);
+        assertEquals(completionTimes, completionTimes(builder));
+        assertNotEquals(completionTimes, completionTimes(builder.seed(43)));
+    }
+
+    @Test
+    void RetryPolicyGetsEveryOperationThroughTest() {
+        SimulatedBulkExecutor simulated = SimulatedBulkExecutor.builder()
+                .partitionCount(2)
+                .requestUnitsPerSecond(2_000)
+                .requestCharge(10)
+                .medianLatency(Duration.ofMillis(1))
+                .build();
+        BulkOperationExecutor executor = RetryPolicy.builder().maxAttempts(100).build().apply(simulated);
+
+        List<CosmosBulkOperationResponse<Object>> responses = executor
+                .execute(operations(500, 4), new CosmosBulkExecutionOptions())
+                .collectList()
+                .block(TIMEOUT);
+
+        assertNotNull(responses);
+        assertEquals(500, responses.size());
+        assertTrue(responses.stream().noneMatch(DeadLetterSink::isFailure));
+    }
+
+    @Test
+    void InvalidArgumentsAreRejectedTest() {
+        assertThrows(IllegalArgumentException.class, () -> SimulatedBulkExecutor.builder().partitionCount(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SimulatedBulkExecutor.builder().requestUnitsPerSecond(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SimulatedBulkExecutor.builder().requestUnitsPerSecond(5).requestCharge(10).build());
+        assertThrows(IllegalArgumentException.class, () -> SimulatedBulkExecutor.builder().maxBatchSize(0).build());
+        assertThrows(IllegalArgumentException.class,
+                () -> SimulatedBulkExecutor.builder().medianLatency(Duration.ofMillis(-1)).build());
+        assertThrows(IllegalArgumentException.class, () -> SimulatedBulkExecutor.builder().latencySpread(-1).build());
+    }
+
+    private static List<Long> completionTimes(SimulatedBulkExecutor.SimulatedBulkExecutorBuilder builder) {
+        VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        SimulatedBulkExecutor executor = builder.scheduler(scheduler).build();
+        List<Long> times = new ArrayList<>();
+
+        StepVerifier.withVirtualTime(() -> executor.execute(operations(10, 1), new CosmosBulkExecutionOptions())
+                                .doOnNext(response -> times.add(scheduler.now(TimeUnit.NANOSECONDS))),
+                        () -> scheduler, Long.MAX_VALUE)
+                .thenAwait(Duration.ofMinutes(1))
+                .expectNextCount(10)
+                .verifyComplete();
+        return times;
+    }
+
+    private static Flux<CosmosItemOperation> operations(int count, int partitionKeys) {
+        return Flux.range(0, count).map(i -> operation(i, partitionKeys));
+    }
+
+    private static CosmosItemOperation operation(int i, int partitionKeys) {
+        return CosmosBulkOperations.getCreateItemOperation(
+                Integer.toString(i), new PartitionKey("pk-" + i % partitionKeys));
+    }
+}
@@ -0,0 +1,134 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.impl.upload;
+
+import com.azure.cosmos.models.CosmosBulkOperations;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.cosmos.models.PartitionKey;
+import com.azure.graph.bulk.impl.upload.UploadCheckpoint.Sequenced;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadCheckpointTest {
+    @Test
+    void RestartSkipsCompletedObjectsTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("upload.checkpoint");
+
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(file)) {
+            Function<Sequenced<Integer>, CosmosItemOperation> converter =
+                    checkpoint.track("vertex", UploadCheckpointTest::toOperation);
+            List<CosmosItemOperation> operations = checkpoint.resume("vertex", IntStream.range(0, 10).boxed())
+                    .map(converter)
+                    .collect(Collectors.toList());
+
+            // Acknowledged out of order, the fifth operation failed
+            for (int i = 9; i >= 0; i--) {
+                assertEquals(i != 4, checkpoint.acknowledge(i == 4
+                        ? BulkResponses.response(operations.get(i), 500, 1, null)
+                        : BulkResponses.success(operations.get(i), 1)));
+            }
+            assertEquals(4, checkpoint.getCompleted("vertex"));
+        }
+
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(file)) {
+            assertEquals(4, checkpoint.getCompleted("vertex"));
+            assertEquals(0, checkpoint.getCompleted("edge"));
+            assertEquals(List.of(4, 5, 6), checkpoint.resume("vertex", IntStream.range(0, 7).boxed())
+                    .map(Sequenced::getItem)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    void SkippedObjectsAreDoneTest(@TempDir Path directory) throws IOException {
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(directory.resolve("upload.checkpoint"))) {
+            Function<Sequenced<Integer>, CosmosItemOperation> converter = checkpoint.track("edge",
+                    i -> i % 2 == 0 ? null : toOperation(i));
+            List<CosmosItemOperation> operations = checkpoint.resume("edge", IntStream.range(0, 6).boxed())
+                    .map(converter)
+                    .collect(Collectors.toList());
+
+            assertEquals(1, checkpoint.getCompleted("edge"));
+            checkpoint.acknowledge(BulkResponses.success(operations.get(1), 1));
+            checkpoint.acknowledge(BulkResponses.success(operations.get(3), 1));
+            assertEquals(5, checkpoint.getCompleted("edge"));
+        }
+    }
+
+    @Test
+    void DoneCountsFailuresTest(@TempDir Path directory) throws IOException {
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(directory.resolve("upload.checkpoint"))) {
+            Function<Sequenced<Integer>, CosmosItemOperation> converter =
+                    checkpoint.track("vertex", UploadCheckpointTest::toOperation);
+            List<CosmosItemOperation> operations = checkpoint.resume("vertex", IntStream.range(0, 3).boxed())
+                    .map(converter)
+                    .collect(Collectors.toList());
+
+            // The failed operation was handed to a dead letter sink
+            checkpoint.done(operations.get(0));
+            checkpoint.acknowledge(BulkResponses.success(operations.get(1), 1));
+            assertEquals(2, checkpoint.getCompleted("vertex"));
+
+            // Operations no longer in flight are ignored
+            checkpoint.done(operations.get(0));
+            assertEquals(2, checkpoint.getCompleted("vertex"));
+        }
+    }
+
+    @Test
+    void OperationsWrittenAgainAsUpsertsAreDoneTest(@TempDir Path directory) throws IOException {
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(directory.resolve("upload.checkpoint"))) {
+            Function<Sequenced<Integer>, CosmosItemOperation> converter =
+                    checkpoint.track("vertex", UploadCheckpointTest::toOperation);
+            CosmosItemOperation create = checkpoint.resume("vertex", Stream.of(0)).map(converter)
+                    .findFirst()
+                    .orElseThrow();
+
+            CosmosItemOperation upsert = CosmosBulkOperations.getUpsertItemOperation(
+                    create.getItem(), create.getPartitionKeyValue());
+            checkpoint.acknowledge(BulkResponses.success(upsert, 1));
+            assertEquals(1, checkpoint.getCompleted("vertex"));
+        }
+    }
+
+    @Test
+    void SaveKeepsUntouchedPhasesTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("upload.checkpoint");
+        Files.writeString(file, "vertex=100\nedge=20\n");
+
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(file)) {
+            Function<Sequenced<Integer>, CosmosItemOperation> converter = checkpoint.track("edge", i -> null);
+            checkpoint.resume("edge", IntStream.range(0, 30).boxed()).forEach(converter::apply);
+        }
+
+        try (UploadCheckpoint checkpoint = UploadCheckpoint.open(file)) {
+            assertEquals(100, checkpoint.getCompleted("vertex"));
+            assertEquals(30, checkpoint.getCompleted("edge"));
+        }
+        assertFalse(Files.exists(directory.resolve("upload.checkpoint.tmp")));
+    }
+
+    @Test
+    void RejectsOtherFilesTest(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("upload.checkpoint");
+        Files.writeString(file, "vertex=many\n");
+
+        assertThrows(IOException.class, () -> UploadCheckpoint.open(file));
+    }
+
+    private static CosmosItemOperation toOperation(int i) {
+        return CosmosBulkOperations.getCreateItemOperation(Integer.toString(i), new PartitionKey("pk"));
+    }
+}
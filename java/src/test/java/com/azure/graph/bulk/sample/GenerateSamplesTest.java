@@ -0,0 +1,84 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.sample;
+
+import com.azure.graph.bulk.impl.model.GremlinEdge;
+import com.azure.graph.bulk.impl.model.GremlinEdgeVertexInfo;
+import com.azure.graph.bulk.impl.model.GremlinVertex;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
+import com.azure.graph.bulk.sample.model.PersonVertex;
+import com.azure.graph.bulk.sample.model.RelationshipEdge;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GenerateSamplesTest {
+    @Test
+    void DirectoryMatchesVerticesTest() {
+        VertexDirectory directory = new VertexDirectory();
+        List<PersonVertex> vertices = GenerateDomainSamples.getVertices(20, directory).collect(Collectors.toList());
+
+        assertEquals(20, directory.size());
+        for (int i = 0; i < vertices.size(); i++) {
+            assertEquals(GremlinEdgeVertexInfo.fromGremlinVertex(vertices.get(i)), directory.getVertexInfo(i));
+        }
+    }
+
+    @Test
+    void DomainEdgesConnectGeneratedVerticesTest() {
+        VertexDirectory directory = new VertexDirectory();
+        GenerateDomainSamples.getVertices(30, directory).forEach(vertex -> { });
+        List<RelationshipEdge> edges = GenerateDomainSamples.getEdges(directory, 2).collect(Collectors.toList());
+
+        assertFalse(edges.isEmpty());
+        for (RelationshipEdge edge : edges) {
+            assertTrue(directory.contains(edge.sourceVertexInfo));
+            assertTrue(directory.contains(edge.destinationVertexInfo));
+        }
+    }
+
+    @Test
+    void EdgesConnectGeneratedVerticesTest() {
+        VertexDirectory directory = new VertexDirectory();
+        Map<String, GremlinVertex> vertices = GeneratePOJOSamples.getVertices(50, directory)
+                .collect(Collectors.toMap(GremlinVertex::getId, Function.identity()));
+        List<GremlinEdge> edges = GeneratePOJOSamples.getEdges(directory, 3).collect(Collectors.toList());
+
+        assertTrue(edges.size() >= 50 && edges.size() <= 150, Integer.toString(edges.size()));
+        for (GremlinEdge edge : edges) {
+            GremlinVertex source = vertices.get(edge.getSourceVertexInfo().getId());
+            GremlinVertex destination = vertices.get(edge.getDestinationVertexInfo().getId());
+            assertNotNull(source);
+            assertNotNull(destination);
+            assertNotEquals(source.getId(), destination.getId());
+            assertEquals(source.getPartitionKey(), edge.getPartitionKey());
+            assertEquals(destination.getPartitionKey(), edge.getDestinationVertexInfo().getPartitionKey());
+        }
+    }
+
+    @Test
+    void SeedFixesTheGeneratedGraphTest() {
+        VertexDirectory first = new VertexDirectory();
+        VertexDirectory second = new VertexDirectory();
+        List<PersonVertex> firstVertices = GenerateDomainSamples.getVertices(20, first, 7).collect(Collectors.toList());
+        List<PersonVertex> secondVertices = GenerateDomainSamples.getVertices(20, second, 7)
+                .collect(Collectors.toList());
+
+        assertEquals(firstVertices, secondVertices);
+        assertEquals(GenerateDomainSamples.getEdges(first, 3, 11).collect(Collectors.toList()),
+                GenerateDomainSamples.getEdges(second, 3, 11).collect(Collectors.toList()));
+        assertNotEquals(firstVertices.get(0).id,
+                GenerateDomainSamples.getVertices(1, new VertexDirectory(), 8).findFirst().orElseThrow().id);
+
+        List<GremlinVertex> pojoVertices = GeneratePOJOSamples.getVertices(5, new VertexDirectory(), 7)
+                .collect(Collectors.toList());
+        assertEquals(pojoVertices, GeneratePOJOSamples.getVertices(5, new VertexDirectory(), 7)
+                .collect(Collectors.toList()));
+    }
+}
@@ -0,0 +1,87 @@
+// Copyright (c) Microsoft Corporation. All rights reserved.
+// Licensed under the MIT License.
+
+package com.azure.graph.bulk.sample;
+
+import com.azure.cosmos.models.CosmosBulkOperationResponse;
+import com.azure.cosmos.models.CosmosItemOperation;
+import com.azure.graph.bulk.impl.GremlinDocumentOperationCreator;
+import com.azure.graph.bulk.impl.model.VertexDirectory;
+import com.azure.graph.bulk.impl.upload.BulkOperationExecutor;
+import com.azure.graph.bulk.impl.upload.DeadLetterSink;
+import com.azure.graph.bulk.impl.upload.GraphSource;
+import com.azure.graph.bulk.impl.upload.InMemoryBulkExecutor;
+import com.azure.graph.bulk.impl.upload.SimulatedBulkExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UploadWithBulkLoaderTest {
+    @Test
+    void UploadsThroughTheGivenExecutorTest() {
+        SimulatedBulkExecutor simulated = SimulatedBulkExecutor.builder()
+                .requestUnitsPerSecond(5_000)
+                .medianLatency(Duration.ofMillis(1))
+                .build();
+        List<CosmosBulkOperationResponse<Object>> responses = Collections.synchronizedList(new ArrayList<>());
+        BulkOperationExecutor recording = (operations, options) -> simulated.execute(operations, options)
+                .doOnNext(responses::add);
+        UploadWithBulkLoader loader = UploadWithBulkLoader.builder().executor(recording).build();
+
+        VertexDirectory directory = new VertexDirectory();
+        loader.uploadDocuments(GraphSource.of(
+                () -> GenerateDomainSamples.getVertices(200, directory, 1),
+                () -> GenerateDomainSamples.getEdges(directory, 3, 2)), true);
+
+        List<CosmosBulkOperationResponse<Object>> successes = new ArrayList<>();
+        synchronized (responses) {
+            responses.stream().filter(response -> !DeadLetterSink.isFailure(response)).forEach(successes::add);
+        }
+        long edges = successes.stream()
+                .filter(response -> GremlinDocumentOperationCreator.isEdge(response.getOperation()))
+                .count();
+        assertEquals(200, successes.size() - edges);
+        assertTrue(edges >= 200 && edges <= 600, Long.toString(edges));
+        // The edges only start once the vertices are done
+        assertFalse(GremlinDocumentOperationCreator.isEdge(successes.get(199).getOperation()));
+    }
+
+    @Test
+    void TeeGetsEveryOperationOnceTest() {
+        // Throttled enough for the retry policy to write some of the operations again
+        SimulatedBulkExecutor simulated = SimulatedBulkExecutor.builder()
+                .partitionCount(1)
+                .requestUnitsPerSecond(1_000)
+                .medianLatency(Duration.ofMillis(1))
+                .build();
+        AtomicInteger attempts = new AtomicInteger();
+        Set<CosmosItemOperation> operations = Collections.synchronizedSet(
+                Collections.newSetFromMap(new IdentityHashMap<>()));
+        BulkOperationExecutor counting = (input, options) -> simulated.execute(input
+                .doOnNext(operation -> attempts.incrementAndGet())
+                .doOnNext(operations::add), options);
+        InMemoryBulkExecutor tee = new InMemoryBulkExecutor();
+        AtomicInteger teed = new AtomicInteger();
+        UploadWithBulkLoader loader = UploadWithBulkLoader.builder()
+                .executor(counting)
+                .tee((input, options) -> tee.execute(input.doOnNext(operation -> teed.incrementAndGet()), options))
+                .build();
+
+        VertexDirectory directory = new VertexDirectory();
+        loader.uploadDocuments(GraphSource.of(
+                () -> GenerateDomainSamples.getVertices(100, directory, 1),
+                () -> GenerateDomainSamples.getEdges(directory, 2, 2)), true);
+
+        assertTrue(attempts.get() > operations.size(), attempts + " attempts");
+        assertEquals(operations.size(), teed.get());
+        assertEquals(operations.size(), tee.size());
+    }
+}